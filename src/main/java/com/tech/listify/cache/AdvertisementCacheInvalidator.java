@@ -0,0 +1,73 @@
+package com.tech.listify.cache;
+
+import com.tech.listify.event.AdvertisementChangedEvent;
+import com.tech.listify.event.AdvertisementSnapshot;
+import com.tech.listify.service.CategoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Инвалидирует кэши лент, поиска и фасетов после коммита изменения объявления.
+ * Сбрасываются только теги, которые пересекаются со старым или новым состоянием объявления.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AdvertisementCacheInvalidator {
+
+    private static final String FACETS_CACHE = "advertisement_facets";
+    private static final String ALL_CATEGORIES_KEY = "all";
+
+    private final AdvertisementCacheTags cacheTags;
+    private final CacheTagVersions tagVersions;
+    private final CategoryService categoryService;
+    private final CacheManager cacheManager;
+
+    private final LongAdder events = new LongAdder();
+    private final LongAdder invalidatedTags = new LongAdder();
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onAdvertisementChanged(AdvertisementChangedEvent event) {
+        Set<String> tags = new LinkedHashSet<>(cacheTags.tagsOf(event.before()));
+        tags.addAll(cacheTags.tagsOf(event.after()));
+        events.increment();
+        if (tags.isEmpty()) {
+            log.debug("Advertisement {} is not listed before or after {}, caches kept", event.advertisementId(), event.type());
+            return;
+        }
+        tagVersions.invalidate(tags);
+        invalidatedTags.add(tags.size());
+        evictFacets(event.before());
+        evictFacets(event.after());
+        log.debug("Invalidated cache tags {} after {} of advertisement {}", tags, event.type(), event.advertisementId());
+    }
+
+    public Map<String, Long> stats() {
+        return Map.of(
+                "events", events.sum(),
+                "invalidatedTags", invalidatedTags.sum());
+    }
+
+    /**
+     * Фасеты кэшируются по ID категории фильтра, поэтому затрагиваются только записи
+     * предков категории объявления и запись без категории.
+     */
+    private void evictFacets(AdvertisementSnapshot snapshot) {
+        Cache facets = cacheManager.getCache(FACETS_CACHE);
+        if (facets == null || snapshot == null || !snapshot.isActive()) {
+            return;
+        }
+        facets.evict(ALL_CATEGORIES_KEY);
+        categoryService.findAncestorCategoryIds(snapshot.categoryId()).forEach(facets::evict);
+    }
+}
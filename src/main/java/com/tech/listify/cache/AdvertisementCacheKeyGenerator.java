@@ -0,0 +1,51 @@
+package com.tech.listify.cache;
+
+import com.tech.listify.dto.advertisementdto.AdvertisementSearchCriteriaDto;
+import com.tech.listify.service.impl.AdvertisementRelevanceRanker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.StringJoiner;
+
+/**
+ * Ключи для кэшей {@code active_advertisements} и {@code advertisements_search}:
+ * {@code <тег>@<версия тега>:<хэш параметров>}. Тег определяется критериями поиска
+ * (см. {@link AdvertisementCacheTags}), у ленты без критериев это {@link AdvertisementCacheTags#ALL}.
+ * Хэш берется от канонического вида критериев и страницы ({@link SearchCacheKeys}), поэтому
+ * равнозначные запросы попадают в одну запись. Для {@code sort=relevance} в хэш входит и версия весов
+ * ранжирования, чтобы после их изменения узлы не отдавали страницы, ранжированные прежними весами.
+ */
+@Component(AdvertisementCacheKeyGenerator.NAME)
+@RequiredArgsConstructor
+public class AdvertisementCacheKeyGenerator implements KeyGenerator {
+
+    public static final String NAME = "advertisementCacheKeyGenerator";
+
+    private final AdvertisementCacheTags cacheTags;
+    private final CacheTagVersions tagVersions;
+    private final AdvertisementRelevanceRanker relevanceRanker;
+
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        AdvertisementSearchCriteriaDto criteria = null;
+        StringJoiner canonical = new StringJoiner("#");
+        for (Object param : params) {
+            if (param instanceof AdvertisementSearchCriteriaDto searchCriteria) {
+                criteria = searchCriteria;
+                canonical.add(SearchCacheKeys.canonical(searchCriteria));
+            } else if (param instanceof Pageable pageable) {
+                canonical.add(SearchCacheKeys.canonical(pageable));
+                if (pageable.getSort().getOrderFor(AdvertisementRelevanceRanker.SORT_PROPERTY) != null) {
+                    canonical.add("ranking:" + relevanceRanker.weightsVersion());
+                }
+            } else {
+                canonical.add(String.valueOf(param));
+            }
+        }
+        String tag = cacheTags.tagFor(criteria);
+        return tag + "@" + tagVersions.version(tag) + ":" + SearchCacheKeys.hash(canonical.toString());
+    }
+}
@@ -0,0 +1,99 @@
+package com.tech.listify.cache;
+
+import com.tech.listify.dto.advertisementdto.AdvertisementSearchCriteriaDto;
+import com.tech.listify.event.AdvertisementSnapshot;
+import com.tech.listify.model.enums.PriceRange;
+import com.tech.listify.service.CategoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Теги кэшированных лент и результатов поиска.
+ * <p>
+ * Запись помечается одним тегом — по самому избирательному фильтру запроса: продавец, город,
+ * район, категория, область, ценовой диапазон. Объявление же дает тег по каждому своему
+ * значению (для категории — по всем предкам), поэтому любая запись, в которую объявление
+ * могло попасть, делит с ним хотя бы один тег. Запросы без подходящих фильтров и лента
+ * помечаются тегом {@link #ALL}, который сбрасывается при любом изменении активного объявления.
+ */
+@Component
+@RequiredArgsConstructor
+public class AdvertisementCacheTags {
+
+    public static final String ALL = "ads:all";
+
+    private final CategoryService categoryService;
+
+    public String tagFor(AdvertisementSearchCriteriaDto criteria) {
+        if (criteria == null) {
+            return ALL;
+        }
+        if (criteria.sellerId() != null) {
+            return tagForSeller(criteria.sellerId());
+        }
+        if (criteria.cityId() != null) {
+            return city(criteria.cityId());
+        }
+        if (criteria.districtId() != null) {
+            return district(criteria.districtId());
+        }
+        if (criteria.categoryId() != null) {
+            return category(criteria.categoryId());
+        }
+        if (criteria.regionId() != null) {
+            return region(criteria.regionId());
+        }
+        Optional<PriceRange> priceRange = PriceRange.enclosing(criteria.minPrice(), criteria.maxPrice());
+        return priceRange.map(AdvertisementCacheTags::price).orElse(ALL);
+    }
+
+    /**
+     * Теги всех записей, которые могут содержать объявление в этом состоянии.
+     * Неактивные объявления в ленты и поиск не попадают, для них набор пуст.
+     */
+    public Set<String> tagsOf(AdvertisementSnapshot snapshot) {
+        Set<String> tags = new LinkedHashSet<>();
+        if (snapshot == null || !snapshot.isActive()) {
+            return tags;
+        }
+        tags.add(ALL);
+        tags.add(tagForSeller(snapshot.sellerId()));
+        tags.add(city(snapshot.cityId()));
+        tags.add(district(snapshot.districtId()));
+        tags.add(region(snapshot.regionId()));
+        categoryService.findAncestorCategoryIds(snapshot.categoryId()).forEach(id -> tags.add(category(id)));
+        tags.add(price(PriceRange.of(snapshot.price())));
+        return tags;
+    }
+
+    /**
+     * Тег объявлений продавца; сбрасывается только изменениями его объявлений.
+     */
+    public String tagForSeller(Long sellerId) {
+        return "ads:seller:" + sellerId;
+    }
+
+    private static String city(Integer id) {
+        return "ads:city:" + id;
+    }
+
+    private static String district(Integer id) {
+        return "ads:district:" + id;
+    }
+
+    private static String region(Integer id) {
+        return "ads:region:" + id;
+    }
+
+    private static String category(Integer id) {
+        return "ads:category:" + id;
+    }
+
+    private static String price(PriceRange range) {
+        return "ads:price:" + range.name();
+    }
+}
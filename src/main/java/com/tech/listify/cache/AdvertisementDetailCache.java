@@ -0,0 +1,276 @@
+package com.tech.listify.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tech.listify.dto.advertisementdto.AdvertisementDetailDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.util.ByteUtils;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Пакетный доступ к кэшу карточек объявлений {@value #CACHE_NAME}, который заполняют
+ * {@code @Cacheable}/{@code @CachePut} сервиса объявлений.
+ * <p>
+ * Для Redis все ключи читаются одним {@code MGET}, а промахи дописываются одним конвейером {@code SET NX}
+ * с тем же TTL, ключами и сериализацией, что и у {@link RedisCache}. Для {@link TwoLevelCache} сначала
+ * проверяется локальный уровень, а Redis запрашивается только для промахов. Для других реализаций кэша
+ * и при недоступности Redis используются поштучные обращения к {@link Cache}.
+ */
+@Component
+@Slf4j
+public class AdvertisementDetailCache {
+
+    public static final String CACHE_NAME = "advertisements";
+
+    private static final String VIEW_COUNT_KEY_PREFIX = "advertisement-views:";
+
+    private final CacheManager cacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final Duration viewCountTtl;
+    /**
+     * Счетчики просмотров, когда Redis нет (один узел).
+     */
+    private final com.github.benmanes.caffeine.cache.Cache<Long, Long> localViewCounts;
+
+    public AdvertisementDetailCache(CacheManager cacheManager, ObjectProvider<StringRedisTemplate> redisTemplate,
+                                    @Value("${app.views.count-ttl:15m}") Duration viewCountTtl) {
+        this.cacheManager = cacheManager;
+        this.redisTemplate = redisTemplate.getIfAvailable();
+        this.viewCountTtl = viewCountTtl;
+        this.localViewCounts = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(viewCountTtl)
+                .build();
+    }
+
+    /**
+     * Карточка из кэша или загруженная {@code loader}. Для {@link TwoLevelCache} одновременные промахи
+     * по одному ID загружают карточку один раз. Исключение загрузчика пробрасывается как есть.
+     */
+    public AdvertisementDetailDto get(Long id, Callable<AdvertisementDetailDto> loader) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        try {
+            return cache != null ? cache.get(id, loader) : loader.call();
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new Cache.ValueRetrievalException(id, loader, e);
+        }
+    }
+
+    public void put(Long id, AdvertisementDetailDto detail) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache != null) {
+            cache.put(id, detail);
+        }
+    }
+
+    /**
+     * Найденные в кэше карточки по ID; отсутствующих ID в результате нет.
+     */
+    public Map<Long, AdvertisementDetailDto> getAll(List<Long> ids) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null || ids.isEmpty()) {
+            return Map.of();
+        }
+        RedisCache redisCache = redisCache(cache);
+        if (redisCache != null && redisTemplate != null) {
+            Map<Long, AdvertisementDetailDto> found = new HashMap<>();
+            List<Long> remoteIds = ids;
+            if (cache instanceof TwoLevelCache twoLevelCache) {
+                remoteIds = new ArrayList<>();
+                for (Long id : ids) {
+                    if (twoLevelCache.getLocal(id) instanceof AdvertisementDetailDto detail) {
+                        found.put(id, detail);
+                    } else {
+                        remoteIds.add(id);
+                    }
+                }
+            }
+            if (remoteIds.isEmpty()) {
+                return found;
+            }
+            try {
+                Map<Long, AdvertisementDetailDto> remote = multiGet(redisCache.getCacheConfiguration(), remoteIds);
+                if (cache instanceof TwoLevelCache twoLevelCache) {
+                    remote.forEach(twoLevelCache::putLocal);
+                    twoLevelCache.recordRemoteLookups(remote.size(), remoteIds.size() - remote.size());
+                }
+                found.putAll(remote);
+                return found;
+            } catch (DataAccessException e) {
+                log.warn("Failed to read {} advertisements from Redis with MGET, falling back to single gets", remoteIds.size(), e);
+            }
+        }
+        Map<Long, AdvertisementDetailDto> found = new HashMap<>();
+        for (Long id : ids) {
+            AdvertisementDetailDto detail = cache.get(id, AdvertisementDetailDto.class);
+            if (detail != null) {
+                found.put(id, detail);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Дописывает карточки, прочитанные из БД после промаха. Уже лежащие в кэше карточки не перезаписываются:
+     * пока шло чтение, {@code @CachePut} мог положить более свежую версию.
+     */
+    public void putAll(Map<Long, AdvertisementDetailDto> details) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null || details.isEmpty()) {
+            return;
+        }
+        RedisCache redisCache = redisCache(cache);
+        if (redisCache != null && redisTemplate != null) {
+            try {
+                List<Long> written = multiSet(redisCache.getCacheConfiguration(), details);
+                if (cache instanceof TwoLevelCache twoLevelCache) {
+                    twoLevelCache.evictLocal(details.keySet());
+                    written.forEach(id -> twoLevelCache.putLocal(id, details.get(id)));
+                }
+                return;
+            } catch (DataAccessException e) {
+                log.warn("Failed to write {} advertisements to Redis in a pipeline, falling back to single puts", details.size(), e);
+            }
+        }
+        details.forEach(cache::putIfAbsent);
+    }
+
+    /**
+     * Запоминает счетчики просмотров, записанные в БД, рядом с карточками: карточка в кэше не
+     * обновляется при каждом сбросе просмотров, а актуальный счетчик берется отсюда. Ключ живет
+     * {@code viewCountTtl}, не меньше TTL карточки, поэтому пока карточка с прежним счетчиком
+     * в кэше, записанный позже счетчик не пропадет. Ошибка Redis не прерывает сброс: карточки
+     * покажут прежний счетчик до истечения.
+     */
+    public void putViewCounts(Map<Long, Long> viewCounts) {
+        if (viewCounts.isEmpty()) {
+            return;
+        }
+        if (redisTemplate == null) {
+            localViewCounts.putAll(viewCounts);
+            return;
+        }
+        try {
+            Expiration expiration = Expiration.from(viewCountTtl);
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                viewCounts.forEach((id, count) -> connection.stringCommands().set(
+                        viewCountKey(id).getBytes(StandardCharsets.UTF_8), String.valueOf(count).getBytes(StandardCharsets.UTF_8),
+                        expiration, RedisStringCommands.SetOption.upsert()));
+                return null;
+            });
+        } catch (DataAccessException e) {
+            log.warn("Failed to store view counts of {} advertisements in Redis", viewCounts.size(), e);
+        }
+    }
+
+    /**
+     * Записанные в БД счетчики просмотров по ID одним {@code MGET}; ID без сохраненного счетчика в результате нет.
+     */
+    public Map<Long, Long> getViewCounts(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        if (redisTemplate == null) {
+            return localViewCounts.getAllPresent(ids);
+        }
+        List<String> values;
+        try {
+            values = redisTemplate.opsForValue().multiGet(ids.stream().map(AdvertisementDetailCache::viewCountKey).toList());
+        } catch (DataAccessException e) {
+            log.warn("Failed to read view counts of {} advertisements from Redis", ids.size(), e);
+            return Map.of();
+        }
+        Map<Long, Long> found = new HashMap<>();
+        for (int i = 0; values != null && i < ids.size(); i++) {
+            if (values.get(i) != null) {
+                found.put(ids.get(i), Long.parseLong(values.get(i)));
+            }
+        }
+        return found;
+    }
+
+    private Map<Long, AdvertisementDetailDto> multiGet(RedisCacheConfiguration configuration, List<Long> ids) {
+        byte[][] keys = ids.stream().map(id -> cacheKey(configuration, id)).toArray(byte[][]::new);
+        List<byte[]> values = redisTemplate.execute((RedisCallback<List<byte[]>>) connection -> connection.stringCommands().mGet(keys));
+        Map<Long, AdvertisementDetailDto> found = new HashMap<>();
+        if (values == null) {
+            return found;
+        }
+        for (int i = 0; i < ids.size(); i++) {
+            byte[] value = values.get(i);
+            if (value != null && configuration.getValueSerializationPair().read(ByteBuffer.wrap(value)) instanceof AdvertisementDetailDto detail) {
+                found.put(ids.get(i), detail);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * ID карточек, которые действительно записаны; занятые ключи {@code SET NX} пропускает.
+     */
+    private List<Long> multiSet(RedisCacheConfiguration configuration, Map<Long, AdvertisementDetailDto> details) {
+        List<Long> ids = new ArrayList<>(details.keySet());
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Long id : ids) {
+                AdvertisementDetailDto detail = details.get(id);
+                byte[] value = ByteUtils.getBytes(configuration.getValueSerializationPair().write(detail));
+                Duration ttl = configuration.getTtlFunction().getTimeToLive(id, detail);
+                Expiration expiration = ttl.isZero() || ttl.isNegative() ? Expiration.persistent() : Expiration.from(ttl);
+                connection.stringCommands().set(cacheKey(configuration, id), value, expiration, RedisStringCommands.SetOption.ifAbsent());
+            }
+            return null;
+        });
+        List<Long> written = new ArrayList<>();
+        for (int i = 0; i < ids.size() && i < results.size(); i++) {
+            if (Boolean.TRUE.equals(results.get(i))) {
+                written.add(ids.get(i));
+            }
+        }
+        return written;
+    }
+
+    private static RedisCache redisCache(Cache cache) {
+        if (cache instanceof TwoLevelCache twoLevelCache) {
+            return twoLevelCache.getRemote();
+        }
+        return cache instanceof RedisCache redisCache ? redisCache : null;
+    }
+
+    private static String viewCountKey(Long id) {
+        return VIEW_COUNT_KEY_PREFIX + id;
+    }
+
+    /**
+     * Тот же ключ, что строит {@link RedisCache} для {@code key = "#id"}.
+     */
+    private static byte[] cacheKey(RedisCacheConfiguration configuration, Long id) {
+        String key = configuration.usePrefix() ? configuration.getKeyPrefixFor(CACHE_NAME) + id : String.valueOf(id);
+        return ByteUtils.getBytes(configuration.getKeySerializationPair().write(key));
+    }
+}
@@ -0,0 +1,81 @@
+package com.tech.listify.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Короткая аренда ключа кэша в Redis: пока один узел вычисляет значение, остальные ждут его
+ * появления в Redis, а не идут в БД. Аренда истекает сама, поэтому упавший узел не блокирует ключ
+ * дольше {@code ttl}. Если Redis недоступен, аренда считается полученной: нагрузку на БД тогда
+ * ограничивает только поштучная загрузка внутри узла.
+ */
+@Slf4j
+public class CacheLoadLease {
+
+    private static final String KEY_PREFIX = "cache-lease:";
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('get', KEYS[1]) == ARGV[1] then
+                return redis.call('del', KEYS[1])
+            end
+            return 0""", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final String owner = UUID.randomUUID().toString();
+
+    public CacheLoadLease(StringRedisTemplate redisTemplate, Duration ttl, Duration waitTimeout) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = ttl;
+        this.waitTimeout = waitTimeout;
+    }
+
+    public boolean tryAcquire(String cacheName, String key) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(leaseKey(cacheName, key), owner, ttl));
+        } catch (DataAccessException e) {
+            log.warn("Failed to acquire load lease for cache {} key {}: {}", cacheName, key, e.getMessage());
+            return true;
+        }
+    }
+
+    public void release(String cacheName, String key) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(leaseKey(cacheName, key)), owner);
+        } catch (DataAccessException e) {
+            log.debug("Failed to release load lease for cache {} key {}, it expires in {}", cacheName, key, ttl);
+        }
+    }
+
+    /**
+     * Оставшееся время жизни ключа Redis в миллисекундах или {@code -1}, если оно неизвестно.
+     */
+    public long remainingTtlMillis(byte[] redisKey) {
+        try {
+            Long ttlMillis = redisTemplate.execute((RedisCallback<Long>) connection -> connection.keyCommands().pTtl(redisKey));
+            return ttlMillis != null && ttlMillis >= 0 ? ttlMillis : -1;
+        } catch (DataAccessException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Сколько ждать значения, которое вычисляет другой узел, прежде чем вычислить его самому.
+     */
+    public Duration getWaitTimeout() {
+        return waitTimeout;
+    }
+
+    private static String leaseKey(String cacheName, String key) {
+        return KEY_PREFIX + cacheName + "::" + key;
+    }
+}
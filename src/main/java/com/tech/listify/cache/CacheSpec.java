@@ -0,0 +1,33 @@
+package com.tech.listify.cache;
+
+import java.time.Duration;
+
+/**
+ * Настройки одного кэша из {@code app.cache.caches.<имя>}. Незаданные параметры ({@code null})
+ * берутся из значений по умолчанию, см. {@link #withDefaults(CacheSpec)}.
+ *
+ * @param ttl          время жизни записи в Redis
+ * @param localTtl     время жизни записи в локальном кэше узла, не больше {@code ttl}
+ * @param maxEntries   максимальное число записей в локальном кэше узла
+ * @param cacheNulls   кэшировать ли {@code null}
+ * @param compress     сжимать ли значения в Redis
+ * @param earlyRefresh обновлять ли горячие ключи до истечения (XFetch), см. {@link TwoLevelCache}
+ * @param softTtl      возраст, после которого значение отдается как есть и обновляется в фоне;
+ *                     {@code null} или не меньше {@code ttl} — режим выключен
+ */
+public record CacheSpec(Duration ttl, Duration localTtl, Long maxEntries, Boolean cacheNulls, Boolean compress,
+                        Boolean earlyRefresh, Duration softTtl) {
+
+    public CacheSpec withDefaults(CacheSpec defaults) {
+        Duration effectiveTtl = ttl != null ? ttl : defaults.ttl();
+        Duration effectiveLocalTtl = localTtl != null ? localTtl : defaults.localTtl();
+        return new CacheSpec(
+                effectiveTtl,
+                effectiveLocalTtl.compareTo(effectiveTtl) > 0 ? effectiveTtl : effectiveLocalTtl,
+                maxEntries != null ? maxEntries : defaults.maxEntries(),
+                cacheNulls != null ? cacheNulls : defaults.cacheNulls(),
+                compress != null ? compress : defaults.compress(),
+                earlyRefresh != null ? earlyRefresh : defaults.earlyRefresh(),
+                softTtl != null && softTtl.compareTo(effectiveTtl) < 0 ? softTtl : null);
+    }
+}
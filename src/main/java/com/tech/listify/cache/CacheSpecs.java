@@ -0,0 +1,45 @@
+package com.tech.listify.cache;
+
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Настройки всех кэшей: заданные в {@value #PROPERTY_PREFIX} поверх значений по умолчанию.
+ * Используются и для Redis, и для локального кэша узла.
+ */
+public class CacheSpecs {
+
+    public static final String PROPERTY_PREFIX = "app.cache.caches";
+
+    private final Map<String, CacheSpec> specs;
+    private final CacheSpec defaults;
+
+    public CacheSpecs(Map<String, CacheSpec> specs, CacheSpec defaults) {
+        this.specs = Map.copyOf(specs);
+        this.defaults = defaults;
+    }
+
+    public static CacheSpecs bind(Environment environment, CacheSpec defaults) {
+        Map<String, CacheSpec> specs = Binder.get(environment)
+                .bind(PROPERTY_PREFIX, Bindable.mapOf(String.class, CacheSpec.class))
+                .orElse(Map.of());
+        return new CacheSpecs(specs, defaults);
+    }
+
+    public CacheSpec get(String cacheName) {
+        CacheSpec spec = specs.get(cacheName);
+        return spec != null ? spec.withDefaults(defaults) : defaults;
+    }
+
+    public CacheSpec getDefaults() {
+        return defaults;
+    }
+
+    public Set<String> getConfiguredCacheNames() {
+        return specs.keySet();
+    }
+}
@@ -0,0 +1,53 @@
+package com.tech.listify.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.CacheStatistics;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Сводка по кэшам для администратора: попадания, промахи и доля попаданий по каждому кэшу
+ * (для Redis требуется {@code spring.cache.redis.enable-statistics}), для двухуровневого кэша —
+ * отдельно по локальному уровню и Redis, а также счетчики тегированной инвалидации.
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheStatsReporter {
+
+    private final CacheManager cacheManager;
+    private final AdvertisementCacheInvalidator cacheInvalidator;
+
+    public Map<String, Object> stats() {
+        Map<String, Object> caches = new LinkedHashMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache instanceof TwoLevelCache twoLevelCache) {
+                Map<String, Object> levels = new LinkedHashMap<>(twoLevelCache.stats());
+                levels.put("redis", redisStats(twoLevelCache.getRemote()));
+                caches.put(name, levels);
+            } else if (cache instanceof RedisCache redisCache) {
+                caches.put(name, redisStats(redisCache));
+            }
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("caches", caches);
+        stats.put("invalidation", cacheInvalidator.stats());
+        return stats;
+    }
+
+    private static Map<String, Object> redisStats(RedisCache redisCache) {
+        CacheStatistics statistics = redisCache.getStatistics();
+        long gets = statistics.getHits() + statistics.getMisses();
+        return Map.of(
+                "hits", statistics.getHits(),
+                "misses", statistics.getMisses(),
+                "hitRate", gets == 0 ? 0.0 : (double) statistics.getHits() / gets,
+                "puts", statistics.getPuts(),
+                "deletes", statistics.getDeletes());
+    }
+}
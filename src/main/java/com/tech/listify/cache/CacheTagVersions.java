@@ -0,0 +1,111 @@
+package com.tech.listify.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Версии тегов кэша. Версия тега входит в ключ каждой записи с этим тегом, поэтому
+ * инвалидация тега — это один {@code INCR}: старые записи становятся недостижимыми
+ * и вытесняются по TTL, а перебирать и удалять ключи не нужно.
+ * <p>
+ * Версии хранятся в Redis и общие для всех узлов. Чтобы попадание в L1 не требовало обращения
+ * к Redis за версией, узел держит прочитанные версии в памяти {@code app.cache.tag-versions.local-ttl};
+ * после {@code INCR} измененные теги сбрасываются на остальных узлах через {@link LocalStateInvalidator}.
+ * Если рассылка потерялась, узел видит прежнюю версию не дольше этого TTL. Если Redis не подключен
+ * или недоступен, используются версии в памяти узла.
+ */
+@Component
+@Slf4j
+public class CacheTagVersions {
+
+    private static final String KEY_PREFIX = "cache-tag:";
+    private static final String STATE_NAME = "cache-tag-versions";
+
+    private final StringRedisTemplate redisTemplate;
+    private final LocalStateInvalidator invalidator;
+    private final ConcurrentMap<String, AtomicLong> localVersions = new ConcurrentHashMap<>();
+    /**
+     * Прочитанные из Redis версии. Загрузка и сброс одного тега не пересекаются, поэтому версия,
+     * прочитанная до {@code INCR}, не переживет сообщение о нем.
+     */
+    private final Cache<String, Long> cachedVersions;
+
+    public CacheTagVersions(ObjectProvider<StringRedisTemplate> redisTemplate, LocalStateInvalidator invalidator,
+                            @Value("${app.cache.tag-versions.local-ttl:5s}") Duration localTtl,
+                            @Value("${app.cache.tag-versions.max-size:10000}") long maxSize) {
+        this.redisTemplate = redisTemplate.getIfAvailable();
+        this.invalidator = invalidator;
+        this.cachedVersions = Caffeine.newBuilder()
+                .expireAfterWrite(localTtl)
+                .maximumSize(maxSize)
+                .build();
+        invalidator.subscribe(STATE_NAME, tags -> {
+            if (tags == null) {
+                cachedVersions.invalidateAll();
+            } else {
+                cachedVersions.invalidateAll(tags);
+            }
+        });
+    }
+
+    public long version(String tag) {
+        if (redisTemplate != null) {
+            try {
+                return cachedVersions.get(tag, this::readVersion);
+            } catch (DataAccessException e) {
+                log.warn("Failed to read version of cache tag '{}' from Redis, using local version", tag, e);
+            }
+        }
+        AtomicLong version = localVersions.get(tag);
+        return version != null ? version.get() : 0L;
+    }
+
+    public void invalidate(Collection<String> tags) {
+        if (tags.isEmpty()) {
+            return;
+        }
+        List<String> tagList = new ArrayList<>(tags);
+        if (redisTemplate != null) {
+            try {
+                List<Object> versions = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    tagList.forEach(tag -> connection.stringCommands().incr((KEY_PREFIX + tag).getBytes(StandardCharsets.UTF_8)));
+                    return null;
+                });
+                for (int i = 0; i < tagList.size(); i++) {
+                    if (i < versions.size() && versions.get(i) instanceof Long version) {
+                        cachedVersions.put(tagList.get(i), version);
+                    } else {
+                        cachedVersions.invalidate(tagList.get(i));
+                    }
+                }
+                invalidator.invalidate(STATE_NAME, tagList);
+                return;
+            } catch (DataAccessException e) {
+                cachedVersions.invalidateAll(tagList);
+                log.warn("Failed to invalidate cache tags {} in Redis, invalidating locally", tags, e);
+            }
+        }
+        tags.forEach(tag -> localVersions.computeIfAbsent(tag, t -> new AtomicLong()).incrementAndGet());
+    }
+
+    private Long readVersion(String tag) {
+        String version = redisTemplate.opsForValue().get(KEY_PREFIX + tag);
+        return version != null ? Long.parseLong(version) : 0L;
+    }
+}
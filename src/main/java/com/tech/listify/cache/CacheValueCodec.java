@@ -0,0 +1,106 @@
+package com.tech.listify.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Двоичный формат значений кэша: Smile без имен классов внутри данных.
+ * <p>
+ * Каждому кэшу заранее задается список допустимых типов значений. Значение записывается как
+ * {@code [версия формата][номер типа в списке][Smile]}, поэтому при чтении тип известен
+ * заранее, а в данных нет имен классов. Запись с другой версией формата читается как промах
+ * и перезаписывается при следующем заполнении кэша.
+ * <p>
+ * Порядок типов в списке — часть формата: при его изменении нужно увеличить {@link #FORMAT_VERSION}.
+ */
+public class CacheValueCodec implements RedisSerializer<Object> {
+
+    public static final byte FORMAT_VERSION = 1;
+
+    /**
+     * Префикс ключей Redis. Узлы со старым форматом значений не читают новые записи во время
+     * поэтапного развертывания.
+     */
+    public static final String KEY_PREFIX = "v" + FORMAT_VERSION + ":";
+
+    private static final int HEADER_LENGTH = 2;
+
+    private static final ObjectMapper SMILE_MAPPER = new ObjectMapper(new SmileFactory())
+            .registerModule(new JavaTimeModule());
+
+    private final ObjectMapper objectMapper;
+    private final List<JavaType> types;
+
+    public CacheValueCodec(ObjectMapper objectMapper, List<JavaType> types) {
+        if (types.isEmpty() || types.size() > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Cache value codec needs 1.." + Byte.MAX_VALUE + " types, got " + types.size());
+        }
+        this.objectMapper = objectMapper;
+        this.types = List.copyOf(types);
+    }
+
+    /**
+     * Кодек Smile для значений указанных типов.
+     */
+    public static CacheValueCodec smile(JavaType... types) {
+        return new CacheValueCodec(SMILE_MAPPER, List.of(types));
+    }
+
+    public static JavaType type(Class<?> rawType) {
+        return SMILE_MAPPER.getTypeFactory().constructType(rawType);
+    }
+
+    public static JavaType listOf(Class<?> elementType) {
+        return SMILE_MAPPER.getTypeFactory().constructCollectionType(List.class, elementType);
+    }
+
+    public static JavaType parametric(Class<?> rawType, Class<?>... parameterTypes) {
+        return SMILE_MAPPER.getTypeFactory().constructParametricType(rawType, parameterTypes);
+    }
+
+    @Override
+    public byte[] serialize(Object value) {
+        if (value == null) {
+            return new byte[0];
+        }
+        int typeIndex = typeIndexOf(value);
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+            out.write(FORMAT_VERSION);
+            out.write(typeIndex);
+            objectMapper.writerFor(types.get(typeIndex)).writeValue(out, value);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new SerializationException("Could not write cache value of type " + value.getClass().getName(), e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length < HEADER_LENGTH || bytes[0] != FORMAT_VERSION || bytes[1] < 0 || bytes[1] >= types.size()) {
+            return null;
+        }
+        try {
+            return objectMapper.readerFor(types.get(bytes[1])).readValue(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH);
+        } catch (IOException e) {
+            throw new SerializationException("Could not read cache value as " + types.get(bytes[1]), e);
+        }
+    }
+
+    private int typeIndexOf(Object value) {
+        for (int i = 0; i < types.size(); i++) {
+            if (types.get(i).getRawClass().isInstance(value)) {
+                return i;
+            }
+        }
+        throw new SerializationException("Type " + value.getClass().getName() + " is not registered for this cache, expected one of " + types);
+    }
+}
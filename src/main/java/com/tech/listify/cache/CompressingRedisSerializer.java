@@ -0,0 +1,56 @@
+package com.tech.listify.cache;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Сжимает в GZIP значения длиннее {@value #MIN_COMPRESSED_LENGTH} байт. При чтении сжатые данные
+ * распознаются по сигнатуре GZIP, поэтому включение и выключение сжатия не требует очистки кэша:
+ * ни JSON, ни {@link CacheValueCodec} не начинаются с этой сигнатуры.
+ */
+public class CompressingRedisSerializer implements RedisSerializer<Object> {
+
+    static final int MIN_COMPRESSED_LENGTH = 512;
+
+    private static final byte GZIP_MAGIC_FIRST = (byte) 0x1f;
+    private static final byte GZIP_MAGIC_SECOND = (byte) 0x8b;
+
+    private final RedisSerializer<Object> delegate;
+
+    public CompressingRedisSerializer(RedisSerializer<Object> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public byte[] serialize(Object value) {
+        byte[] bytes = delegate.serialize(value);
+        if (bytes == null || bytes.length < MIN_COMPRESSED_LENGTH) {
+            return bytes;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new SerializationException("Could not compress cache value", e);
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length < 2 || bytes[0] != GZIP_MAGIC_FIRST || bytes[1] != GZIP_MAGIC_SECOND) {
+            return delegate.deserialize(bytes);
+        }
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return delegate.deserialize(gzip.readAllBytes());
+        } catch (IOException e) {
+            throw new SerializationException("Could not decompress cache value", e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.tech.listify.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Рассылка изменений состояния, которое каждый узел держит в памяти вне Spring Cache (версии тегов,
+ * наборы категорий, веса ранжирования). Сообщения идут в тот же канал {@value TwoLevelCacheManager#CHANNEL},
+ * что и инвалидация L1; у имен состояний префикс {@value #NAME_PREFIX}, поэтому с именами кэшей они не совпадают.
+ * <p>
+ * Обработчик вызывается только для сообщений других узлов. Pub/sub не гарантирует доставку, поэтому
+ * подписчик ограничивает срок жизни своего состояния сам. Без Redis рассылка не выполняется.
+ */
+@Component
+@Slf4j
+public class LocalStateInvalidator implements MessageListener {
+
+    private static final String NAME_PREFIX = "local:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, Consumer<List<String>>> handlers = new ConcurrentHashMap<>();
+
+    public LocalStateInvalidator(ObjectProvider<StringRedisTemplate> redisTemplate, ObjectMapper objectMapper) {
+        this.redisTemplate = redisTemplate.getIfAvailable();
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param handler получает ключи из сообщения; {@code null} — сбросить состояние целиком
+     */
+    public void subscribe(String name, Consumer<List<String>> handler) {
+        handlers.put(NAME_PREFIX + name, handler);
+    }
+
+    /**
+     * Ошибка рассылки не прерывает операцию: другие узлы увидят изменение по истечении срока жизни своего состояния.
+     *
+     * @param keys измененные ключи; {@code null} — состояние изменилось целиком
+     */
+    public void invalidate(String name, List<String> keys) {
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(TwoLevelCacheManager.CHANNEL, objectMapper.writeValueAsString(
+                    new TwoLevelCacheManager.InvalidationMessage(nodeId, NAME_PREFIX + name, keys)));
+        } catch (JsonProcessingException | DataAccessException e) {
+            log.warn("Failed to publish invalidation of local state {}: {}", name, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        TwoLevelCacheManager.InvalidationMessage invalidation;
+        try {
+            invalidation = objectMapper.readValue(message.getBody(), TwoLevelCacheManager.InvalidationMessage.class);
+        } catch (IOException e) {
+            log.warn("Ignoring malformed local state invalidation message: {}", new String(message.getBody(), StandardCharsets.UTF_8));
+            return;
+        }
+        if (nodeId.equals(invalidation.origin())) {
+            return;
+        }
+        Consumer<List<String>> handler = handlers.get(invalidation.cache());
+        if (handler != null) {
+            handler.accept(invalidation.keys());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.tech.listify.cache;
+
+import com.tech.listify.dto.advertisementdto.AdvertisementSearchCriteriaDto;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Канонический вид критериев поиска для ключей кэша.
+ * <p>
+ * Критерии, которые дают одинаковую выборку, приводятся к одной строке: ключевое слово
+ * без лишних пробелов и в нижнем регистре, цены без незначащих нулей (100 и 100.00),
+ * признак нечеткого поиска только при наличии ключевого слова, а из фильтров по месту
+ * остается только самый узкий — так же, как в {@code AdvertisementSpecification.fromCriteria}.
+ */
+public final class SearchCacheKeys {
+
+    private static final int HASH_BYTES = 16;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private SearchCacheKeys() {
+    }
+
+    public static String canonical(AdvertisementSearchCriteriaDto criteria) {
+        if (criteria == null) {
+            return "";
+        }
+        boolean hasKeyword = StringUtils.hasText(criteria.keyword());
+        String keyword = hasKeyword
+                ? criteria.keyword().trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT)
+                : "";
+        Integer districtId = criteria.cityId() == null ? criteria.districtId() : null;
+        Integer regionId = criteria.cityId() == null && criteria.districtId() == null ? criteria.regionId() : null;
+        return String.join("|",
+                keyword,
+                hasKeyword && criteria.isFuzzy() ? "f" : "",
+                valueOf(criteria.categoryId()),
+                valueOf(regionId),
+                valueOf(districtId),
+                valueOf(criteria.cityId()),
+                price(criteria.minPrice()),
+                price(criteria.maxPrice()),
+                valueOf(criteria.condition()),
+                valueOf(criteria.sellerId()),
+                valueOf(criteria.latitude()),
+                valueOf(criteria.longitude()),
+                valueOf(criteria.radiusKm()));
+    }
+
+    public static String canonical(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return "unpaged";
+        }
+        return pageable.getPageNumber() + "," + pageable.getPageSize() + "," + canonical(pageable.getSort());
+    }
+
+    /**
+     * Компактный ключ: первые 128 бит SHA-256 канонической строки в Base64url (22 символа).
+     */
+    public static String hash(String canonical) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return ENCODER.encodeToString(Arrays.copyOf(digest, HASH_BYTES));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+
+    private static String canonical(Sort sort) {
+        return sort.stream()
+                .map(order -> order.getProperty() + ":" + order.getDirection().name().charAt(0) + (order.isIgnoreCase() ? "i" : ""))
+                .collect(Collectors.joining(";"));
+    }
+
+    private static String price(BigDecimal price) {
+        return price == null ? "" : price.stripTrailingZeros().toPlainString();
+    }
+
+    private static String valueOf(Object value) {
+        return value == null ? "" : value.toString();
+    }
+}
@@ -0,0 +1,33 @@
+package com.tech.listify.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Ключи для кэша {@code seller_advertisements}: {@code <тег продавца>@<версия тега>:<курсор>:<размер>}.
+ * Первый параметр метода — ID продавца. Тег продавца сбрасывается только изменениями его объявлений
+ * (см. {@link AdvertisementCacheInvalidator}), поэтому записи других продавцов при этом не теряются.
+ */
+@Component(SellerAdvertisementsCacheKeyGenerator.NAME)
+@RequiredArgsConstructor
+public class SellerAdvertisementsCacheKeyGenerator implements KeyGenerator {
+
+    public static final String NAME = "sellerAdvertisementsCacheKeyGenerator";
+
+    private final AdvertisementCacheTags cacheTags;
+    private final CacheTagVersions tagVersions;
+
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        String tag = cacheTags.tagForSeller((Long) params[0]);
+        String rest = Arrays.stream(params, 1, params.length)
+                .map(String::valueOf)
+                .collect(Collectors.joining(":"));
+        return tag + "@" + tagVersions.version(tag) + ":" + rest;
+    }
+}
@@ -0,0 +1,466 @@
+package com.tech.listify.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.NullValue;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.util.ByteUtils;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Кэш из двух уровней: ограниченный Caffeine в памяти узла (L1) перед общим {@link RedisCache} (L2).
+ * <p>
+ * Чтение сначала идет в L1, промах — в L2, найденное в L2 копируется в L1. Запись и удаление
+ * выполняются в обоих уровнях, после чего остальным узлам рассылается команда удалить ключи из
+ * их L1 (см. {@link TwoLevelCacheManager}). Если рассылка потерялась, устаревшая запись L1 живет
+ * не дольше своего TTL. Ключи L1 — строковый вид ключа, как и в Redis. Значения в L1 хранятся
+ * без копирования, поэтому кэшируемые объекты не должны изменяться после возврата из кэша.
+ * <p>
+ * Загрузка через {@link #get(Object, Callable)} ({@code @Cacheable(sync = true)}) защищена от
+ * одновременных промахов: внутри узла значение по ключу вычисляет один поток, остальные ждут его
+ * результата; между узлами ключ захватывается арендой {@link CacheLoadLease}, и узлы без аренды
+ * ждут появления значения в Redis. Для кэшей с {@link CacheSpec#earlyRefresh()} горячие ключи
+ * обновляются заранее по алгоритму XFetch: чем ближе истечение записи в Redis и чем дольше
+ * вычисляется значение, тем вероятнее, что очередное чтение пересчитает его, пока остальные
+ * получают текущее значение.
+ * <p>
+ * Для кэшей с {@link CacheSpec#softTtl()} (stale-while-revalidate) запись старше soft TTL сразу
+ * возвращается, а пересчет ставится в ограниченный фоновый пул; загрузчик {@code @Cacheable}
+ * выполняется тогда в потоке пула, без контекста безопасности запроса. После истечения записи
+ * в Redis (hard TTL) значение загружается синхронно.
+ */
+@Slf4j
+public class TwoLevelCache implements Cache {
+
+    /**
+     * Параметр β алгоритма XFetch: чем больше, тем раньше обновление.
+     */
+    private static final double EARLY_REFRESH_BETA = 1.0;
+
+    private static final Duration REMOTE_POLL_INTERVAL = Duration.ofMillis(20);
+
+    private final RedisCache remote;
+    private final com.github.benmanes.caffeine.cache.Cache<String, LocalEntry> local;
+    private final boolean earlyRefresh;
+    /**
+     * Сколько до истечения в Redis запись уже устарела: {@code ttl - softTtl}; -1 — режим выключен.
+     */
+    private final long staleBeforeExpiryMillis;
+    private final TwoLevelCacheManager.InvalidationPublisher publisher;
+    private final CacheLoadLease lease;
+    private final Executor refreshExecutor;
+    private final Map<String, CompletableFuture<Object>> loads = new ConcurrentHashMap<>();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalescedLoads = new LongAdder();
+    private final LongAdder earlyRefreshes = new LongAdder();
+    private final LongAdder staleServed = new LongAdder();
+    private final LongAdder refreshesRejected = new LongAdder();
+    /**
+     * Сглаженное время вычисления значения (Δ в XFetch), нс; 0 — еще не измерено.
+     */
+    private final AtomicLong loadNanos = new AtomicLong();
+
+    TwoLevelCache(RedisCache remote, CacheSpec spec, TwoLevelCacheManager.InvalidationPublisher publisher,
+                  CacheLoadLease lease, Executor refreshExecutor) {
+        this.remote = remote;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(spec.maxEntries())
+                .expireAfterWrite(spec.localTtl())
+                .build();
+        this.earlyRefresh = spec.earlyRefresh();
+        this.staleBeforeExpiryMillis = spec.softTtl() != null ? spec.ttl().minus(spec.softTtl()).toMillis() : -1;
+        this.publisher = publisher;
+        this.lease = lease;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    @Override
+    public String getName() {
+        return remote.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    public RedisCache getRemote() {
+        return remote;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Object value = getLocal(key);
+        if (value != null) {
+            return new SimpleValueWrapper(fromLocalValue(value));
+        }
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper != null) {
+            putLocal(key, toLocalValue(wrapper.get()));
+            remoteHits.increment();
+        } else {
+            misses.increment();
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        LocalEntry entry = local.getIfPresent(localKey);
+        if (entry != null && entry.isExpired()) {
+            local.invalidate(localKey);
+            entry = null;
+        }
+        if (entry != null) {
+            localHits.increment();
+            if (isStale(entry)) {
+                staleServed.increment();
+                refreshInBackground(key, localKey, valueLoader);
+                return (T) fromLocalValue(entry.value());
+            }
+            Object value = shouldRefreshEarly(entry) ? refreshEarly(key, localKey, entry, valueLoader) : entry.value();
+            return (T) fromLocalValue(value);
+        }
+        Object value = loadOnce(key, localKey, () -> loadThroughRemote(key, localKey, valueLoader), valueLoader);
+        LocalEntry loaded = local.getIfPresent(localKey);
+        if (loaded != null && isStale(loaded)) {
+            staleServed.increment();
+            refreshInBackground(key, localKey, valueLoader);
+        }
+        return (T) fromLocalValue(value);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        putLocal(key, toLocalValue(value));
+        publisher.evict(getName(), List.of(localKey(key)));
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        local.invalidate(localKey(key));
+        publisher.evict(getName(), List.of(localKey(key)));
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        publisher.clear(getName());
+    }
+
+    /**
+     * Значение из L1 ({@link NullValue} для закэшированного {@code null}) или {@code null};
+     * попадание учитывается в статистике.
+     */
+    public Object getLocal(Object key) {
+        LocalEntry entry = local.getIfPresent(localKey(key));
+        if (entry == null) {
+            return null;
+        }
+        localHits.increment();
+        return entry.value();
+    }
+
+    public void putLocal(Object key, Object value) {
+        local.put(localKey(key), new LocalEntry(value, 0));
+    }
+
+    /**
+     * Учитывает результат чтения из L2 в обход {@link #get(Object)} (пакетное чтение).
+     */
+    public void recordRemoteLookups(int hits, int missed) {
+        remoteHits.add(hits);
+        misses.add(missed);
+    }
+
+    /**
+     * Удаляет ключи из L1 этого узла и рассылает удаление остальным; L2 не затрагивается.
+     */
+    public void evictLocal(Collection<?> keys) {
+        List<String> localKeys = keys.stream().map(TwoLevelCache::localKey).toList();
+        local.invalidateAll(localKeys);
+        publisher.evict(getName(), localKeys);
+    }
+
+    void invalidateLocal(List<String> keys) {
+        if (keys == null) {
+            local.invalidateAll();
+        } else {
+            local.invalidateAll(keys);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long gets = localHits.sum() + remoteHits.sum() + misses.sum();
+        return Map.of(
+                "localHits", localHits.sum(),
+                "remoteHits", remoteHits.sum(),
+                "misses", misses.sum(),
+                "hitRate", gets == 0 ? 0.0 : (double) (localHits.sum() + remoteHits.sum()) / gets,
+                "localSize", local.estimatedSize(),
+                "coalescedLoads", coalescedLoads.sum(),
+                "earlyRefreshes", earlyRefreshes.sum(),
+                "staleServed", staleServed.sum(),
+                "refreshesRejected", refreshesRejected.sum());
+    }
+
+    /**
+     * Выполняет {@code load} для ключа не более чем в одном потоке узла; остальные потоки ждут его результата.
+     */
+    private Object loadOnce(Object key, String localKey, Callable<Object> load, Callable<?> valueLoader) {
+        CompletableFuture<Object> own = new CompletableFuture<>();
+        CompletableFuture<Object> running = loads.putIfAbsent(localKey, own);
+        if (running != null) {
+            coalescedLoads.increment();
+            try {
+                return running.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ValueRetrievalException(key, valueLoader, e);
+            } catch (ExecutionException e) {
+                throw new ValueRetrievalException(key, valueLoader, e.getCause());
+            }
+        }
+        try {
+            Object value = load.call();
+            own.complete(value);
+            return value;
+        } catch (Exception e) {
+            own.completeExceptionally(e);
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            loads.remove(localKey, own);
+        }
+    }
+
+    /**
+     * Значение из L2 или, при промахе, вычисленное под арендой. Без аренды узел ждет значение другого
+     * узла не дольше {@link CacheLoadLease#getWaitTimeout()} и затем вычисляет его сам.
+     */
+    private Object loadThroughRemote(Object key, String localKey, Callable<?> valueLoader) throws Exception {
+        Object value = getRemote(key, localKey);
+        if (value != null) {
+            return value;
+        }
+        misses.increment();
+        if (!lease.tryAcquire(getName(), localKey)) {
+            long deadline = System.nanoTime() + lease.getWaitTimeout().toNanos();
+            while (System.nanoTime() < deadline) {
+                Thread.sleep(REMOTE_POLL_INTERVAL.toMillis());
+                value = getRemote(key, localKey);
+                if (value != null) {
+                    return value;
+                }
+            }
+            return loadAndStore(key, localKey, valueLoader);
+        }
+        try {
+            return loadAndStore(key, localKey, valueLoader);
+        } finally {
+            lease.release(getName(), localKey);
+        }
+    }
+
+    /**
+     * Значение из L2 (заодно кладется в L1) или {@code null}. Для раннего обновления запоминается,
+     * когда запись истекает в Redis.
+     */
+    private Object getRemote(Object key, String localKey) {
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper == null) {
+            return null;
+        }
+        remoteHits.increment();
+        Object value = toLocalValue(wrapper.get());
+        long expiresAt = 0;
+        if (earlyRefresh || staleBeforeExpiryMillis >= 0) {
+            long ttlMillis = lease.remainingTtlMillis(redisKey(key));
+            expiresAt = ttlMillis >= 0 ? System.currentTimeMillis() + ttlMillis : 0;
+        }
+        local.put(localKey, new LocalEntry(value, expiresAt));
+        return value;
+    }
+
+    private Object loadAndStore(Object key, String localKey, Callable<?> valueLoader) throws Exception {
+        long start = System.nanoTime();
+        Object loaded = valueLoader.call();
+        recordLoadTime(System.nanoTime() - start);
+        if (loaded != null || remote.isAllowNullValues()) {
+            remote.put(key, loaded);
+            Duration ttl = remote.getCacheConfiguration().getTtlFunction().getTimeToLive(key, loaded);
+            long expiresAt = ttl.isZero() || ttl.isNegative() ? 0 : System.currentTimeMillis() + ttl.toMillis();
+            local.put(localKey, new LocalEntry(toLocalValue(loaded), expiresAt));
+        }
+        return toLocalValue(loaded);
+    }
+
+    /**
+     * XFetch: пересчитать, если {@code now - Δ·β·ln(rand) >= expiry}. Пока значение не вычислялось
+     * на этом узле, Δ неизвестно и раннего обновления нет.
+     */
+    private boolean shouldRefreshEarly(LocalEntry entry) {
+        long delta = loadNanos.get();
+        if (!earlyRefresh || entry.remoteExpiresAt() == 0 || delta == 0) {
+            return false;
+        }
+        double gapMillis = -delta / 1_000_000.0 * EARLY_REFRESH_BETA * Math.log(ThreadLocalRandom.current().nextDouble());
+        return System.currentTimeMillis() + gapMillis >= entry.remoteExpiresAt();
+    }
+
+    /**
+     * Пересчитывает значение, если его уже не пересчитывает другой поток или узел; иначе, как и
+     * при ошибке пересчета, возвращает текущее значение без ожидания.
+     */
+    private Object refreshEarly(Object key, String localKey, LocalEntry entry, Callable<?> valueLoader) {
+        if (loads.containsKey(localKey) || !lease.tryAcquire(getName(), localKey)) {
+            return entry.value();
+        }
+        try {
+            earlyRefreshes.increment();
+            return loadOnce(key, localKey, () -> loadAndStore(key, localKey, valueLoader), valueLoader);
+        } catch (ValueRetrievalException e) {
+            log.warn("Early refresh of cache {} key {} failed, serving current value", getName(), localKey, e.getCause());
+            return entry.value();
+        } finally {
+            lease.release(getName(), localKey);
+        }
+    }
+
+    /**
+     * Запись старше soft TTL: возраст известен по оставшемуся времени жизни в Redis.
+     */
+    private boolean isStale(LocalEntry entry) {
+        return staleBeforeExpiryMillis >= 0 && entry.remoteExpiresAt() != 0
+                && System.currentTimeMillis() >= entry.remoteExpiresAt() - staleBeforeExpiryMillis;
+    }
+
+    /**
+     * Ставит пересчет в очередь фонового пула, если ключ еще не обновляется. Если очередь заполнена,
+     * обновление пропускается: значение обновит следующее чтение или загрузка после hard TTL.
+     * <p>
+     * Под арендой запись перечитывается из Redis: если ее уже обновил другой узел, она только
+     * копируется в L1. После пересчета остальным узлам рассылается удаление ключа из L1, чтобы они
+     * не ставили собственный пересчет по своей устаревшей копии.
+     */
+    private void refreshInBackground(Object key, String localKey, Callable<?> valueLoader) {
+        if (loads.containsKey(localKey) || !refreshing.add(localKey)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    if (lease.tryAcquire(getName(), localKey)) {
+                        try {
+                            if (isRemoteStale(key, localKey)) {
+                                loadOnce(key, localKey, () -> loadAndStore(key, localKey, valueLoader), valueLoader);
+                                publisher.evict(getName(), List.of(localKey));
+                            }
+                        } finally {
+                            lease.release(getName(), localKey);
+                        }
+                    }
+                } catch (ValueRetrievalException e) {
+                    log.warn("Background refresh of cache {} key {} failed", getName(), localKey, e.getCause());
+                } finally {
+                    refreshing.remove(localKey);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(localKey);
+            refreshesRejected.increment();
+        }
+    }
+
+    /**
+     * Запись в Redis отсутствует или тоже старше soft TTL.
+     */
+    private boolean isRemoteStale(Object key, String localKey) {
+        if (getRemote(key, localKey) == null) {
+            return true;
+        }
+        LocalEntry entry = local.getIfPresent(localKey);
+        return entry == null || isStale(entry);
+    }
+
+    private void recordLoadTime(long nanos) {
+        loadNanos.getAndUpdate(previous -> previous == 0 ? nanos : (previous * 7 + nanos) / 8);
+    }
+
+    /**
+     * Тот же ключ, что строит {@link RedisCache}.
+     */
+    private byte[] redisKey(Object key) {
+        RedisCacheConfiguration configuration = remote.getCacheConfiguration();
+        String cacheKey = configuration.usePrefix() ? configuration.getKeyPrefixFor(getName()) + localKey(key) : localKey(key);
+        return ByteUtils.getBytes(configuration.getKeySerializationPair().write(cacheKey));
+    }
+
+    /**
+     * Caffeine не хранит {@code null}, поэтому закэшированный {@code null} (если кэш это разрешает)
+     * хранится в L1 как {@link NullValue}.
+     */
+    private static Object toLocalValue(Object value) {
+        return value != null ? value : NullValue.INSTANCE;
+    }
+
+    private static Object fromLocalValue(Object value) {
+        return value == NullValue.INSTANCE ? null : value;
+    }
+
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    /**
+     * @param remoteExpiresAt момент истечения записи в Redis (мс от эпохи) или 0, если неизвестен
+     */
+    private record LocalEntry(Object value, long remoteExpiresAt) {
+
+        /**
+         * Запись истекла в Redis (hard TTL), даже если еще жива в L1.
+         */
+        boolean isExpired() {
+            return remoteExpiresAt != 0 && System.currentTimeMillis() >= remoteExpiresAt;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.tech.listify.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Оборачивает каждый кэш {@link RedisCacheManager} в {@link TwoLevelCache} с локальным Caffeine,
+ * размер и TTL которого берутся из {@link CacheSpecs}.
+ * <p>
+ * Изменения L2 рассылаются через Redis pub/sub в канал {@value #CHANNEL}; каждый узел, получив
+ * сообщение от другого узла, удаляет указанные ключи из своего L1. Pub/sub не гарантирует доставку,
+ * поэтому TTL локального кэша ограничивает время, в течение которого узел может отдавать устаревшие данные.
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager, MessageListener, DisposableBean {
+
+    public static final String CHANNEL = "listify:cache-invalidation";
+
+    private final RedisCacheManager redisCacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final CacheSpecs cacheSpecs;
+    private final CacheLoadLease lease;
+    private final ExecutorService refreshExecutor;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+    private final InvalidationPublisher publisher = new InvalidationPublisher() {
+        @Override
+        public void evict(String cacheName, List<String> keys) {
+            publish(new InvalidationMessage(nodeId, cacheName, keys));
+        }
+
+        @Override
+        public void clear(String cacheName) {
+            publish(new InvalidationMessage(nodeId, cacheName, null));
+        }
+    };
+
+    public TwoLevelCacheManager(RedisCacheManager redisCacheManager, StringRedisTemplate redisTemplate,
+                                ObjectMapper objectMapper, CacheSpecs cacheSpecs, CacheLoadLease lease,
+                                ExecutorService refreshExecutor) {
+        this.redisCacheManager = redisCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.cacheSpecs = cacheSpecs;
+        this.lease = lease;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoLevelCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        if (!(redisCacheManager.getCache(name) instanceof RedisCache remote)) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, cacheName -> new TwoLevelCache(remote, cacheSpecs.get(cacheName), publisher, lease, refreshExecutor));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return redisCacheManager.getCacheNames();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        InvalidationMessage invalidation;
+        try {
+            invalidation = objectMapper.readValue(message.getBody(), InvalidationMessage.class);
+        } catch (IOException e) {
+            log.warn("Ignoring malformed cache invalidation message: {}", new String(message.getBody(), StandardCharsets.UTF_8));
+            return;
+        }
+        if (nodeId.equals(invalidation.origin())) {
+            return;
+        }
+        TwoLevelCache cache = caches.get(invalidation.cache());
+        if (cache != null) {
+            cache.invalidateLocal(invalidation.keys());
+        }
+    }
+
+    /**
+     * Фоновые обновления, не начатые к остановке, отбрасываются: значения загрузятся при следующем чтении.
+     */
+    @Override
+    public void destroy() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Ошибка рассылки не прерывает операцию с кэшем: другие узлы увидят изменение по истечении TTL L1.
+     */
+    private void publish(InvalidationMessage invalidation) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(invalidation));
+        } catch (JsonProcessingException | DataAccessException e) {
+            log.warn("Failed to publish invalidation of cache {}: {}", invalidation.cache(), e.getMessage());
+        }
+    }
+
+    /**
+     * @param keys ключи в строковом виде; {@code null} — очистить кэш целиком
+     */
+    record InvalidationMessage(String origin, String cache, List<String> keys) {
+    }
+
+    interface InvalidationPublisher {
+
+        void evict(String cacheName, List<String> keys);
+
+        void clear(String cacheName);
+    }
+}
@@ -5,19 +5,99 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
 import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.tech.listify.cache.AdvertisementDetailCache;
+import com.tech.listify.cache.CacheSpec;
+import com.tech.listify.cache.CacheSpecs;
+import com.tech.listify.cache.CacheValueCodec;
+import com.tech.listify.cache.CompressingRedisSerializer;
+import com.tech.listify.dto.CursorPageResponseDto;
+import com.tech.listify.dto.PageResponseDto;
+import com.tech.listify.dto.advertisementdto.AdvertisementDetailDto;
+import com.tech.listify.dto.advertisementdto.AdvertisementResponseDto;
+import com.tech.listify.dto.advertisementdto.SearchFacetsDto;
+import com.tech.listify.dto.categorydto.CategoryDto;
+import com.tech.listify.dto.categorydto.CategoryTreeDto;
+import com.tech.listify.dto.locationdto.citydto.CityDto;
+import com.tech.listify.dto.locationdto.districtdto.DistrictDto;
+import com.tech.listify.dto.locationdto.regiondto.RegionDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.RedisCacheManagerBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
 import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
 @Configuration
 public class CacheConfig {
 
+    private static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+
+    /**
+     * Кэши с двоичным форматом значений и допустимые типы их значений. Остальные кэши
+     * используют JSON с именами классов из {@link #cacheConfiguration()}.
+     */
+    public static Map<String, CacheValueCodec> cacheValueCodecs() {
+        CacheValueCodec advertisementPage = CacheValueCodec.smile(
+                CacheValueCodec.parametric(PageResponseDto.class, AdvertisementResponseDto.class));
+        return Map.of(
+                AdvertisementDetailCache.CACHE_NAME, CacheValueCodec.smile(CacheValueCodec.type(AdvertisementDetailDto.class)),
+                "active_advertisements", advertisementPage,
+                "advertisements_search", advertisementPage,
+                "seller_advertisements", CacheValueCodec.smile(
+                        CacheValueCodec.parametric(CursorPageResponseDto.class, AdvertisementResponseDto.class)),
+                "advertisement_facets", CacheValueCodec.smile(CacheValueCodec.type(SearchFacetsDto.class)),
+                "categories", CacheValueCodec.smile(CacheValueCodec.type(CategoryDto.class), CacheValueCodec.listOf(CategoryDto.class)),
+                "categories_tree", CacheValueCodec.smile(CacheValueCodec.listOf(CategoryTreeDto.class)),
+                "regions", CacheValueCodec.smile(CacheValueCodec.listOf(RegionDto.class)),
+                "districts", CacheValueCodec.smile(CacheValueCodec.listOf(DistrictDto.class)),
+                "cities", CacheValueCodec.smile(CacheValueCodec.listOf(CityDto.class)));
+    }
+
+    @Bean
+    public CacheSpecs cacheSpecs(Environment environment,
+                                 @Value("${app.cache.local.ttl:60s}") Duration localTtl,
+                                 @Value("${app.cache.local.max-size:10000}") long localMaxEntries) {
+        return CacheSpecs.bind(environment, new CacheSpec(DEFAULT_TTL, localTtl, localMaxEntries, false, false, false, null));
+    }
+
+    /**
+     * Отдельная конфигурация Redis для кэшей с двоичным форматом значений или с собственными настройками.
+     */
+    @Bean
+    public RedisCacheManagerBuilderCustomizer cacheSpecsCustomizer(CacheSpecs cacheSpecs) {
+        Map<String, CacheValueCodec> codecs = cacheValueCodecs();
+        RedisSerializer<Object> jsonSerializer = jsonSerializer();
+        Set<String> cacheNames = new HashSet<>(codecs.keySet());
+        cacheNames.addAll(cacheSpecs.getConfiguredCacheNames());
+        return builder -> cacheNames.forEach(cacheName -> {
+            CacheValueCodec codec = codecs.get(cacheName);
+            RedisCacheConfiguration configuration = redisCacheConfiguration(cacheSpecs.get(cacheName), codec != null ? codec : jsonSerializer);
+            builder.withCacheConfiguration(cacheName, codec != null ? configuration.prefixCacheNameWith(CacheValueCodec.KEY_PREFIX) : configuration);
+        });
+    }
+
     @Bean
     public RedisCacheConfiguration cacheConfiguration() {
+        return redisCacheConfiguration(new CacheSpec(DEFAULT_TTL, DEFAULT_TTL, 0L, false, false, false, null), jsonSerializer());
+    }
+
+    private static RedisCacheConfiguration redisCacheConfiguration(CacheSpec spec, RedisSerializer<Object> serializer) {
+        RedisCacheConfiguration configuration = RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(spec.ttl())
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                        spec.compress() ? new CompressingRedisSerializer(serializer) : serializer));
+        return spec.cacheNulls() ? configuration : configuration.disableCachingNullValues();
+    }
+
+    private static RedisSerializer<Object> jsonSerializer() {
         ObjectMapper objectMapper = new ObjectMapper()
                 .registerModule(new JavaTimeModule())
                 .registerModule(new Hibernate6Module());
@@ -30,11 +110,6 @@ public class CacheConfig {
                 JsonTypeInfo.As.PROPERTY
         );
 
-        GenericJackson2JsonRedisSerializer redisSerializer = new GenericJackson2JsonRedisSerializer(objectMapper);
-
-        return RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofMinutes(10))
-                .disableCachingNullValues()
-                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(redisSerializer));
+        return new GenericJackson2JsonRedisSerializer(objectMapper);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,32 @@
+package com.tech.listify.config;
+
+import com.tech.listify.cache.LocalStateInvalidator;
+import com.tech.listify.cache.TwoLevelCacheManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Одна подписка узла на канал {@value TwoLevelCacheManager#CHANNEL}: сообщения получают
+ * локальный уровень кэшей (если он включен) и {@link LocalStateInvalidator}.
+ */
+@Configuration
+@ConditionalOnExpression("'${spring.cache.type:}' == 'redis'")
+public class CacheInvalidationConfig {
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            ObjectProvider<TwoLevelCacheManager> cacheManager,
+                                                                            LocalStateInvalidator localStateInvalidator) {
+        ChannelTopic topic = new ChannelTopic(TwoLevelCacheManager.CHANNEL);
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        cacheManager.ifAvailable(manager -> container.addMessageListener(manager, topic));
+        container.addMessageListener(localStateInvalidator, topic);
+        return container;
+    }
+}
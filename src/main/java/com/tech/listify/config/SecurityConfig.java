@@ -77,9 +77,9 @@ public class SecurityConfig {
                 )
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(authz -> authz
+                        .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.POST,
                                 "/api/locations/**",
-                                "/api/admin/**",
                                 "/api/categories/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.POST,
                                 "/api/auth/*").permitAll()
@@ -89,6 +89,7 @@ public class SecurityConfig {
                                 "/api/categories/**",
                                 "/api/ads/search",
                                 "/api/users/{id}",
+                                "/api/users/{id}/ads",
                                 "/uploads/**"
                         ).permitAll()
                         .requestMatchers(
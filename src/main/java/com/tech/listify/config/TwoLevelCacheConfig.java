@@ -0,0 +1,71 @@
+package com.tech.listify.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tech.listify.cache.CacheLoadLease;
+import com.tech.listify.cache.CacheSpecs;
+import com.tech.listify.cache.TwoLevelCacheManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.RedisCacheManagerBuilderCustomizer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Двухуровневый кэш: локальный Caffeine на каждом узле перед общими кэшами Redis.
+ * Заменяет {@code RedisCacheManager} из автоконфигурации; отключается {@code app.cache.local.enabled=false}.
+ * Подписка на канал инвалидации — в {@link CacheInvalidationConfig}.
+ */
+@Configuration
+@ConditionalOnExpression("'${spring.cache.type:}' == 'redis' and ${app.cache.local.enabled:true}")
+public class TwoLevelCacheConfig {
+
+    @Bean
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                             RedisCacheConfiguration cacheConfiguration,
+                                             StringRedisTemplate redisTemplate,
+                                             ObjectMapper objectMapper,
+                                             ObjectProvider<RedisCacheManagerBuilderCustomizer> customizers,
+                                             CacheSpecs cacheSpecs,
+                                             @Value("${spring.cache.redis.enable-statistics:false}") boolean enableStatistics,
+                                             @Value("${app.cache.lease.ttl:5s}") Duration leaseTtl,
+                                             @Value("${app.cache.lease.wait:500ms}") Duration leaseWait,
+                                             @Value("${app.cache.refresh.threads:2}") int refreshThreads,
+                                             @Value("${app.cache.refresh.queue-capacity:100}") int refreshQueueCapacity) {
+        RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(cacheConfiguration);
+        if (enableStatistics) {
+            builder.enableStatistics();
+        }
+        customizers.orderedStream().forEach(customizer -> customizer.customize(builder));
+        RedisCacheManager redisCacheManager = builder.build();
+        redisCacheManager.afterPropertiesSet();
+        return new TwoLevelCacheManager(redisCacheManager, redisTemplate, objectMapper, cacheSpecs,
+                new CacheLoadLease(redisTemplate, leaseTtl, leaseWait),
+                refreshExecutor(refreshThreads, refreshQueueCapacity));
+    }
+
+    /**
+     * Пул фоновых обновлений stale-while-revalidate. Не регистрируется как бин {@code Executor},
+     * чтобы не заменить пул задач Spring Boot по умолчанию; при переполнении очереди задача отклоняется.
+     */
+    private static ExecutorService refreshExecutor(int threads, int queueCapacity) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "cache-refresh-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,147 @@
+package com.tech.listify.config.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Направляет соединения read-only транзакций на реплики, остальные — на основную БД.
+ * <p>
+ * Реплика получает запросы, только пока {@link ReplicaLagMonitor} считает ее доступной, реплики
+ * чередуются по кругу. Если доступных реплик нет или соединение с репликой не открылось, используется
+ * основная БД. После коммита записывающей транзакции пользователь на {@code stickyWindow} читает
+ * с основной БД, чтобы сразу видеть свои изменения (состояние хранится в памяти узла).
+ * <p>
+ * Решение принимается при открытии соединения, поэтому источник нужно оборачивать в
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: тогда соединение
+ * открывается на первом запросе, когда признак read-only транзакции уже установлен.
+ */
+@Slf4j
+public class ReadReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private final DataSource primary;
+    private final Map<String, DataSource> replicas;
+    private final List<String> replicaNames;
+    private final Set<String> availableReplicas = ConcurrentHashMap.newKeySet();
+    private final Cache<String, Boolean> recentWriters;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReadReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration stickyWindow) {
+        this.primary = primary;
+        this.replicas = Map.copyOf(replicas);
+        this.replicaNames = List.copyOf(replicas.keySet());
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(stickyWindow)
+                .build();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        String replica = selectReplica();
+        if (replica == null) {
+            return primary.getConnection();
+        }
+        try {
+            return replicas.get(replica).getConnection();
+        } catch (SQLException e) {
+            setAvailable(replica, false);
+            log.warn("Failed to connect to replica {}, falling back to primary: {}", replica, e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    public void setAvailable(String replica, boolean available) {
+        boolean changed = available ? availableReplicas.add(replica) : availableReplicas.remove(replica);
+        if (changed) {
+            log.info("Replica {} is now {}", replica, available ? "available" : "unavailable");
+        }
+    }
+
+    public Set<String> getAvailableReplicas() {
+        return Set.copyOf(availableReplicas);
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource dataSource : replicas.values()) {
+            if (dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+        if (primary instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    /**
+     * Реплика для текущей транзакции или {@code null}, если соединение должно идти на основную БД.
+     */
+    private String selectReplica() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            trackWriter();
+            return null;
+        }
+        String user = currentUser();
+        if (user != null && recentWriters.getIfPresent(user) != null) {
+            return null;
+        }
+        for (int attempt = 0; attempt < replicaNames.size(); attempt++) {
+            String replica = replicaNames.get(Math.floorMod(nextReplica.getAndIncrement(), replicaNames.size()));
+            if (availableReplicas.contains(replica)) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Окно чтения с основной БД отсчитывается от коммита, а не от начала транзакции.
+     */
+    private void trackWriter() {
+        String user = currentUser();
+        if (user == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(user, Boolean.TRUE);
+            }
+        });
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
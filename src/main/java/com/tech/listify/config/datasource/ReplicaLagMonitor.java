@@ -0,0 +1,63 @@
+package com.tech.listify.config.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Периодически измеряет отставание реплик и отключает от чтения те, что отстают больше
+ * {@code maxLag} или не отвечают. До первой проверки реплики считаются недоступными.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    /**
+     * Отставание в секундах. Реплика, которая применила все полученные WAL, не отстает, даже если
+     * на основной БД давно не было записей. Сервер не в режиме восстановления (не реплика) не отстает.
+     */
+    private static final String LAG_SQL = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() THEN 0
+                       WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+                   END""";
+
+    private final ReadReplicaRoutingDataSource routingDataSource;
+    private final Duration maxLag;
+
+    public ReplicaLagMonitor(ReadReplicaRoutingDataSource routingDataSource, Duration maxLag) {
+        this.routingDataSource = routingDataSource;
+        this.maxLag = maxLag;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica-lag-check-interval:2s}")
+    public void check() {
+        for (Map.Entry<String, DataSource> replica : routingDataSource.getReplicas().entrySet()) {
+            routingDataSource.setAvailable(replica.getKey(), isWithinLag(replica.getKey(), replica.getValue()));
+        }
+    }
+
+    private boolean isWithinLag(String name, DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(LAG_SQL)) {
+            resultSet.next();
+            double lagSeconds = resultSet.getDouble(1);
+            if (lagSeconds * 1000 > maxLag.toMillis()) {
+                log.debug("Replica {} lags {} s behind primary", name, lagSeconds);
+                return false;
+            }
+            return true;
+        } catch (SQLException e) {
+            log.debug("Failed to check replication lag of replica {}: {}", name, e.getMessage());
+            return false;
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.tech.listify.controller;
 
+import com.tech.listify.cache.CacheStatsReporter;
 import com.tech.listify.dto.ApiErrorResponse; // Убедитесь, что этот импорт правильный
+import com.tech.listify.dto.advertisementdto.RankingWeightsDto;
+import com.tech.listify.search.TitleSuggestIndex;
+import com.tech.listify.service.impl.AdvertisementRelevanceRanker;
 import com.tech.listify.service.impl.HitCounterService;
 import com.tech.listify.service.impl.LogGenerationService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -11,6 +15,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.Resource;
@@ -40,6 +45,9 @@ public class AdminController {
 
     private final LogGenerationService logGenerationService;
     private final HitCounterService hitCounterService;
+    private final TitleSuggestIndex titleSuggestIndex;
+    private final CacheStatsReporter cacheStatsReporter;
+    private final AdvertisementRelevanceRanker relevanceRanker;
     private final Path logDirectory = Paths.get("./logs/archived");
 
     @Operation(summary = "Скачать архивный лог-файл",
@@ -104,6 +112,86 @@ public class AdminController {
         return ResponseEntity.ok(hitCounterService.getAllHits());
     }
 
+    @Operation(summary = "Получить состояние индекса автодополнения",
+            description = "Возвращает количество различных заголовков в индексе, занимаемую им память в байтах, " +
+                    "признак ожидающей пересборки и время последней пересборки.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Статистика успешно получена",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(example = "{\"titles\": 48210, \"indexBytes\": 2315904, \"pendingRebuild\": false, \"lastRebuild\": \"2025-07-01T10:15:30Z\"}"))),
+            @ApiResponse(responseCode = "401", description = "Не аутентифицирован",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class))),
+            @ApiResponse(responseCode = "403", description = "Доступ запрещен",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @GetMapping("/suggest/stats")
+    public ResponseEntity<Map<String, Object>> getSuggestStatistics() {
+        return ResponseEntity.ok(titleSuggestIndex.stats());
+    }
+
+    @Operation(summary = "Получить статистику кэшей",
+            description = "Возвращает попадания, промахи и долю попаданий по каждому кэшу с момента запуска узла, " +
+                    "а также количество обработанных изменений объявлений и сброшенных тегов кэша.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Статистика успешно получена",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(example = "{\"caches\": {\"advertisements_search\": {\"hits\": 910, \"misses\": 240, \"hitRate\": 0.79, \"puts\": 240, \"deletes\": 0}}, \"invalidation\": {\"events\": 35, \"invalidatedTags\": 245}}"))),
+            @ApiResponse(responseCode = "401", description = "Не аутентифицирован",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class))),
+            @ApiResponse(responseCode = "403", description = "Доступ запрещен",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStatistics() {
+        return ResponseEntity.ok(cacheStatsReporter.stats());
+    }
+
+    @Operation(summary = "Получить веса ранжирования поиска",
+            description = "Возвращает текущие веса текстовой релевантности, новизны и популярности для sort=relevance, " +
+                    "период полураспада новизны и количество переранжируемых кандидатов.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Веса получены",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = RankingWeightsDto.class))),
+            @ApiResponse(responseCode = "401", description = "Не аутентифицирован",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class))),
+            @ApiResponse(responseCode = "403", description = "Доступ запрещен",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @GetMapping("/search/ranking")
+    public ResponseEntity<RankingWeightsDto> getRankingWeights() {
+        return ResponseEntity.ok(relevanceRanker.getWeights());
+    }
+
+    @Operation(summary = "Изменить веса ранжирования поиска",
+            description = "Применяет новые веса к поиску с sort=relevance на всех узлах без перезапуска. " +
+                    "Страницы поиска, ранжированные прежними весами, больше не отдаются из кэша.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Веса изменены",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = RankingWeightsDto.class))),
+            @ApiResponse(responseCode = "400", description = "Некорректные веса",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Не аутентифицирован",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class))),
+            @ApiResponse(responseCode = "403", description = "Доступ запрещен",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @PutMapping("/search/ranking")
+    public ResponseEntity<RankingWeightsDto> updateRankingWeights(@Valid @RequestBody RankingWeightsDto weights) {
+        log.info("Received request to change search ranking weights: {}", weights);
+        return ResponseEntity.ok(relevanceRanker.updateWeights(weights));
+    }
+
     @Operation(summary = "Запустить асинхронную генерацию отчета по логам",
             description = "Принимает задачу на формирование общего лог-файла. Если дата не указана, обрабатываются все логи. " +
                     "Возвращает ID задачи для отслеживания статуса.")
@@ -1,13 +1,17 @@
 package com.tech.listify.controller;
 
 import com.tech.listify.dto.ApiErrorResponse;
+import com.tech.listify.dto.CursorPageResponseDto;
+import com.tech.listify.dto.FacetedPageResponseDto;
 import com.tech.listify.dto.PageResponseDto;
+import com.tech.listify.dto.SliceResponseDto;
 import com.tech.listify.dto.advertisementdto.*;
 import com.tech.listify.service.AdvertisementService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.Parameters;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -26,6 +30,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -92,6 +97,26 @@ public class AdvertisementController {
         return ResponseEntity.status(HttpStatus.OK).body(adDto);
     }
 
+    @Operation(summary = "Получить объявления по списку ID",
+            description = "Возвращает детальную информацию о нескольких объявлениях (до 50) одним запросом, " +
+                    "например для избранного или недавно просмотренных. Объявления возвращаются в порядке переданных ID, " +
+                    "не найденные ID перечисляются в `missingIds`. Доступно всем.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Объявления получены",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = AdvertisementBatchDto.class))),
+            @ApiResponse(responseCode = "400", description = "Список ID пуст или содержит больше 50 ID",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @GetMapping(params = "ids")
+    public ResponseEntity<AdvertisementBatchDto> getAdvertisementsByIds(
+            @Parameter(description = "ID объявлений через запятую", required = true, example = "1,2,3")
+            @RequestParam List<Long> ids) {
+        log.debug("Received request to get {} advertisements by IDs", ids.size());
+        return ResponseEntity.ok(advertisementService.getAdvertisementsByIds(ids));
+    }
+
     @Operation(summary = "Получить все активные объявления (с пагинацией)",
             description = "Возвращает страницу со списком активных объявлений. Доступно всем.")
     @Parameters({
@@ -105,17 +130,22 @@ public class AdvertisementController {
     @GetMapping
     public ResponseEntity<PageResponseDto<AdvertisementResponseDto>> getAllAdvertisements(
             @Parameter(hidden = true)
-            @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable
+            @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable,
+            @Parameter(description = "Вернуть приблизительное `totalElements` без точного подсчета (быстрее на больших выборках)", example = "false")
+            @RequestParam(defaultValue = "false") boolean approximateTotal
     ) {
         log.debug("Received request to get all advertisements, page: {}, size: {}", pageable.getPageNumber(), pageable.getPageSize());
-        PageResponseDto<AdvertisementResponseDto> advertisementPage = advertisementService.getAllActiveAdvertisements(pageable);
+        PageResponseDto<AdvertisementResponseDto> advertisementPage = approximateTotal
+                ? advertisementService.getAllActiveAdvertisementsApproximate(pageable)
+                : advertisementService.getAllActiveAdvertisements(pageable);
         return ResponseEntity.ok(advertisementPage);
     }
 
     @Operation(summary = "Поиск и фильтрация объявлений",
             description = "Возвращает страницу с объявлениями, соответствующими критериям поиска и фильтрации. Доступно всем.")
     @Parameters({
-            @Parameter(name = "keyword", description = "Ключевое слово для поиска в названии и описании", example = "ноутбук"),
+            @Parameter(name = "keyword", description = "Ключевые слова для полнотекстового поиска в названии и описании", example = "ноутбук"),
+            @Parameter(name = "fuzzy", description = "Нечеткий поиск по названию (опечатки, английская раскладка). Результаты сортируются по сходству", example = "true"),
             @Parameter(name = "categoryId", description = "ID категории для фильтрации", example = "3"),
             @Parameter(name = "regionId", description = "ID области для фильтрации", example = "1"),
             @Parameter(name = "districtId", description = "ID района для фильтрации", example = "1"),
@@ -124,9 +154,12 @@ public class AdvertisementController {
             @Parameter(name = "maxPrice", description = "Максимальная цена", example = "1500"),
             @Parameter(name = "condition", description = "Состояние товара (NEW, USED_GOOD и т.д.)", schema = @Schema(implementation = com.tech.listify.model.enums.AdvertisementCondition.class)),
             @Parameter(name = "sellerId", description = "ID продавца для фильтрации", example = "2"),
+            @Parameter(name = "latitude", description = "Широта точки для поиска в радиусе", example = "53.9045"),
+            @Parameter(name = "longitude", description = "Долгота точки для поиска в радиусе", example = "27.5615"),
+            @Parameter(name = "radiusKm", description = "Радиус поиска в километрах (до 500); задается вместе с latitude и longitude", example = "30"),
             @Parameter(name = "page", in = ParameterIn.QUERY, description = "Номер страницы (начиная с 0)", example = "0"),
             @Parameter(name = "size", in = ParameterIn.QUERY, description = "Количество элементов на странице", example = "20"),
-            @Parameter(name = "sort", in = ParameterIn.QUERY, description = "Сортировка. Формат: `property,direction`.", example = "price,asc")
+            @Parameter(name = "sort", in = ParameterIn.QUERY, description = "Сортировка. Формат: `property,direction`. Значение `relevance` сортирует по сочетанию релевантности ключевого слова, новизны и популярности объявления, `distance` — по удаленности города от точки поиска в радиусе.", example = "price,asc")
     })
     @ApiResponse(responseCode = "200", description = "Список отфильтрованных объявлений получен",
             content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
@@ -136,13 +169,161 @@ public class AdvertisementController {
             @Parameter(hidden = true)
             @ModelAttribute AdvertisementSearchCriteriaDto criteria,
             @Parameter(hidden = true)
-            @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable
+            @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable,
+            @Parameter(description = "Вернуть приблизительное `totalElements` без точного подсчета (быстрее на больших выборках)", example = "false")
+            @RequestParam(defaultValue = "false") boolean approximateTotal
     ) {
         log.info("Received search request with criteria: {}, pageable: {}", criteria, pageable);
-        PageResponseDto<AdvertisementResponseDto> advertisementPage = advertisementService.searchAdvertisements(criteria, pageable);
+        PageResponseDto<AdvertisementResponseDto> advertisementPage = approximateTotal
+                ? advertisementService.searchAdvertisementsApproximate(criteria, pageable)
+                : advertisementService.searchAdvertisements(criteria, pageable);
         return ResponseEntity.ok(advertisementPage);
     }
 
+    @Operation(summary = "Поиск объявлений с фасетами",
+            description = "Вызывается как `/api/ads/search?facets=true` с теми же критериями, что и обычный поиск. " +
+                    "Помимо страницы результатов возвращает количество объявлений по категориям, городам, " +
+                    "состоянию и ценовым диапазонам, рассчитанное одной агрегацией по тем же критериям. Доступно всем.")
+    @ApiResponse(responseCode = "200", description = "Страница результатов и фасеты получены",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = FacetedPageResponseDto.class)))
+    @GetMapping(value = "/search", params = "facets=true")
+    public ResponseEntity<FacetedPageResponseDto<AdvertisementResponseDto>> searchAdvertisementsWithFacets(
+            @Parameter(hidden = true)
+            @ModelAttribute AdvertisementSearchCriteriaDto criteria,
+            @Parameter(hidden = true)
+            @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable
+    ) {
+        log.info("Received faceted search request with criteria: {}, pageable: {}", criteria, pageable);
+        return ResponseEntity.ok(advertisementService.searchAdvertisementsWithFacets(criteria, pageable));
+    }
+
+    @Operation(summary = "Автодополнение заголовков",
+            description = "Возвращает самые частые заголовки активных объявлений, начинающиеся с введенного текста. " +
+                    "Регистр и буква «ё» не учитываются. Доступно всем.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Подсказки получены",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = SuggestionDto.class)))),
+            @ApiResponse(responseCode = "400", description = "Некорректное количество подсказок",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDto>> suggestTitles(
+            @Parameter(description = "Начало заголовка", required = true, example = "ноут")
+            @RequestParam("q") String query,
+            @Parameter(description = "Количество подсказок (1-20)", example = "10")
+            @RequestParam(defaultValue = "10") int limit) {
+        log.debug("Received suggest request for query: '{}', limit: {}", query, limit);
+        return ResponseEntity.ok(advertisementService.suggestTitles(query, limit));
+    }
+
+    @Operation(summary = "Активные объявления без подсчета общего количества",
+            description = "Возвращает страницу активных объявлений и признак `hasNext` без запроса `count(*)`. " +
+                    "Подходит для бесконечной ленты с номерами страниц. Доступно всем.")
+    @Parameters({
+            @Parameter(name = "page", in = ParameterIn.QUERY, description = "Номер страницы (начиная с 0)", example = "0"),
+            @Parameter(name = "size", in = ParameterIn.QUERY, description = "Количество элементов на странице", example = "20"),
+            @Parameter(name = "sort", in = ParameterIn.QUERY, description = "Сортировка. Формат: `property,direction`", example = "createdAt,desc")
+    })
+    @ApiResponse(responseCode = "200", description = "Страница объявлений получена",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = SliceResponseDto.class)))
+    @GetMapping("/slice")
+    public ResponseEntity<SliceResponseDto<AdvertisementResponseDto>> sliceAdvertisements(
+            @Parameter(hidden = true)
+            @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
+        log.debug("Received request to slice advertisements, page: {}, size: {}", pageable.getPageNumber(), pageable.getPageSize());
+        return ResponseEntity.ok(advertisementService.sliceActiveAdvertisements(pageable));
+    }
+
+    @Operation(summary = "Поиск объявлений без подсчета общего количества",
+            description = "Принимает те же критерии и сортировку, что и `/api/ads/search`, но вместо `totalElements` " +
+                    "возвращает признак `hasNext`. Доступно всем.")
+    @ApiResponse(responseCode = "200", description = "Страница результатов получена",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = SliceResponseDto.class)))
+    @GetMapping("/search/slice")
+    public ResponseEntity<SliceResponseDto<AdvertisementResponseDto>> sliceSearchAdvertisements(
+            @Parameter(hidden = true)
+            @ModelAttribute AdvertisementSearchCriteriaDto criteria,
+            @Parameter(hidden = true)
+            @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
+        log.info("Received slice search request with criteria: {}, pageable: {}", criteria, pageable);
+        return ResponseEntity.ok(advertisementService.sliceAdvertisements(criteria, pageable));
+    }
+
+    @Operation(summary = "Лента активных объявлений с курсорной пагинацией",
+            description = "Возвращает активные объявления, отсортированные по дате создания (сначала новые). " +
+                    "Для следующей страницы передайте `nextCursor` из предыдущего ответа. " +
+                    "В отличие от постраничного режима, время ответа не зависит от глубины страницы. Доступно всем.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Страница ленты получена",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = CursorPageResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Некорректный курсор или размер страницы",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPageResponseDto<AdvertisementResponseDto>> scrollAdvertisements(
+            @Parameter(description = "Курсор из поля `nextCursor` предыдущей страницы. Для первой страницы не указывается")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Количество элементов на странице (1-100)", example = "20")
+            @RequestParam(defaultValue = "20") int size) {
+        log.debug("Received request to scroll advertisements, cursor: {}, size: {}", cursor, size);
+        return ResponseEntity.ok(advertisementService.scrollActiveAdvertisements(cursor, size));
+    }
+
+    @Operation(summary = "Поиск объявлений с курсорной пагинацией",
+            description = "Принимает те же критерии, что и `/api/ads/search`, но возвращает результаты по дате создания " +
+                    "(сначала новые) с курсорной пагинацией. Доступно всем.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Страница результатов получена",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = CursorPageResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Некорректный курсор или размер страницы",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @GetMapping("/search/scroll")
+    public ResponseEntity<CursorPageResponseDto<AdvertisementResponseDto>> scrollSearchAdvertisements(
+            @Parameter(hidden = true)
+            @ModelAttribute AdvertisementSearchCriteriaDto criteria,
+            @Parameter(description = "Курсор из поля `nextCursor` предыдущей страницы. Для первой страницы не указывается")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Количество элементов на странице (1-100)", example = "20")
+            @RequestParam(defaultValue = "20") int size) {
+        log.info("Received scroll search request with criteria: {}, cursor: {}, size: {}", criteria, cursor, size);
+        return ResponseEntity.ok(advertisementService.scrollAdvertisements(criteria, cursor, size));
+    }
+
+    @Operation(summary = "Выгрузить все объявления по критериям поиска",
+            description = "Принимает те же критерии, что и `/api/ads/search`, и потоком возвращает все подходящие объявления " +
+                    "в формате NDJSON (по объекту JSON на строку), сначала новые. Выгрузка не использует пагинацию и count-запрос; " +
+                    "число одновременных выгрузок ограничено. Доступно всем.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Поток объявлений",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = AdvertisementResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Некорректные критерии поиска",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class))),
+            @ApiResponse(responseCode = "429", description = "Слишком много одновременных выгрузок",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportAdvertisements(
+            @Parameter(hidden = true)
+            @ModelAttribute AdvertisementSearchCriteriaDto criteria) {
+        log.info("Received export request with criteria: {}", criteria);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(advertisementService.exportAdvertisements(criteria));
+    }
+
     @Operation(summary = "Обновить существующее объявление",
             description = "Обновляет данные объявления. Позволяет выборочно удалять старые изображения и загружать новые. " +
                     "Запрос должен быть в формате `multipart/form-data`. " +
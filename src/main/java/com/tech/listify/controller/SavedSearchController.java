@@ -0,0 +1,122 @@
+package com.tech.listify.controller;
+
+import com.tech.listify.dto.ApiErrorResponse;
+import com.tech.listify.dto.PageResponseDto;
+import com.tech.listify.dto.savedsearchdto.SavedSearchCreateDto;
+import com.tech.listify.dto.savedsearchdto.SavedSearchDto;
+import com.tech.listify.dto.savedsearchdto.SavedSearchNotificationDto;
+import com.tech.listify.service.SavedSearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.Parameters;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/saved-searches")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Saved searches", description = "Сохраненные поиски и уведомления о новых подходящих объявлениях")
+@SecurityRequirement(name = "bearerAuth")
+public class SavedSearchController {
+    private final SavedSearchService savedSearchService;
+
+    @Operation(summary = "Сохранить поиск",
+            description = "Сохраняет критерии поиска. Когда будет создано подходящее объявление, пользователь получит уведомление. " +
+                    "Нечеткий поиск, поиск по радиусу и фильтр по продавцу не поддерживаются.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Поиск сохранен",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = SavedSearchDto.class))),
+            @ApiResponse(responseCode = "400", description = "Ошибка валидации, неподдерживаемые критерии или превышен лимит сохраненных поисков",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Не аутентифицирован",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @PostMapping
+    public ResponseEntity<SavedSearchDto> createSavedSearch(
+            @Valid @RequestBody SavedSearchCreateDto createDto,
+            Authentication authentication) {
+        String userEmail = authentication.getName();
+        log.info("Received request to save search from user: {}", userEmail);
+        SavedSearchDto savedSearch = savedSearchService.createSavedSearch(createDto, userEmail);
+        return ResponseEntity.status(HttpStatus.CREATED).body(savedSearch);
+    }
+
+    @Operation(summary = "Получить мои сохраненные поиски",
+            description = "Возвращает сохраненные поиски текущего пользователя, новые первыми.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список получен",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = SavedSearchDto.class)))),
+            @ApiResponse(responseCode = "401", description = "Не аутентифицирован",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @GetMapping
+    public ResponseEntity<List<SavedSearchDto>> getMySavedSearches(Authentication authentication) {
+        return ResponseEntity.ok(savedSearchService.getMySavedSearches(authentication.getName()));
+    }
+
+    @Operation(summary = "Удалить сохраненный поиск",
+            description = "Удаляет сохраненный поиск вместе с его уведомлениями. Требуются права владельца.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Поиск удален"),
+            @ApiResponse(responseCode = "401", description = "Не аутентифицирован", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ApiErrorResponse.class))),
+            @ApiResponse(responseCode = "403", description = "Доступ запрещен (не владелец)", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ApiErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Сохраненный поиск не найден", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteSavedSearch(
+            @Parameter(description = "ID сохраненного поиска", required = true, example = "1")
+            @PathVariable Long id,
+            Authentication authentication) {
+        String userEmail = authentication.getName();
+        log.info("Received request to delete saved search ID: {} from user: {}", id, userEmail);
+        savedSearchService.deleteSavedSearch(id, userEmail);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Получить уведомления по сохраненным поискам",
+            description = "Возвращает новые объявления, подошедшие под сохраненные поиски текущего пользователя, новые первыми. " +
+                    "Уведомления доставляются асинхронно, с задержкой в несколько секунд после публикации объявления.")
+    @Parameters({
+            @Parameter(name = "page", in = ParameterIn.QUERY, description = "Номер страницы (начиная с 0)", example = "0"),
+            @Parameter(name = "size", in = ParameterIn.QUERY, description = "Количество элементов на странице", example = "20")
+    })
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Уведомления получены",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = PageResponseDto.class))),
+            @ApiResponse(responseCode = "401", description = "Не аутентифицирован",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @GetMapping("/notifications")
+    public ResponseEntity<PageResponseDto<SavedSearchNotificationDto>> getMyNotifications(
+            @Parameter(hidden = true)
+            @PageableDefault(size = 20) Pageable pageable,
+            Authentication authentication) {
+        return ResponseEntity.ok(savedSearchService.getMyNotifications(authentication.getName(), pageable));
+    }
+}
@@ -0,0 +1,74 @@
+package com.tech.listify.controller;
+
+import com.tech.listify.dto.ApiErrorResponse;
+import com.tech.listify.search.AdvertisementIndexSynchronizer;
+import com.tech.listify.search.AdvertisementSearchIndex;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/search-index")
+@ConditionalOnProperty(name = "app.search.backend", havingValue = "lucene")
+@Tag(name = "Admin", description = "Административные функции (требуется роль ADMIN)")
+@SecurityRequirement(name = "bearerAuth")
+@RequiredArgsConstructor
+@Slf4j
+public class SearchIndexController {
+
+    private final AdvertisementSearchIndex searchIndex;
+    private final AdvertisementIndexSynchronizer indexSynchronizer;
+
+    @Operation(summary = "Перестроить поисковый индекс",
+            description = "Полностью перестраивает индекс Lucene из активных объявлений в БД. " +
+                    "На время перестройки поиск обслуживается из БД.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Индекс перестроен",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(example = "{\"indexed\": 15230}"))),
+            @ApiResponse(responseCode = "401", description = "Не аутентифицирован",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class))),
+            @ApiResponse(responseCode = "403", description = "Доступ запрещен",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @PostMapping("/rebuild")
+    public ResponseEntity<Map<String, Long>> rebuild() {
+        log.info("Received request to rebuild search index");
+        return ResponseEntity.ok(Map.of("indexed", indexSynchronizer.rebuild()));
+    }
+
+    @Operation(summary = "Состояние поискового индекса",
+            description = "Возвращает количество документов в индексе и признак готовности к обслуживанию поиска.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Состояние получено",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(example = "{\"documents\": 15230, \"ready\": true}"))),
+            @ApiResponse(responseCode = "401", description = "Не аутентифицирован",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class))),
+            @ApiResponse(responseCode = "403", description = "Доступ запрещен",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(Map.of("documents", searchIndex.numDocs(), "ready", searchIndex.isReady()));
+    }
+}
@@ -1,8 +1,11 @@
 package com.tech.listify.controller;
 
 import com.tech.listify.dto.ApiErrorResponse;
+import com.tech.listify.dto.CursorPageResponseDto;
+import com.tech.listify.dto.advertisementdto.AdvertisementResponseDto;
 import com.tech.listify.dto.userdto.UserProfileDto;
 import com.tech.listify.dto.userdto.UserUpdateProfileDto;
+import com.tech.listify.service.AdvertisementService;
 import com.tech.listify.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -30,6 +33,7 @@ import java.io.IOException;
 @Tag(name = "Users", description = "API для управления профилями пользователей")
 public class UserController {
     private final UserService userService;
+    private final AdvertisementService advertisementService;
 
     @Operation(summary = "Получить публичный профиль пользователя по ID",
             description = "Возвращает публичную информацию о пользователе, включая его имя, город, дату регистрации и количество активных объявлений. Доступно всем.")
@@ -50,6 +54,31 @@ public class UserController {
         return ResponseEntity.ok(userProfile);
     }
 
+    @Operation(summary = "Получить объявления пользователя",
+            description = "Возвращает активные объявления пользователя, сначала новые, с курсорной пагинацией. Доступно всем.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Страница объявлений получена",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = CursorPageResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Некорректный курсор или размер страницы",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Пользователь с указанным ID не найден",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @GetMapping("/{userId}/ads")
+    public ResponseEntity<CursorPageResponseDto<AdvertisementResponseDto>> getUserAdvertisements(
+            @Parameter(description = "ID пользователя, чьи объявления нужно получить", required = true, example = "1")
+            @PathVariable Long userId,
+            @Parameter(description = "Курсор из поля `nextCursor` предыдущей страницы. Для первой страницы не указывается")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Количество элементов на странице (1-100)", example = "20")
+            @RequestParam(defaultValue = "20") int size) {
+        log.debug("Received request for advertisements of user ID: {}, cursor: {}, size: {}", userId, cursor, size);
+        return ResponseEntity.ok(advertisementService.getSellerAdvertisements(userId, cursor, size));
+    }
+
     @Operation(summary = "Получить профиль текущего пользователя",
             description = "Возвращает полную информацию о профиле аутентифицированного пользователя. Требуется аутентификация.",
             security = @SecurityRequirement(name = "bearerAuth"))
@@ -0,0 +1,21 @@
+package com.tech.listify.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Страница результатов с курсорной (keyset) пагинацией")
+public record CursorPageResponseDto<T>(
+        @Schema(description = "Элементы страницы")
+        List<T> content,
+
+        @Schema(description = "Запрошенный размер страницы", example = "20")
+        int size,
+
+        @Schema(description = "Непрозрачный курсор для запроса следующей страницы", nullable = true)
+        String nextCursor,
+
+        @Schema(description = "Есть ли следующая страница")
+        boolean hasNext
+) {
+}
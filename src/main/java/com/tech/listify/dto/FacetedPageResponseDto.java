@@ -0,0 +1,30 @@
+package com.tech.listify.dto;
+
+import com.tech.listify.dto.advertisementdto.SearchFacetsDto;
+
+import java.util.List;
+
+/**
+ * {@link PageResponseDto}, дополненный фасетами по тем же критериям поиска.
+ */
+public record FacetedPageResponseDto<T>(
+        List<T> content,
+        int number,
+        int size,
+        long totalElements,
+        int totalPages,
+        boolean last,
+        SearchFacetsDto facets
+) {
+    public static <T> FacetedPageResponseDto<T> of(PageResponseDto<T> page, SearchFacetsDto facets) {
+        return new FacetedPageResponseDto<>(
+                page.content(),
+                page.number(),
+                page.size(),
+                page.totalElements(),
+                page.totalPages(),
+                page.last(),
+                facets
+        );
+    }
+}
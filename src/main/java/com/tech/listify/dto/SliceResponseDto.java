@@ -0,0 +1,25 @@
+package com.tech.listify.dto;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * Вариант {@link PageResponseDto} без общего количества элементов: для его получения
+ * не выполняется дополнительный {@code SELECT count(*)}.
+ */
+public record SliceResponseDto<T>(
+        List<T> content,
+        int number,
+        int size,
+        boolean hasNext
+) {
+    public static <T> SliceResponseDto<T> fromSlice(Slice<T> slice) {
+        return new SliceResponseDto<>(
+                slice.getContent(),
+                slice.getNumber(),
+                slice.getSize(),
+                slice.hasNext()
+        );
+    }
+}
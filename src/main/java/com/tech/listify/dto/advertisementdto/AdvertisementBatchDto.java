@@ -0,0 +1,15 @@
+package com.tech.listify.dto.advertisementdto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Объявления, запрошенные списком ID")
+public record AdvertisementBatchDto(
+        @Schema(description = "Найденные объявления в порядке запрошенных ID")
+        List<AdvertisementDetailDto> advertisements,
+
+        @Schema(description = "Запрошенные ID, для которых объявления не найдены", example = "[42]")
+        List<Long> missingIds
+) {
+}
@@ -52,7 +52,14 @@ public record AdvertisementDetailDto(
         @Schema(description = "Имя продавца")
         String sellerName,
 
+        @Schema(description = "Количество просмотров")
+        Long viewCount,
+
         @Schema(description = "Список изображений объявления")
         List<AdvertisementImageDto> images
 ) {
+    public AdvertisementDetailDto withViewCount(long viewCount) {
+        return new AdvertisementDetailDto(id, title, description, price, createdAt, updatedAt, status, condition,
+                categoryId, categoryName, cityId, cityName, sellerId, sellerName, viewCount, images);
+    }
 }
\ No newline at end of file
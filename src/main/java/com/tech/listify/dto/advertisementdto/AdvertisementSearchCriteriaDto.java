@@ -11,6 +11,9 @@ public record AdvertisementSearchCriteriaDto(
         @Schema(description = "Ключевое слово для поиска в названии и описании")
         String keyword,
 
+        @Schema(description = "Нечеткий поиск по названию с учетом опечаток и раскладки клавиатуры")
+        Boolean fuzzy,
+
         @Schema(description = "ID категории для фильтрации")
         Integer categoryId,
 
@@ -33,6 +36,22 @@ public record AdvertisementSearchCriteriaDto(
         AdvertisementCondition condition,
 
         @Schema(description = "ID продавца для фильтрации")
-        Long sellerId
+        Long sellerId,
+
+        @Schema(description = "Широта точки для поиска в радиусе", example = "53.9045")
+        Double latitude,
+
+        @Schema(description = "Долгота точки для поиска в радиусе", example = "27.5615")
+        Double longitude,
+
+        @Schema(description = "Радиус поиска в километрах вокруг точки (latitude, longitude)", example = "30")
+        Double radiusKm
 ) {
+    public boolean isFuzzy() {
+        return Boolean.TRUE.equals(fuzzy);
+    }
+
+    public boolean hasGeoFilter() {
+        return latitude != null || longitude != null || radiusKm != null;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.tech.listify.dto.advertisementdto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Количество объявлений для одного значения фасета")
+public record FacetCountDto(
+        @Schema(description = "Значение фильтра (ID категории или города, код состояния или ценового диапазона)", example = "3")
+        String value,
+
+        @Schema(description = "Отображаемое название", example = "Ноутбуки")
+        String label,
+
+        @Schema(description = "Количество объявлений", example = "42")
+        long count
+) {
+}
@@ -0,0 +1,37 @@
+package com.tech.listify.dto.advertisementdto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+@Schema(description = "Веса ранжирования поиска с sort=relevance")
+public record RankingWeightsDto(
+        @NotNull(message = "Вес текстовой релевантности обязателен")
+        @DecimalMin(value = "0.0", message = "Вес текстовой релевантности не может быть отрицательным")
+        @Schema(description = "Вес ранга полнотекстового поиска", example = "0.6")
+        Double textWeight,
+
+        @NotNull(message = "Вес новизны обязателен")
+        @DecimalMin(value = "0.0", message = "Вес новизны не может быть отрицательным")
+        @Schema(description = "Вес новизны объявления", example = "0.3")
+        Double recencyWeight,
+
+        @NotNull(message = "Вес популярности обязателен")
+        @DecimalMin(value = "0.0", message = "Вес популярности не может быть отрицательным")
+        @Schema(description = "Вес популярности (просмотров) объявления", example = "0.1")
+        Double popularityWeight,
+
+        @NotNull(message = "Период полураспада новизны обязателен")
+        @DecimalMin(value = "1.0", message = "Период полураспада новизны должен быть не меньше 1 часа")
+        @Schema(description = "Через сколько часов вклад новизны уменьшается вдвое", example = "72")
+        Double recencyHalfLifeHours,
+
+        @NotNull(message = "Количество кандидатов обязательно")
+        @Min(value = 10, message = "Количество кандидатов должно быть не меньше 10")
+        @Max(value = 5000, message = "Количество кандидатов должно быть не больше 5000")
+        @Schema(description = "Сколько лучших по тексту (или самых свежих) объявлений переранжируется", example = "500")
+        Integer candidateLimit
+) {
+}
@@ -0,0 +1,21 @@
+package com.tech.listify.dto.advertisementdto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Распределение результатов поиска по категориям, городам, состоянию и цене")
+public record SearchFacetsDto(
+        @Schema(description = "Категории, по убыванию количества")
+        List<FacetCountDto> categories,
+
+        @Schema(description = "Города, по убыванию количества")
+        List<FacetCountDto> cities,
+
+        @Schema(description = "Состояние товара")
+        List<FacetCountDto> conditions,
+
+        @Schema(description = "Ценовые диапазоны, по возрастанию цены")
+        List<FacetCountDto> priceRanges
+) {
+}
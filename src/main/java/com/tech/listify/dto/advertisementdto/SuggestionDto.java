@@ -0,0 +1,13 @@
+package com.tech.listify.dto.advertisementdto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Вариант автодополнения заголовка")
+public record SuggestionDto(
+        @Schema(description = "Заголовок (в нижнем регистре)", example = "ноутбук lenovo")
+        String text,
+
+        @Schema(description = "Количество активных объявлений с таким заголовком", example = "12")
+        int count
+) {
+}
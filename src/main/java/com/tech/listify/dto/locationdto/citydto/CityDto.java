@@ -11,6 +11,12 @@ public record CityDto(
         String name,
 
         @Schema(description = "ID района")
-        Integer districtId
+        Integer districtId,
+
+        @Schema(description = "Широта центра города")
+        Double latitude,
+
+        @Schema(description = "Долгота центра города")
+        Double longitude
 ) {
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.tech.listify.dto.savedsearchdto;
+
+import com.tech.listify.dto.advertisementdto.AdvertisementSearchCriteriaDto;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+@Schema(description = "Данные для сохранения поиска")
+public record SavedSearchCreateDto(
+        @NotBlank(message = "Название поиска не может быть пустым")
+        @Size(max = 100, message = "Название поиска не может быть длиннее 100 символов")
+        @Schema(description = "Название поиска", example = "Велосипеды в Минске до 500", requiredMode = Schema.RequiredMode.REQUIRED)
+        String name,
+
+        @NotNull(message = "Критерии поиска не могут быть пустыми")
+        @Schema(description = "Критерии поиска. Поддерживаются keyword, categoryId, regionId, districtId, cityId, minPrice, maxPrice и condition",
+                requiredMode = Schema.RequiredMode.REQUIRED)
+        AdvertisementSearchCriteriaDto criteria
+) {
+}
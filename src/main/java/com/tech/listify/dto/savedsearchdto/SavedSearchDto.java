@@ -0,0 +1,22 @@
+package com.tech.listify.dto.savedsearchdto;
+
+import com.tech.listify.dto.advertisementdto.AdvertisementSearchCriteriaDto;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.OffsetDateTime;
+
+@Schema(description = "Сохраненный поиск")
+public record SavedSearchDto(
+        @Schema(description = "ID сохраненного поиска")
+        Long id,
+
+        @Schema(description = "Название поиска")
+        String name,
+
+        @Schema(description = "Критерии поиска")
+        AdvertisementSearchCriteriaDto criteria,
+
+        @Schema(description = "Дата создания")
+        OffsetDateTime createdAt
+) {
+}
@@ -0,0 +1,34 @@
+package com.tech.listify.dto.savedsearchdto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+@Schema(description = "Уведомление о новом объявлении, подходящем под сохраненный поиск")
+public record SavedSearchNotificationDto(
+        @Schema(description = "ID уведомления")
+        Long id,
+
+        @Schema(description = "ID сохраненного поиска")
+        Long savedSearchId,
+
+        @Schema(description = "Название сохраненного поиска")
+        String savedSearchName,
+
+        @Schema(description = "ID объявления")
+        Long advertisementId,
+
+        @Schema(description = "Заголовок объявления")
+        String title,
+
+        @Schema(description = "Цена")
+        BigDecimal price,
+
+        @Schema(description = "URL изображения для предпросмотра")
+        String previewImageUrl,
+
+        @Schema(description = "Дата уведомления")
+        OffsetDateTime createdAt
+) {
+}
@@ -0,0 +1,35 @@
+package com.tech.listify.event;
+
+/**
+ * Публикуется {@code AdvertisementServiceImpl} при создании, изменении и удалении объявления.
+ * Слушатели подписываются через {@code @TransactionalEventListener} и получают событие
+ * только после успешного коммита.
+ *
+ * @param type   вид изменения.
+ * @param before состояние до изменения; {@code null} для {@link Type#CREATED}.
+ * @param after  состояние после изменения; {@code null} для {@link Type#DELETED}.
+ */
+public record AdvertisementChangedEvent(Type type, AdvertisementSnapshot before, AdvertisementSnapshot after) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static AdvertisementChangedEvent created(AdvertisementSnapshot after) {
+        return new AdvertisementChangedEvent(Type.CREATED, null, after);
+    }
+
+    public static AdvertisementChangedEvent updated(AdvertisementSnapshot before, AdvertisementSnapshot after) {
+        return new AdvertisementChangedEvent(Type.UPDATED, before, after);
+    }
+
+    public static AdvertisementChangedEvent deleted(AdvertisementSnapshot before) {
+        return new AdvertisementChangedEvent(Type.DELETED, before, null);
+    }
+
+    public Long advertisementId() {
+        return after != null ? after.id() : before.id();
+    }
+}
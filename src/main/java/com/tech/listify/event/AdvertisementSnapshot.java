@@ -0,0 +1,52 @@
+package com.tech.listify.event;
+
+import com.tech.listify.model.Advertisement;
+import com.tech.listify.model.enums.AdvertisementCondition;
+import com.tech.listify.model.enums.AdvertisementStatus;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+/**
+ * Неизменяемый снимок объявления на момент изменения. Создается внутри транзакции, пока
+ * доступны ленивые связи, и передается слушателям, которые выполняются после коммита.
+ */
+public record AdvertisementSnapshot(
+        Long id,
+        String title,
+        String description,
+        BigDecimal price,
+        AdvertisementStatus status,
+        AdvertisementCondition condition,
+        Integer categoryId,
+        Integer cityId,
+        String cityName,
+        Integer districtId,
+        Integer regionId,
+        Long sellerId,
+        OffsetDateTime createdAt,
+        String previewImageUrl
+) {
+    public static AdvertisementSnapshot of(Advertisement ad) {
+        return new AdvertisementSnapshot(
+                ad.getId(),
+                ad.getTitle(),
+                ad.getDescription(),
+                ad.getPrice(),
+                ad.getStatus(),
+                ad.getCondition(),
+                ad.getCategory().getId(),
+                ad.getCity().getId(),
+                ad.getCity().getName(),
+                ad.getDistrictId(),
+                ad.getRegionId(),
+                ad.getSeller().getId(),
+                ad.getCreatedAt(),
+                ad.getPreviewImageUrl()
+        );
+    }
+
+    public boolean isActive() {
+        return status == AdvertisementStatus.ACTIVE;
+    }
+}
@@ -51,6 +51,24 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return createErrorResponse(HttpStatus.CONFLICT, "Conflict", ex.getMessage(), request);
     }
 
+    /**
+     * Обработка ошибки: Некорректный параметр запроса (например, поврежденный курсор) (400 Bad Request).
+     */
+    @ExceptionHandler(InvalidRequestParameterException.class)
+    public ResponseEntity<Object> handleInvalidRequestParameter(InvalidRequestParameterException ex, WebRequest request) {
+        log.warn("Invalid request parameter: {}", ex.getMessage());
+        return createErrorResponse(HttpStatus.BAD_REQUEST, "Bad Request", ex.getMessage(), request);
+    }
+
+    /**
+     * Обработка ошибки: Превышен лимит одновременных тяжелых запросов (429 Too Many Requests).
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<Object> handleTooManyRequests(TooManyRequestsException ex, WebRequest request) {
+        log.warn("Request rejected: {}", ex.getMessage());
+        return createErrorResponse(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", ex.getMessage(), request);
+    }
+
     /**
      * Обработка ошибки: Ошибка хранения/обработки файла.
      * Возвращает 400 Bad Request для ошибок клиента и 500 Internal Server Error для ошибок сервера.
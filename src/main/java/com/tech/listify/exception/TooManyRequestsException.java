@@ -0,0 +1,7 @@
+package com.tech.listify.exception;
+
+public class TooManyRequestsException extends RuntimeException {
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
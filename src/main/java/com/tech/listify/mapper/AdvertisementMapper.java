@@ -18,7 +18,11 @@ public interface AdvertisementMapper {
     @Mapping(target = "seller", ignore = true)
     @Mapping(target = "category", ignore = true)
     @Mapping(target = "city", ignore = true)
+    @Mapping(target = "districtId", ignore = true)
+    @Mapping(target = "regionId", ignore = true)
     @Mapping(target = "images", ignore = true)
+    @Mapping(target = "previewImageUrl", ignore = true)
+    @Mapping(target = "viewCount", ignore = true)
     Advertisement toAdvertisement(AdvertisementCreateDto dto);
 
     @Mapping(target = "id", ignore = true)
@@ -27,27 +31,18 @@ public interface AdvertisementMapper {
     @Mapping(target = "seller", ignore = true)
     @Mapping(target = "category", ignore = true)
     @Mapping(target = "city", ignore = true)
+    @Mapping(target = "districtId", ignore = true)
+    @Mapping(target = "regionId", ignore = true)
     @Mapping(target = "images", ignore = true)
+    @Mapping(target = "previewImageUrl", ignore = true)
+    @Mapping(target = "viewCount", ignore = true)
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     void updateAdvertisementFromDto(AdvertisementUpdateDto dto, @MappingTarget Advertisement ad);
 
     @Mapping(source = "city.id", target = "cityId")
     @Mapping(source = "city.name", target = "cityName")
-    @Mapping(target = "previewImageUrl", expression = "java(mapPreviewImageUrl(ad))")
     AdvertisementResponseDto toAdvertisementResponseDto(Advertisement ad);
 
-    default String mapPreviewImageUrl(Advertisement ad) {
-        if (ad.getImages() == null || ad.getImages().isEmpty()) {
-            return null;
-        }
-        return ad.getImages().stream()
-                .filter(AdvertisementImage::getIsPreview)
-                .findFirst()
-                .map(AdvertisementImage::getImageUrl)
-                .orElse(ad.getImages().getFirst().getImageUrl());
-    }
-
-
     default Page<AdvertisementResponseDto> toAdvertisementResponseDtoPage(Page<Advertisement> advertisementPage) {
         if (advertisementPage == null) {
             return Page.empty();
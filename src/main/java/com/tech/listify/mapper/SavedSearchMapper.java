@@ -0,0 +1,39 @@
+package com.tech.listify.mapper;
+
+import com.tech.listify.dto.advertisementdto.AdvertisementSearchCriteriaDto;
+import com.tech.listify.dto.savedsearchdto.SavedSearchCreateDto;
+import com.tech.listify.dto.savedsearchdto.SavedSearchDto;
+import com.tech.listify.model.SavedSearch;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface SavedSearchMapper {
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "user", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "keyword", source = "criteria.keyword")
+    @Mapping(target = "categoryId", source = "criteria.categoryId")
+    @Mapping(target = "regionId", source = "criteria.regionId")
+    @Mapping(target = "districtId", source = "criteria.districtId")
+    @Mapping(target = "cityId", source = "criteria.cityId")
+    @Mapping(target = "minPrice", source = "criteria.minPrice")
+    @Mapping(target = "maxPrice", source = "criteria.maxPrice")
+    @Mapping(target = "condition", source = "criteria.condition")
+    SavedSearch toSavedSearch(SavedSearchCreateDto dto);
+
+    @Mapping(target = "criteria", source = ".")
+    SavedSearchDto toSavedSearchDto(SavedSearch savedSearch);
+
+    List<SavedSearchDto> toSavedSearchDtoList(List<SavedSearch> savedSearches);
+
+    @Mapping(target = "fuzzy", ignore = true)
+    @Mapping(target = "sellerId", ignore = true)
+    @Mapping(target = "latitude", ignore = true)
+    @Mapping(target = "longitude", ignore = true)
+    @Mapping(target = "radiusKm", ignore = true)
+    AdvertisementSearchCriteriaDto toCriteria(SavedSearch savedSearch);
+}
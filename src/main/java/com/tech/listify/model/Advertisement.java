@@ -4,6 +4,7 @@ import com.tech.listify.model.enums.AdvertisementCondition;
 import com.tech.listify.model.enums.AdvertisementStatus;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -51,6 +52,13 @@ public class Advertisement {
     @Column(name = "updated_at", nullable = false)
     private OffsetDateTime updatedAt;
 
+    /**
+     * Изменяется только сбросом счетчиков просмотров, поэтому сохранение объявления его не перезаписывает.
+     */
+    @ColumnDefault("0")
+    @Column(name = "view_count", nullable = false, insertable = false, updatable = false)
+    private long viewCount;
+
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "seller_id", nullable = false)
     private User seller;
@@ -63,6 +71,18 @@ public class Advertisement {
     @JoinColumn(name = "city_id", nullable = false)
     private City city;
 
+    /** Денормализованный район города объявления; обновляется вместе с {@link #city}. */
+    @Column(name = "district_id", nullable = false)
+    private Integer districtId;
+
+    /** Денормализованная область города объявления; обновляется вместе с {@link #city}. */
+    @Column(name = "region_id", nullable = false)
+    private Integer regionId;
+
+    /** Денормализованный URL превью; обновляется при каждом изменении набора изображений. */
+    @Column(name = "preview_image_url", length = 512)
+    private String previewImageUrl;
+
     @OneToMany(mappedBy = "advertisement", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<AdvertisementImage> images = new ArrayList<>();
 }
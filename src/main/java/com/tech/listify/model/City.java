@@ -29,6 +29,12 @@ public class City {
     @JoinColumn(name = "district_id", nullable = false)
     private District district;
 
+    @Column(name = "latitude")
+    private Double latitude;
+
+    @Column(name = "longitude")
+    private Double longitude;
+
     @OneToMany(mappedBy = "city", fetch = FetchType.LAZY)
     private Set<User> users = new HashSet<>();
 
@@ -0,0 +1,61 @@
+package com.tech.listify.model;
+
+import com.tech.listify.model.enums.AdvertisementCondition;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@ToString(exclude = {"user"})
+@Entity
+@Table(name = "saved_searches")
+public class SavedSearch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "name", nullable = false, length = 100)
+    private String name;
+
+    @Column(name = "keyword")
+    private String keyword;
+
+    @Column(name = "category_id")
+    private Integer categoryId;
+
+    @Column(name = "region_id")
+    private Integer regionId;
+
+    @Column(name = "district_id")
+    private Integer districtId;
+
+    @Column(name = "city_id")
+    private Integer cityId;
+
+    @Column(name = "min_price", precision = 12, scale = 2)
+    private BigDecimal minPrice;
+
+    @Column(name = "max_price", precision = 12, scale = 2)
+    private BigDecimal maxPrice;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "condition", length = 50)
+    private AdvertisementCondition condition;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt;
+}
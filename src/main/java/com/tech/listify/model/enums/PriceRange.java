@@ -0,0 +1,49 @@
+package com.tech.listify.model.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * Ценовые диапазоны для фасетов поиска. Нижняя граница включается, верхняя — нет.
+ * Порядок констант совпадает с номером корзины {@code width_bucket} в SQL.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum PriceRange {
+    UNDER_100(null, new BigDecimal("100"), "До 100"),
+    FROM_100_TO_500(new BigDecimal("100"), new BigDecimal("500"), "100 – 500"),
+    FROM_500_TO_1000(new BigDecimal("500"), new BigDecimal("1000"), "500 – 1000"),
+    FROM_1000_TO_5000(new BigDecimal("1000"), new BigDecimal("5000"), "1000 – 5000"),
+    FROM_5000(new BigDecimal("5000"), null, "От 5000");
+
+    private final BigDecimal minPrice;
+    private final BigDecimal maxPrice;
+    private final String displayName;
+
+    public static PriceRange of(BigDecimal price) {
+        for (PriceRange range : values()) {
+            if (range.maxPrice == null || price.compareTo(range.maxPrice) < 0) {
+                return range;
+            }
+        }
+        throw new IllegalStateException("Последний диапазон должен быть открытым сверху");
+    }
+
+    /**
+     * Диапазон, целиком содержащий фильтр {@code [minPrice, maxPrice]} (обе границы включаются);
+     * пусто, если фильтр пересекает несколько диапазонов.
+     */
+    public static Optional<PriceRange> enclosing(BigDecimal minPrice, BigDecimal maxPrice) {
+        if (minPrice == null && maxPrice == null) {
+            return Optional.empty();
+        }
+        PriceRange range = minPrice != null ? of(minPrice) : UNDER_100;
+        if (range.maxPrice != null && (maxPrice == null || maxPrice.compareTo(range.maxPrice) >= 0)) {
+            return Optional.empty();
+        }
+        return Optional.of(range);
+    }
+}
@@ -0,0 +1,18 @@
+package com.tech.listify.repository;
+
+import com.tech.listify.model.enums.AdvertisementCondition;
+
+/**
+ * Строка сгруппированной агрегации для фасетов: количество объявлений с данной комбинацией
+ * категории, города, состояния и ценового диапазона ({@code priceRange} — ordinal {@code PriceRange}).
+ */
+public record AdvertisementFacetCount(
+        Integer categoryId,
+        String categoryName,
+        Integer cityId,
+        String cityName,
+        AdvertisementCondition condition,
+        Integer priceRange,
+        long count
+) {
+}
@@ -2,15 +2,65 @@ package com.tech.listify.repository;
 
 import com.tech.listify.model.Advertisement;
 import com.tech.listify.model.enums.AdvertisementStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface AdvertisementRepository extends JpaRepository<Advertisement, Long>, JpaSpecificationExecutor<Advertisement> {
+public interface AdvertisementRepository extends JpaRepository<Advertisement, Long>, JpaSpecificationExecutor<Advertisement>,
+        AdvertisementRepositoryCustom {
     Page<Advertisement> findByStatus(AdvertisementStatus status, Pageable pageable);
 
     int countBySellerIdAndStatus(Long sellerId, AdvertisementStatus status);
+
+    /**
+     * Устанавливает порог word similarity (pg_trgm) до конца текущей транзакции.
+     */
+    @Query(value = "SELECT set_config('pg_trgm.word_similarity_threshold', :threshold, true)", nativeQuery = true)
+    String setWordSimilarityThreshold(@Param("threshold") String threshold);
+
+    /**
+     * Пачка объявлений с заданным статусом и ID больше {@code afterId} в порядке возрастания ID
+     * (для пакетной обработки всей таблицы).
+     */
+    @Query("SELECT a FROM Advertisement a JOIN FETCH a.city WHERE a.status = :status AND a.id > :afterId ORDER BY a.id")
+    List<Advertisement> findBatchWithCityByStatusAfterId(@Param("status") AdvertisementStatus status,
+                                                         @Param("afterId") Long afterId,
+                                                         Limit limit);
+
+    /**
+     * Пачка объявлений любого статуса, измененных после {@code since}, в порядке ({@code updatedAt}, ID);
+     * следующая пачка запрашивается с последними {@code updatedAt} и ID предыдущей.
+     */
+    @Query("SELECT a FROM Advertisement a JOIN FETCH a.city " +
+            "WHERE a.updatedAt > :since OR (a.updatedAt = :since AND a.id > :afterId) ORDER BY a.updatedAt, a.id")
+    List<Advertisement> findBatchWithCityUpdatedAfter(@Param("since") OffsetDateTime since,
+                                                      @Param("afterId") Long afterId,
+                                                      Limit limit);
+
+    /**
+     * ID из списка, у которых объявление существует и имеет заданный статус.
+     */
+    @Query("SELECT a.id FROM Advertisement a WHERE a.id IN :ids AND a.status = :status")
+    List<Long> findIdsByIdInAndStatus(@Param("ids") Collection<Long> ids, @Param("status") AdvertisementStatus status);
+
+    /**
+     * Объявления по списку ID со всеми связями карточки (категория, город, продавец, изображения) одним запросом.
+     */
+    @Query("SELECT a FROM Advertisement a JOIN FETCH a.category JOIN FETCH a.city JOIN FETCH a.seller " +
+            "LEFT JOIN FETCH a.images WHERE a.id IN :ids")
+    List<Advertisement> findDetailsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.tech.listify.repository.TitleCount(a.title, count(a)) FROM Advertisement a " +
+            "WHERE a.status = :status GROUP BY a.title")
+    List<TitleCount> countTitlesByStatus(@Param("status") AdvertisementStatus status);
 }
@@ -0,0 +1,57 @@
+package com.tech.listify.repository;
+
+import com.tech.listify.dto.advertisementdto.AdvertisementResponseDto;
+import com.tech.listify.model.Advertisement;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface AdvertisementRepositoryCustom {
+
+    /**
+     * Страница списка одним проекционным запросом прямо в {@link AdvertisementResponseDto} (город через
+     * соединение, превью из денормализованной колонки) и count-запросом, если он нужен для итога.
+     */
+    Page<AdvertisementResponseDto> findResponsePage(Specification<Advertisement> specification, Pageable pageable);
+
+    /**
+     * Страница списка без count-запроса: выбирается на одну строку больше размера страницы,
+     * чтобы определить наличие следующей.
+     */
+    Slice<AdvertisementResponseDto> findResponseSlice(Specification<Advertisement> specification, Pageable pageable);
+
+    /**
+     * Первые {@code limit} строк списка в заданном порядке (для keyset-пагинации).
+     */
+    List<AdvertisementResponseDto> findResponses(Specification<Advertisement> specification, Sort sort, int limit);
+
+    /**
+     * Все строки списка в заданном порядке потоком: драйвер читает их порциями по {@code fetchSize}
+     * через серверный курсор, поэтому память не зависит от размера выборки. Требует открытой
+     * транзакции на все время чтения; поток нужно закрыть.
+     */
+    Stream<AdvertisementResponseDto> streamResponses(Specification<Advertisement> specification, Sort sort, int fetchSize);
+
+    /**
+     * Первые {@code limit} кандидатов для ранжирования по релевантности: с ключевым словом — по убыванию
+     * ранга полнотекстового поиска (совпадения находит GIN-индекс, ранг считается только для них),
+     * без него — самые свежие. Спецификация не должна задавать сортировку.
+     */
+    List<RelevanceCandidate> findRelevanceCandidates(Specification<Advertisement> specification, String keyword, int limit);
+
+    /**
+     * Оценка количества активных объявлений по статистике планировщика PostgreSQL.
+     */
+    long estimateActiveCount();
+
+    /**
+     * Одна сгруппированная агрегация по категории, городу, состоянию и ценовому диапазону
+     * для объявлений, удовлетворяющих спецификации. Спецификация не должна задавать сортировку.
+     */
+    List<AdvertisementFacetCount> aggregateFacets(Specification<Advertisement> specification);
+}
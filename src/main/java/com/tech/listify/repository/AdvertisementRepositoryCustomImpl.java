@@ -0,0 +1,214 @@
+package com.tech.listify.repository;
+
+import com.tech.listify.dto.advertisementdto.AdvertisementResponseDto;
+import com.tech.listify.model.Advertisement;
+import com.tech.listify.model.Category;
+import com.tech.listify.model.City;
+import com.tech.listify.model.enums.AdvertisementCondition;
+import com.tech.listify.repository.function.SearchFunctionContributor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+public class AdvertisementRepositoryCustomImpl implements AdvertisementRepositoryCustom {
+
+    private static final Pattern PLAN_ROWS = Pattern.compile("rows=(\\d+)");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<AdvertisementResponseDto> findResponsePage(Specification<Advertisement> specification, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(selectResponses(specification, pageable.getSort(), 0, -1));
+        }
+        List<AdvertisementResponseDto> content = selectResponses(
+                specification, pageable.getSort(), pageable.getOffset(), pageable.getPageSize());
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(specification));
+    }
+
+    @Override
+    public Slice<AdvertisementResponseDto> findResponseSlice(Specification<Advertisement> specification, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(selectResponses(specification, pageable.getSort(), 0, -1), pageable, false);
+        }
+        List<AdvertisementResponseDto> rows = selectResponses(
+                specification, pageable.getSort(), pageable.getOffset(), pageable.getPageSize() + 1);
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        List<AdvertisementResponseDto> content = hasNext ? rows.subList(0, pageable.getPageSize()) : rows;
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    @Override
+    public List<AdvertisementResponseDto> findResponses(Specification<Advertisement> specification, Sort sort, int limit) {
+        return selectResponses(specification, sort, 0, limit);
+    }
+
+    @Override
+    public Stream<AdvertisementResponseDto> streamResponses(Specification<Advertisement> specification, Sort sort, int fetchSize) {
+        TypedQuery<AdvertisementResponseDto> typedQuery = createResponseQuery(specification, sort);
+        typedQuery.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize);
+        typedQuery.setHint(HibernateHints.HINT_READ_ONLY, true);
+        return typedQuery.getResultStream();
+    }
+
+    @Override
+    public List<RelevanceCandidate> findRelevanceCandidates(Specification<Advertisement> specification, String keyword, int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Advertisement> root = query.from(Advertisement.class);
+        Join<Advertisement, City> city = root.join("city");
+
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        List<Selection<?>> selections = new ArrayList<>(List.of(root.get("id"), root.get("title"), root.get("price"),
+                city.get("id"), city.get("name"), root.get("createdAt"), root.get("previewImageUrl"), root.get("viewCount")));
+        boolean ranked = StringUtils.hasText(keyword);
+        if (ranked) {
+            Expression<Double> rank = criteriaBuilder.function(
+                    SearchFunctionContributor.FULL_TEXT_RANK, Double.class, root.get("id"), criteriaBuilder.literal(keyword.trim()));
+            selections.add(rank);
+            query.orderBy(criteriaBuilder.desc(rank), criteriaBuilder.desc(root.get("createdAt")));
+        } else {
+            query.orderBy(criteriaBuilder.desc(root.get("createdAt")), criteriaBuilder.desc(root.get("id")));
+        }
+        query.multiselect(selections);
+
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList().stream()
+                .map(tuple -> new RelevanceCandidate(
+                        new AdvertisementResponseDto(
+                                tuple.get(0, Long.class),
+                                tuple.get(1, String.class),
+                                tuple.get(2, BigDecimal.class),
+                                tuple.get(3, Integer.class),
+                                tuple.get(4, String.class),
+                                tuple.get(5, OffsetDateTime.class),
+                                tuple.get(6, String.class)),
+                        tuple.get(7, Long.class),
+                        ranked ? tuple.get(8, Double.class) : 0.0))
+                .toList();
+    }
+
+    private List<AdvertisementResponseDto> selectResponses(Specification<Advertisement> specification, Sort sort,
+                                                          long offset, int limit) {
+        TypedQuery<AdvertisementResponseDto> typedQuery = createResponseQuery(specification, sort);
+        typedQuery.setFirstResult((int) offset);
+        if (limit >= 0) {
+            typedQuery.setMaxResults(limit);
+        }
+        return typedQuery.getResultList();
+    }
+
+    /**
+     * Сортировка из {@code sort} применяется, только если она задана: иначе остается порядок,
+     * выставленный спецификацией (релевантность, сходство заголовка).
+     */
+    private TypedQuery<AdvertisementResponseDto> createResponseQuery(Specification<Advertisement> specification, Sort sort) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<AdvertisementResponseDto> query = criteriaBuilder.createQuery(AdvertisementResponseDto.class);
+        Root<Advertisement> root = query.from(Advertisement.class);
+        Join<Advertisement, City> city = root.join("city");
+
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(criteriaBuilder.construct(AdvertisementResponseDto.class,
+                root.get("id"),
+                root.get("title"),
+                root.get("price"),
+                city.get("id"),
+                city.get("name"),
+                root.get("createdAt"),
+                root.get("previewImageUrl")));
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+        }
+        return entityManager.createQuery(query);
+    }
+
+    private long count(Specification<Advertisement> specification) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Advertisement> root = query.from(Advertisement.class);
+
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(criteriaBuilder.count(root));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    @Override
+    public long estimateActiveCount() {
+        String plan = (String) entityManager
+                .createNativeQuery("EXPLAIN SELECT 1 FROM advertisements WHERE status = 'ACTIVE'")
+                .getResultList()
+                .getFirst();
+        Matcher matcher = PLAN_ROWS.matcher(plan);
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : 0L;
+    }
+
+    @Override
+    public List<AdvertisementFacetCount> aggregateFacets(Specification<Advertisement> specification) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Advertisement> root = query.from(Advertisement.class);
+
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        Join<Advertisement, Category> category = root.join("category");
+        Join<Advertisement, City> city = root.join("city");
+        Expression<Integer> priceRange = criteriaBuilder.function(
+                SearchFunctionContributor.PRICE_RANGE, Integer.class, root.get("price"));
+        List<Expression<?>> groupBy = List.of(
+                category.get("id"), category.get("name"), city.get("id"), city.get("name"), root.get("condition"), priceRange);
+
+        query.multiselect(category.get("id"), category.get("name"), city.get("id"), city.get("name"),
+                        root.get("condition"), priceRange, criteriaBuilder.count(root))
+                .groupBy(groupBy);
+
+        return entityManager.createQuery(query).getResultList().stream()
+                .map(tuple -> new AdvertisementFacetCount(
+                        tuple.get(0, Integer.class),
+                        tuple.get(1, String.class),
+                        tuple.get(2, Integer.class),
+                        tuple.get(3, String.class),
+                        tuple.get(4, AdvertisementCondition.class),
+                        tuple.get(5, Integer.class),
+                        tuple.get(6, Long.class)))
+                .toList();
+    }
+}
@@ -2,6 +2,7 @@ package com.tech.listify.repository;
 
 import com.tech.listify.model.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -16,4 +17,24 @@ public interface CategoryRepository extends JpaRepository<Category, Integer> {
 
     @Query("SELECT c FROM Category c LEFT JOIN FETCH c.subCategories WHERE c.id = :id")
     Optional<Category> findByIdWithSubcategories(@Param("id") Integer id);
+
+    @Query(value = "SELECT descendant_id FROM category_closure WHERE ancestor_id = :id", nativeQuery = true)
+    List<Integer> findDescendantIds(@Param("id") Integer id);
+
+    @Query(value = "SELECT ancestor_id FROM category_closure WHERE descendant_id = :id", nativeQuery = true)
+    List<Integer> findAncestorIds(@Param("id") Integer id);
+
+    @Modifying
+    @Query(value = "INSERT INTO category_closure (ancestor_id, descendant_id, depth) VALUES (:id, :id, 0)", nativeQuery = true)
+    void insertSelfClosure(@Param("id") Integer id);
+
+    /**
+     * Делает категорию потомком всех предков родителя (включая самого родителя).
+     * Строки родителя к этому моменту уже должны быть в {@code category_closure}.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO category_closure (ancestor_id, descendant_id, depth)
+            SELECT ancestor_id, :id, depth + 1 FROM category_closure WHERE descendant_id = :parentId""", nativeQuery = true)
+    void insertAncestorClosure(@Param("id") Integer id, @Param("parentId") Integer parentId);
 }
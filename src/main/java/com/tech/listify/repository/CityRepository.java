@@ -12,5 +12,6 @@ public interface CityRepository extends JpaRepository<City, Integer> {
 
     List<City> findByDistrictId(Integer districtId);
 
+    List<City> findByLatitudeIsNotNullAndLongitudeIsNotNull();
 
 }
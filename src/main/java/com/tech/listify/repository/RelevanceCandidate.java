@@ -0,0 +1,10 @@
+package com.tech.listify.repository;
+
+import com.tech.listify.dto.advertisementdto.AdvertisementResponseDto;
+
+/**
+ * Кандидат для ранжирования по релевантности: строка списка, сохраненный счетчик просмотров
+ * и ранг полнотекстового поиска ({@code 0}, если поиск без ключевого слова).
+ */
+public record RelevanceCandidate(AdvertisementResponseDto advertisement, long viewCount, double textRank) {
+}
@@ -0,0 +1,25 @@
+package com.tech.listify.repository;
+
+import com.tech.listify.dto.savedsearchdto.SavedSearchNotificationDto;
+import com.tech.listify.model.SavedSearchNotification;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SavedSearchNotificationRepository extends JpaRepository<SavedSearchNotification, Long> {
+
+    @Query(value = """
+            SELECT new com.tech.listify.dto.savedsearchdto.SavedSearchNotificationDto(
+                n.id, s.id, s.name, a.id, a.title, a.price, a.previewImageUrl, n.createdAt)
+            FROM SavedSearchNotification n
+            JOIN n.savedSearch s
+            JOIN n.advertisement a
+            WHERE s.user.id = :userId
+            ORDER BY n.createdAt DESC, n.id DESC""",
+            countQuery = "SELECT count(n) FROM SavedSearchNotification n WHERE n.savedSearch.user.id = :userId")
+    Page<SavedSearchNotificationDto> findByUserId(@Param("userId") Long userId, Pageable pageable);
+}
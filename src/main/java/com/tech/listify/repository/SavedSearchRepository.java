@@ -0,0 +1,25 @@
+package com.tech.listify.repository;
+
+import com.tech.listify.model.SavedSearch;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SavedSearchRepository extends JpaRepository<SavedSearch, Long> {
+
+    List<SavedSearch> findByUserIdOrderByCreatedAtDesc(Long userId);
+
+    long countByUserId(Long userId);
+
+    /**
+     * Пачка сохраненных поисков по возрастанию ID для загрузки индекса. Пользователи не загружаются:
+     * ID владельца берется из прокси.
+     */
+    @Query("SELECT s FROM SavedSearch s WHERE s.id > :afterId ORDER BY s.id")
+    List<SavedSearch> findBatchAfterId(@Param("afterId") long afterId, Limit limit);
+}
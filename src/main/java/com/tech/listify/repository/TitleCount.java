@@ -0,0 +1,7 @@
+package com.tech.listify.repository;
+
+/**
+ * Заголовок объявления и количество объявлений с таким заголовком.
+ */
+public record TitleCount(String title, long count) {
+}
@@ -0,0 +1,70 @@
+package com.tech.listify.repository.function;
+
+import org.hibernate.metamodel.model.domain.ReturnableType;
+import org.hibernate.query.sqm.function.AbstractSqmSelfRenderingFunctionDescriptor;
+import org.hibernate.query.sqm.produce.function.StandardArgumentsValidators;
+import org.hibernate.query.sqm.produce.function.StandardFunctionArgumentTypeResolvers;
+import org.hibernate.query.sqm.produce.function.StandardFunctionReturnTypeResolvers;
+import org.hibernate.sql.ast.SqlAstTranslator;
+import org.hibernate.sql.ast.spi.SqlAppender;
+import org.hibernate.sql.ast.tree.SqlAstNode;
+import org.hibernate.sql.ast.tree.expression.ColumnReference;
+import org.hibernate.sql.ast.tree.expression.Expression;
+import org.hibernate.type.BasicType;
+
+import java.util.List;
+
+/**
+ * Функция полнотекстового поиска по колонке {@code advertisements.search_vector}.
+ * <p>
+ * Колонка генерируется в БД и не маппится на сущность, поэтому первым аргументом функция
+ * принимает любой столбец объявления (обычно {@code id}) и берет из него алиас таблицы.
+ * Вторым аргументом передается поисковая строка пользователя.
+ */
+class FullTextSearchFunction extends AbstractSqmSelfRenderingFunctionDescriptor {
+
+    private static final String SEARCH_VECTOR_COLUMN = "search_vector";
+    private static final String TS_QUERY = "plainto_tsquery('russian', ";
+
+    enum Mode {
+        /** {@code search_vector @@ plainto_tsquery(...)} — использует GIN-индекс. */
+        MATCH,
+        /** {@code ts_rank_cd(search_vector, plainto_tsquery(...))} — релевантность совпадения. */
+        RANK
+    }
+
+    private final Mode mode;
+
+    FullTextSearchFunction(String name, Mode mode, BasicType<?> returnType) {
+        super(name,
+                StandardArgumentsValidators.exactly(2),
+                StandardFunctionReturnTypeResolvers.invariant(returnType),
+                StandardFunctionArgumentTypeResolvers.NULL);
+        this.mode = mode;
+    }
+
+    @Override
+    public void render(SqlAppender sqlAppender, List<? extends SqlAstNode> arguments,
+                       ReturnableType<?> returnType, SqlAstTranslator<?> walker) {
+        String searchVector = resolveSearchVector(arguments.get(0));
+        if (mode == Mode.MATCH) {
+            sqlAppender.appendSql("(" + searchVector + " @@ " + TS_QUERY);
+            arguments.get(1).accept(walker);
+            sqlAppender.appendSql("))");
+        } else {
+            sqlAppender.appendSql("ts_rank_cd(" + searchVector + ", " + TS_QUERY);
+            arguments.get(1).accept(walker);
+            sqlAppender.appendSql("))");
+        }
+    }
+
+    private String resolveSearchVector(SqlAstNode anchor) {
+        if (anchor instanceof Expression expression) {
+            ColumnReference columnReference = expression.getColumnReference();
+            if (columnReference != null && columnReference.getQualifier() != null) {
+                return columnReference.getQualifier() + "." + SEARCH_VECTOR_COLUMN;
+            }
+        }
+        throw new IllegalArgumentException("Первым аргументом функции " + getName() + " должен быть столбец объявления");
+    }
+}
@@ -0,0 +1,63 @@
+package com.tech.listify.repository.function;
+
+import com.tech.listify.model.enums.PriceRange;
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.query.sqm.function.SqmFunctionRegistry;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Регистрирует в Hibernate SQL-функции PostgreSQL, которые используются в спецификациях поиска.
+ * Подключается через {@code META-INF/services/org.hibernate.boot.model.FunctionContributor}.
+ */
+public class SearchFunctionContributor implements FunctionContributor {
+
+    public static final String FULL_TEXT_MATCH = "fts_match";
+    public static final String FULL_TEXT_RANK = "fts_rank";
+    public static final String TRIGRAM_MATCH = "trgm_word_match";
+    public static final String TRIGRAM_SIMILARITY = "trgm_word_similarity";
+    public static final String PRICE_RANGE = "price_range";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        SqmFunctionRegistry registry = functionContributions.getFunctionRegistry();
+        BasicTypeRegistry types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+
+        registry.register(FULL_TEXT_MATCH, new FullTextSearchFunction(FULL_TEXT_MATCH,
+                FullTextSearchFunction.Mode.MATCH, types.resolve(StandardBasicTypes.BOOLEAN)));
+        registry.register(FULL_TEXT_RANK, new FullTextSearchFunction(FULL_TEXT_RANK,
+                FullTextSearchFunction.Mode.RANK, types.resolve(StandardBasicTypes.DOUBLE)));
+
+        // pg_trgm: (текст, запрос). Оператор <% использует GIN-индекс по lower(title) gin_trgm_ops
+        // и порог pg_trgm.word_similarity_threshold текущей транзакции.
+        registry.patternDescriptorBuilder(TRIGRAM_MATCH, "(?2 <% ?1)")
+                .setExactArgumentCount(2)
+                .setInvariantType(types.resolve(StandardBasicTypes.BOOLEAN))
+                .register();
+        registry.patternDescriptorBuilder(TRIGRAM_SIMILARITY, "word_similarity(?2, ?1)")
+                .setExactArgumentCount(2)
+                .setInvariantType(types.resolve(StandardBasicTypes.DOUBLE))
+                .register();
+
+        // Номер ценового диапазона (ordinal PriceRange). Границы встраиваются в SQL константами,
+        // поэтому выражение одинаково в SELECT и GROUP BY.
+        registry.patternDescriptorBuilder(PRICE_RANGE, "width_bucket(?1, ARRAY[" + priceRangeThresholds() + "]::numeric[])")
+                .setExactArgumentCount(1)
+                .setInvariantType(types.resolve(StandardBasicTypes.INTEGER))
+                .register();
+    }
+
+    private static String priceRangeThresholds() {
+        return Arrays.stream(PriceRange.values())
+                .map(PriceRange::getMinPrice)
+                .filter(Objects::nonNull)
+                .map(BigDecimal::toPlainString)
+                .collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,39 @@
+package com.tech.listify.repository.specification;
+
+import com.tech.listify.exception.InvalidRequestParameterException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Позиция в ленте объявлений, отсортированной по {@code (created_at DESC, id DESC)}.
+ * Клиенту передается в виде непрозрачной base64url-строки.
+ */
+public record AdvertisementCursor(OffsetDateTime createdAt, Long id) {
+
+    private static final String SEPARATOR = ":";
+
+    public String encode() {
+        Instant instant = createdAt.toInstant();
+        String raw = instant.getEpochSecond() + SEPARATOR + instant.getNano() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static AdvertisementCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Unexpected cursor format: " + raw);
+            }
+            Instant instant = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new AdvertisementCursor(instant.atOffset(ZoneOffset.UTC), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new InvalidRequestParameterException("Некорректный курсор пагинации: " + cursor);
+        }
+    }
+}
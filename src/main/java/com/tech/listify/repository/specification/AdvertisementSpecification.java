@@ -5,13 +5,22 @@ import com.tech.listify.dto.advertisementdto.AdvertisementSearchCriteriaDto;
 import com.tech.listify.model.*;
 import com.tech.listify.model.enums.AdvertisementCondition;
 import com.tech.listify.model.enums.AdvertisementStatus;
+import com.tech.listify.repository.function.SearchFunctionContributor;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 
 public class AdvertisementSpecification {
 
@@ -25,16 +34,28 @@ public class AdvertisementSpecification {
      * @return Скомбинированная спецификация.
      */
     public static Specification<Advertisement> fromCriteria(AdvertisementSearchCriteriaDto criteria) {
+        return fromCriteria(criteria, criteria != null && criteria.categoryId() != null ? Set.of(criteria.categoryId()) : Set.of());
+    }
+
+    /**
+     * Создает спецификацию на основе переданных критериев, заменяя фильтр по {@code categoryId}
+     * фильтром по всему поддереву категории.
+     *
+     * @param criteria    DTO с критериями поиска.
+     * @param categoryIds ID выбранной категории и всех ее потомков.
+     * @return Скомбинированная спецификация.
+     */
+    public static Specification<Advertisement> fromCriteria(AdvertisementSearchCriteriaDto criteria, Collection<Integer> categoryIds) {
         Specification<Advertisement> spec = Specification.where(isActive());
 
         if (criteria == null) {
             return spec;
         }
         if (StringUtils.hasText(criteria.keyword())) {
-            spec = spec.and(hasKeyword(criteria.keyword()));
+            spec = spec.and(criteria.isFuzzy() ? hasSimilarTitle(criteria.keyword()) : hasKeyword(criteria.keyword()));
         }
         if (criteria.categoryId() != null) {
-            spec = spec.and(inCategory(criteria.categoryId()));
+            spec = spec.and(inCategories(categoryIds));
         }
         if (criteria.cityId() != null) {
             spec = spec.and(inCity(criteria.cityId()));
@@ -65,15 +86,72 @@ public class AdvertisementSpecification {
                 criteriaBuilder.equal(root.get("status"), AdvertisementStatus.ACTIVE);
     }
 
+    /**
+     * Полнотекстовый поиск по сгенерированной колонке {@code search_vector} (GIN-индекс,
+     * русская конфигурация). Заменяет прежний {@code LIKE '%kw%'}, который приводил к полному
+     * сканированию таблицы.
+     */
     public static Specification<Advertisement> hasKeyword(String keyword) {
         return (root, query, criteriaBuilder) -> {
             if (!StringUtils.hasText(keyword)) {
                 return criteriaBuilder.conjunction();
             }
-            String likePattern = "%" + keyword.toLowerCase() + "%";
-            Predicate titleLike = criteriaBuilder.like(criteriaBuilder.lower(root.get("title")), likePattern);
-            Predicate descriptionLike = criteriaBuilder.like(criteriaBuilder.lower(root.get("description")), likePattern);
-            return criteriaBuilder.or(titleLike, descriptionLike);
+            return criteriaBuilder.isTrue(criteriaBuilder.function(
+                    SearchFunctionContributor.FULL_TEXT_MATCH, Boolean.class, root.get("id"), criteriaBuilder.literal(keyword.trim())));
+        };
+    }
+
+    /**
+     * Сортирует результаты по релевантности полнотекстового совпадения ({@code ts_rank_cd}),
+     * при равной релевантности — по дате создания. В count-запрос сортировка не добавляется.
+     */
+    public static Specification<Advertisement> orderByTextRank(String keyword) {
+        return (root, query, criteriaBuilder) -> {
+            if (!StringUtils.hasText(keyword) || isCountQuery(query)) {
+                return criteriaBuilder.conjunction();
+            }
+            Expression<Double> rank = criteriaBuilder.function(
+                    SearchFunctionContributor.FULL_TEXT_RANK, Double.class, root.get("id"), criteriaBuilder.literal(keyword.trim()));
+            query.orderBy(criteriaBuilder.desc(rank), criteriaBuilder.desc(root.get("createdAt")));
+            return criteriaBuilder.conjunction();
+        };
+    }
+
+    /**
+     * Нечеткий поиск по заголовку (pg_trgm, word similarity): находит заголовки с опечатками
+     * и запросы, набранные в английской раскладке.
+     */
+    public static Specification<Advertisement> hasSimilarTitle(String keyword) {
+        return (root, query, criteriaBuilder) -> {
+            if (!StringUtils.hasText(keyword)) {
+                return criteriaBuilder.conjunction();
+            }
+            Expression<String> title = criteriaBuilder.lower(root.get("title"));
+            return criteriaBuilder.or(fuzzyVariants(keyword).stream()
+                    .map(variant -> criteriaBuilder.isTrue(criteriaBuilder.function(
+                            SearchFunctionContributor.TRIGRAM_MATCH, Boolean.class, title, criteriaBuilder.literal(variant))))
+                    .toArray(Predicate[]::new));
+        };
+    }
+
+    /**
+     * Сортирует результаты нечеткого поиска по степени сходства заголовка с запросом.
+     */
+    public static Specification<Advertisement> orderByTitleSimilarity(String keyword) {
+        return (root, query, criteriaBuilder) -> {
+            if (!StringUtils.hasText(keyword) || isCountQuery(query)) {
+                return criteriaBuilder.conjunction();
+            }
+            Expression<String> title = criteriaBuilder.lower(root.get("title"));
+            List<Expression<Double>> similarities = fuzzyVariants(keyword).stream()
+                    .map(variant -> criteriaBuilder.function(
+                            SearchFunctionContributor.TRIGRAM_SIMILARITY, Double.class, title, criteriaBuilder.literal(variant)))
+                    .toList();
+            Expression<Double> similarity = similarities.size() == 1
+                    ? similarities.getFirst()
+                    : criteriaBuilder.function("greatest", Double.class, similarities.toArray(Expression[]::new));
+            query.orderBy(criteriaBuilder.desc(similarity), criteriaBuilder.desc(root.get("createdAt")));
+            return criteriaBuilder.conjunction();
         };
     }
 
@@ -85,34 +163,76 @@ public class AdvertisementSpecification {
         };
     }
 
+    /**
+     * Фильтр по набору категорий через {@code category_id IN (...)} без соединения с {@code categories}.
+     */
+    public static Specification<Advertisement> inCategories(Collection<Integer> categoryIds) {
+        return (root, query, criteriaBuilder) -> {
+            if (categoryIds == null || categoryIds.isEmpty()) return criteriaBuilder.conjunction();
+            return root.get("category").get("id").in(categoryIds);
+        };
+    }
+
     public static Specification<Advertisement> inCity(Integer cityId) {
         return (root, query, criteriaBuilder) -> {
             if (cityId == null) return criteriaBuilder.conjunction();
-            Join<Advertisement, City> cityJoin = root.join("city", JoinType.INNER);
-            return criteriaBuilder.equal(cityJoin.get("id"), cityId);
+            return criteriaBuilder.equal(root.get("city").get("id"), cityId);
+        };
+    }
+
+    /**
+     * Фильтр по набору городов через {@code city_id IN (...)}. В отличие от {@link #inCategories},
+     * пустой набор означает, что подходящих городов нет, и не пропускает ни одной строки.
+     */
+    public static Specification<Advertisement> inCities(Collection<Integer> cityIds) {
+        return (root, query, criteriaBuilder) -> {
+            if (cityIds.isEmpty()) {
+                return criteriaBuilder.disjunction();
+            }
+            return root.get("city").get("id").in(cityIds);
         };
     }
 
+    /**
+     * Сортирует результаты по удаленности города: {@code cityIdsByDistance} перечисляет города
+     * от ближнего к дальнему. Внутри одного города — по дате создания. В count-запрос
+     * сортировка не добавляется.
+     */
+    public static Specification<Advertisement> orderByCityDistance(List<Integer> cityIdsByDistance) {
+        return (root, query, criteriaBuilder) -> {
+            if (cityIdsByDistance.isEmpty() || isCountQuery(query)) {
+                return criteriaBuilder.conjunction();
+            }
+            CriteriaBuilder.SimpleCase<Integer, Integer> rank = criteriaBuilder.selectCase(root.get("city").<Integer>get("id"));
+            for (int i = 0; i < cityIdsByDistance.size(); i++) {
+                rank = rank.when(cityIdsByDistance.get(i), i);
+            }
+            query.orderBy(criteriaBuilder.asc(rank.otherwise(cityIdsByDistance.size())), criteriaBuilder.desc(root.get("createdAt")));
+            return criteriaBuilder.conjunction();
+        };
+    }
+
+    /**
+     * Фильтр по денормализованной колонке {@code region_id} без соединения с городами и районами.
+     */
     public static Specification<Advertisement> inRegion(Integer regionId) {
         return (root, query, criteriaBuilder) -> {
             if (regionId == null) {
                 return criteriaBuilder.conjunction();
             }
-            Join<Advertisement, City> cityJoin = root.join("city", JoinType.INNER);
-            Join<City, District> districtJoin = cityJoin.join("district", JoinType.INNER);
-            Join<District, Region> regionJoin = districtJoin.join("region", JoinType.INNER);
-            return criteriaBuilder.equal(regionJoin.get("id"), regionId);
+            return criteriaBuilder.equal(root.get("regionId"), regionId);
         };
     }
 
+    /**
+     * Фильтр по денормализованной колонке {@code district_id} без соединения с городами.
+     */
     public static Specification<Advertisement> inDistrict(Integer districtId) {
         return (root, query, criteriaBuilder) -> {
             if (districtId == null) {
                 return criteriaBuilder.conjunction();
             }
-            Join<Advertisement, City> cityJoin = root.join("city", JoinType.INNER);
-            Join<City, District> districtJoin = cityJoin.join("district", JoinType.INNER);
-            return criteriaBuilder.equal(districtJoin.get("id"), districtId);
+            return criteriaBuilder.equal(root.get("districtId"), districtId);
         };
     }
 
@@ -137,11 +257,40 @@ public class AdvertisementSpecification {
         };
     }
 
+    /**
+     * Keyset-условие «после курсора» для сортировки {@code (created_at DESC, id DESC)}.
+     * Избыточное {@code created_at <= ?} дает планировщику диапазон по индексу
+     * {@code (status, created_at DESC, id DESC)}.
+     */
+    public static Specification<Advertisement> after(AdvertisementCursor cursor) {
+        return (root, query, criteriaBuilder) -> {
+            if (cursor == null) return criteriaBuilder.conjunction();
+            Path<OffsetDateTime> createdAt = root.get("createdAt");
+            return criteriaBuilder.and(
+                    criteriaBuilder.lessThanOrEqualTo(createdAt, cursor.createdAt()),
+                    criteriaBuilder.or(
+                            criteriaBuilder.lessThan(createdAt, cursor.createdAt()),
+                            criteriaBuilder.lessThan(root.get("id"), cursor.id())));
+        };
+    }
+
+    /**
+     * Фильтр по внешнему ключу {@code seller_id} без соединения с таблицей пользователей.
+     */
     public static Specification<Advertisement> bySeller(Long sellerId) {
         return (root, query, criteriaBuilder) -> {
             if (sellerId == null) return criteriaBuilder.conjunction();
-            Join<Advertisement, User> sellerJoin = root.join("seller", JoinType.INNER);
-            return criteriaBuilder.equal(sellerJoin.get("id"), sellerId);
+            return criteriaBuilder.equal(root.get("seller").get("id"), sellerId);
         };
     }
+
+    private static List<String> fuzzyVariants(String keyword) {
+        String normalized = keyword.trim().toLowerCase();
+        String cyrillic = KeyboardLayout.latinToCyrillic(normalized);
+        return cyrillic.equals(normalized) ? List.of(normalized) : List.of(normalized, cyrillic);
+    }
+
+    private static boolean isCountQuery(CriteriaQuery<?> query) {
+        return Long.class.equals(query.getResultType()) || long.class.equals(query.getResultType());
+    }
 }
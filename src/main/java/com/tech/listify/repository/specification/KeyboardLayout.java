@@ -0,0 +1,25 @@
+package com.tech.listify.repository.specification;
+
+/**
+ * Перевод строки, набранной в английской раскладке, в русскую ("yjen,er" -> "ноутбук").
+ */
+final class KeyboardLayout {
+
+    private static final String LATIN = "qwertyuiop[]asdfghjkl;'zxcvbnm,.`";
+    private static final String CYRILLIC = "йцукенгшщзхъфывапролджэячсмитьбюё";
+
+    private KeyboardLayout() {
+    }
+
+    /**
+     * @return строка в русской раскладке или исходная строка, если в ней нет латинских символов.
+     */
+    static String latinToCyrillic(String text) {
+        StringBuilder result = new StringBuilder(text.length());
+        for (char c : text.toCharArray()) {
+            int index = LATIN.indexOf(Character.toLowerCase(c));
+            result.append(index >= 0 ? CYRILLIC.charAt(index) : c);
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,189 @@
+package com.tech.listify.search;
+
+import com.tech.listify.event.AdvertisementChangedEvent;
+import com.tech.listify.event.AdvertisementSnapshot;
+import com.tech.listify.model.Advertisement;
+import com.tech.listify.model.enums.AdvertisementStatus;
+import com.tech.listify.repository.AdvertisementRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Поддерживает {@link AdvertisementSearchIndex} в актуальном состоянии: применяет изменения объявлений
+ * после коммита транзакции и перестраивает индекс из БД (при старте с пустым индексом и по запросу администратора).
+ * <p>
+ * События изменений приходят только на узел, который записал объявление, поэтому каждый узел еще и
+ * периодически догружает объявления, измененные в БД ({@code updated_at}) с прошлой сверки, а реже —
+ * удаляет из индекса ID, которых больше нет среди активных объявлений (удаленные объявления не
+ * оставляют {@code updated_at}). Так индексы узлов сходятся, даже если узел был остановлен.
+ */
+@Component
+@ConditionalOnProperty(name = "app.search.backend", havingValue = "lucene")
+@Slf4j
+public class AdvertisementIndexSynchronizer {
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+    private static final int SWEEP_BATCH_SIZE = 1000;
+
+    private final AdvertisementSearchIndex searchIndex;
+    private final AdvertisementRepository advertisementRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Duration catchUpOverlap;
+
+    public AdvertisementIndexSynchronizer(AdvertisementSearchIndex searchIndex,
+                                          AdvertisementRepository advertisementRepository,
+                                          PlatformTransactionManager transactionManager,
+                                          @Value("${app.search.lucene.catch-up-overlap:2m}") Duration catchUpOverlap) {
+        this.searchIndex = searchIndex;
+        this.advertisementRepository = advertisementRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.catchUpOverlap = catchUpOverlap;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onAdvertisementChanged(AdvertisementChangedEvent event) {
+        try {
+            if (event.type() == AdvertisementChangedEvent.Type.DELETED) {
+                searchIndex.delete(event.advertisementId());
+            } else {
+                searchIndex.index(event.after());
+            }
+            log.debug("Search index updated for advertisement ID {} ({})", event.advertisementId(), event.type());
+        } catch (IOException e) {
+            log.error("Failed to update search index for advertisement ID {}", event.advertisementId(), e);
+        }
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (searchIndex.numDocs() == 0) {
+            log.info("Search index is empty, rebuilding from database");
+            rebuild();
+        }
+    }
+
+    /**
+     * Перестраивает индекс из БД пачками по {@value #REBUILD_BATCH_SIZE} объявлений, каждая пачка читается
+     * в отдельной read-only транзакции.
+     *
+     * @return количество проиндексированных объявлений.
+     */
+    public long rebuild() {
+        long startTime = System.currentTimeMillis();
+        try {
+            long indexed = searchIndex.rebuild(afterId -> readOnlyTransaction.execute(status -> loadBatch(afterId)));
+            searchIndex.setCaughtUpTo(Instant.ofEpochMilli(startTime));
+            log.info("Search index rebuilt: {} advertisements in {} ms", indexed, System.currentTimeMillis() - startTime);
+            return indexed;
+        } catch (IOException e) {
+            log.error("Failed to rebuild search index", e);
+            throw new IllegalStateException("Не удалось перестроить поисковый индекс", e);
+        }
+    }
+
+    /**
+     * Применяет к индексу объявления, измененные с прошлой сверки. Изменения ищутся с запасом
+     * {@code catch-up-overlap} назад: он покрывает расхождение часов узлов и транзакции, закоммиченные
+     * позже, чем проставлен их {@code updated_at}; повторная индексация объявления ничего не меняет.
+     * Если момент прошлой сверки неизвестен, догружаются все объявления.
+     */
+    @Scheduled(initialDelayString = "${app.search.lucene.catch-up-interval:30s}",
+            fixedDelayString = "${app.search.lucene.catch-up-interval:30s}")
+    public void catchUp() {
+        if (!searchIndex.isReady()) {
+            return;
+        }
+        Instant startedAt = Instant.now();
+        Instant caughtUpTo = searchIndex.getCaughtUpTo();
+        OffsetDateTime from = OffsetDateTime.ofInstant(caughtUpTo != null ? caughtUpTo.minus(catchUpOverlap) : Instant.EPOCH, ZoneOffset.UTC);
+        try {
+            long applied = 0;
+            OffsetDateTime since = from;
+            long afterId = 0;
+            List<ChangedAdvertisement> batch;
+            do {
+                OffsetDateTime batchSince = since;
+                long batchAfterId = afterId;
+                batch = readOnlyTransaction.execute(status -> advertisementRepository
+                        .findBatchWithCityUpdatedAfter(batchSince, batchAfterId, Limit.of(REBUILD_BATCH_SIZE)).stream()
+                        .map(ad -> new ChangedAdvertisement(AdvertisementSnapshot.of(ad), ad.getUpdatedAt()))
+                        .toList());
+                for (ChangedAdvertisement changed : batch) {
+                    searchIndex.index(changed.snapshot());
+                }
+                applied += batch.size();
+                if (!batch.isEmpty()) {
+                    since = batch.getLast().updatedAt();
+                    afterId = batch.getLast().snapshot().id();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+            searchIndex.setCaughtUpTo(startedAt);
+            log.debug("Search index caught up with {} advertisements changed since {}", applied, from);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to catch up search index with database changes", e);
+        }
+    }
+
+    /**
+     * Удаляет из индекса объявления, которых нет среди активных в БД: удаления на других узлах не видны
+     * {@link #catchUp()}.
+     */
+    @Scheduled(initialDelayString = "${app.search.lucene.sweep-interval:10m}",
+            fixedDelayString = "${app.search.lucene.sweep-interval:10m}")
+    public void removeDeleted() {
+        if (!searchIndex.isReady()) {
+            return;
+        }
+        long[] ids = searchIndex.ids();
+        int removed = 0;
+        try {
+            for (int from = 0; from < ids.length; from += SWEEP_BATCH_SIZE) {
+                List<Long> batch = Arrays.stream(ids, from, Math.min(from + SWEEP_BATCH_SIZE, ids.length)).boxed().toList();
+                Set<Long> active = new HashSet<>(advertisementRepository.findIdsByIdInAndStatus(batch, AdvertisementStatus.ACTIVE));
+                for (Long id : batch) {
+                    if (!active.contains(id)) {
+                        searchIndex.delete(id);
+                        removed++;
+                    }
+                }
+            }
+            if (removed > 0) {
+                log.info("Removed {} advertisements missing from the database from search index", removed);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to remove deleted advertisements from search index", e);
+        }
+    }
+
+    private List<AdvertisementSnapshot> loadBatch(long afterId) {
+        List<Advertisement> batch = advertisementRepository.findBatchWithCityByStatusAfterId(
+                AdvertisementStatus.ACTIVE, afterId, Limit.of(REBUILD_BATCH_SIZE));
+        return batch.stream().map(AdvertisementSnapshot::of).toList();
+    }
+
+    private record ChangedAdvertisement(AdvertisementSnapshot snapshot, OffsetDateTime updatedAt) {
+    }
+}
@@ -0,0 +1,451 @@
+package com.tech.listify.search;
+
+import com.tech.listify.dto.PageResponseDto;
+import com.tech.listify.dto.advertisementdto.AdvertisementResponseDto;
+import com.tech.listify.dto.advertisementdto.AdvertisementSearchCriteriaDto;
+import com.tech.listify.event.AdvertisementSnapshot;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.ru.RussianAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.IntField;
+import org.apache.lucene.document.LongField;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.SortedNumericSortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.MMapDirectory;
+import org.apache.lucene.util.Bits;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongFunction;
+
+/**
+ * Встроенный полнотекстовый индекс активных объявлений на Lucene ({@link MMapDirectory}, русский анализатор).
+ * <p>
+ * Индекс хранит все поля, нужные для {@link AdvertisementResponseDto}, поэтому поиск по нему не обращается к БД.
+ * Изменения попадают в индекс через {@link AdvertisementIndexSynchronizer} и становятся видны поиску
+ * после периодического near-real-time обновления {@link SearcherManager}. Включается {@code app.search.backend=lucene}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.search.backend", havingValue = "lucene")
+@Slf4j
+public class AdvertisementSearchIndex {
+
+    static final String ID = "id";
+    static final String ID_ORDER = "id_order";
+    static final String TITLE = "title";
+    static final String DESCRIPTION = "description";
+    static final String PRICE = "price";
+    static final String PRICE_VALUE = "price_value";
+    static final String CATEGORY = "category_id";
+    static final String CITY = "city_id";
+    static final String CITY_NAME = "city_name";
+    static final String DISTRICT = "district_id";
+    static final String REGION = "region_id";
+    static final String SELLER = "seller_id";
+    static final String CONDITION = "condition";
+    static final String CREATED_AT = "created_at";
+    static final String CREATED_AT_VALUE = "created_at_value";
+    static final String PREVIEW_IMAGE_URL = "preview_image_url";
+
+    /**
+     * Ключ данных коммита: момент, до которого индекс сверен с БД ({@link #setCaughtUpTo(Instant)}).
+     */
+    private static final String CAUGHT_UP_TO = "caught_up_to";
+    private static final String RELEVANCE_SORT = "relevance";
+    private static final Set<String> SORT_PROPERTIES = Set.of(RELEVANCE_SORT, "createdAt", "price");
+    private static final float TITLE_BOOST = 2.0f;
+
+    private final Analyzer analyzer;
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    private volatile boolean rebuilding;
+    private volatile boolean ready;
+
+    public AdvertisementSearchIndex(@Value("${app.search.lucene.path:./search-index}") Path indexPath) throws IOException {
+        Files.createDirectories(indexPath);
+        this.analyzer = new RussianAnalyzer();
+        this.directory = new MMapDirectory(indexPath);
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        this.searcherManager = new SearcherManager(writer, null);
+        this.ready = writer.getDocStats().numDocs > 0;
+        log.info("Opened Lucene search index at {} with {} documents", indexPath.toAbsolutePath(), writer.getDocStats().numDocs);
+    }
+
+    /**
+     * Индекс готов обслуживать поиск: он либо открыт непустым, либо успешно перестроен.
+     */
+    public boolean isReady() {
+        return ready && !rebuilding;
+    }
+
+    public int numDocs() {
+        return writer.getDocStats().numDocs;
+    }
+
+    /**
+     * Добавляет или заменяет документ объявления. Неактивные объявления из индекса удаляются.
+     */
+    public void index(AdvertisementSnapshot snapshot) throws IOException {
+        if (!snapshot.isActive()) {
+            delete(snapshot.id());
+            return;
+        }
+        writer.updateDocument(idTerm(snapshot.id()), toDocument(snapshot));
+    }
+
+    public void delete(Long advertisementId) throws IOException {
+        writer.deleteDocuments(idTerm(advertisementId));
+    }
+
+    /**
+     * Момент, до которого изменения объявлений в БД уже применены к индексу, или {@code null}, если
+     * он неизвестен. Хранится в данных коммита Lucene, поэтому переживает перезапуск.
+     */
+    public Instant getCaughtUpTo() {
+        for (Map.Entry<String, String> entry : writer.getLiveCommitData()) {
+            if (CAUGHT_UP_TO.equals(entry.getKey())) {
+                return Instant.parse(entry.getValue());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Сохраняется со следующим коммитом индекса.
+     */
+    public void setCaughtUpTo(Instant caughtUpTo) {
+        writer.setLiveCommitData(Map.of(CAUGHT_UP_TO, caughtUpTo.toString()).entrySet());
+    }
+
+    /**
+     * ID всех объявлений в индексе по возрастанию, по последнему обновленному {@link SearcherManager}.
+     */
+    public long[] ids() {
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                long[] ids = new long[searcher.getIndexReader().numDocs()];
+                int count = 0;
+                for (LeafReaderContext leaf : searcher.getIndexReader().leaves()) {
+                    Bits liveDocs = leaf.reader().getLiveDocs();
+                    NumericDocValues values = DocValues.getNumeric(leaf.reader(), ID_ORDER);
+                    for (int doc = values.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS && count < ids.length; doc = values.nextDoc()) {
+                        if (liveDocs == null || liveDocs.get(doc)) {
+                            ids[count++] = values.longValue();
+                        }
+                    }
+                }
+                long[] result = Arrays.copyOf(ids, count);
+                Arrays.sort(result);
+                return result;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ошибка чтения ID из индекса объявлений", e);
+        }
+    }
+
+    /**
+     * Полностью перестраивает индекс. Пока идет перестройка, поиск не видит промежуточное состояние
+     * и обслуживается из БД ({@link #isReady()} возвращает {@code false}).
+     *
+     * @param nextBatch возвращает следующую пачку активных объявлений с ID больше переданного,
+     *                  пустой список означает конец выборки.
+     * @return количество проиндексированных объявлений.
+     */
+    public synchronized long rebuild(LongFunction<List<AdvertisementSnapshot>> nextBatch) throws IOException {
+        rebuilding = true;
+        ready = false;
+        try {
+            writer.deleteAll();
+            long indexed = 0;
+            long lastId = 0;
+            List<AdvertisementSnapshot> batch;
+            while (!(batch = nextBatch.apply(lastId)).isEmpty()) {
+                for (AdvertisementSnapshot snapshot : batch) {
+                    writer.updateDocument(idTerm(snapshot.id()), toDocument(snapshot));
+                }
+                indexed += batch.size();
+                lastId = batch.getLast().id();
+            }
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+            ready = true;
+            return indexed;
+        } finally {
+            rebuilding = false;
+        }
+    }
+
+    /**
+     * Индекс умеет сортировать только по {@code createdAt}, {@code price} и {@code relevance}; с другими
+     * свойствами поиск должен идти в БД, иначе порядок выдачи зависел бы от {@code app.search.backend}.
+     */
+    public boolean supportsSort(org.springframework.data.domain.Sort sort) {
+        return sort.stream().allMatch(order -> SORT_PROPERTIES.contains(order.getProperty()));
+    }
+
+    /**
+     * Страница за пределами индекса возвращается пустой без поиска: смещение может не помещаться в {@code int}.
+     */
+    public PageResponseDto<AdvertisementResponseDto> search(AdvertisementSearchCriteriaDto criteria,
+                                                           Collection<Integer> categoryIds,
+                                                           Pageable pageable) {
+        Query query = toQuery(criteria, categoryIds);
+        boolean hasKeyword = criteria != null && StringUtils.hasText(criteria.keyword());
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                int numDocs = searcher.getIndexReader().numDocs();
+                if (pageable.getOffset() >= numDocs) {
+                    return PageResponseDto.fromPage(new PageImpl<>(List.of(), pageable, searcher.count(query)));
+                }
+                int offset = (int) pageable.getOffset();
+                int limit = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), numDocs);
+                TopFieldDocs topDocs = searcher.search(query, limit, toSort(pageable, hasKeyword), false);
+                long total = topDocs.totalHits.relation == TotalHits.Relation.EQUAL_TO
+                        ? topDocs.totalHits.value
+                        : searcher.count(query);
+
+                StoredFields storedFields = searcher.storedFields();
+                List<AdvertisementResponseDto> content = new ArrayList<>();
+                for (int i = offset; i < topDocs.scoreDocs.length; i++) {
+                    ScoreDoc scoreDoc = topDocs.scoreDocs[i];
+                    content.add(toResponseDto(storedFields.document(scoreDoc.doc)));
+                }
+                return PageResponseDto.fromPage(new PageImpl<>(content, pageable, total));
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ошибка поиска по индексу объявлений", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.lucene.refresh-interval:1s}")
+    public void refresh() {
+        if (rebuilding) {
+            return;
+        }
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.error("Failed to refresh Lucene searcher", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.lucene.commit-interval:60s}")
+    public void commit() {
+        if (rebuilding || !writer.hasUncommittedChanges()) {
+            return;
+        }
+        try {
+            writer.commit();
+        } catch (IOException e) {
+            log.error("Failed to commit Lucene index", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        log.info("Closing Lucene search index");
+        searcherManager.close();
+        writer.close();
+        directory.close();
+        analyzer.close();
+    }
+
+    private Query toQuery(AdvertisementSearchCriteriaDto criteria, Collection<Integer> categoryIds) {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        if (criteria != null && StringUtils.hasText(criteria.keyword())) {
+            builder.add(keywordQuery(criteria.keyword()), BooleanClause.Occur.MUST);
+        } else {
+            builder.add(new MatchAllDocsQuery(), BooleanClause.Occur.MUST);
+        }
+        if (criteria == null) {
+            return builder.build();
+        }
+
+        if (categoryIds != null && !categoryIds.isEmpty()) {
+            int[] ids = categoryIds.stream().mapToInt(Integer::intValue).toArray();
+            builder.add(IntField.newSetQuery(CATEGORY, ids), BooleanClause.Occur.FILTER);
+        }
+        if (criteria.cityId() != null) {
+            builder.add(IntField.newExactQuery(CITY, criteria.cityId()), BooleanClause.Occur.FILTER);
+        } else if (criteria.districtId() != null) {
+            builder.add(IntField.newExactQuery(DISTRICT, criteria.districtId()), BooleanClause.Occur.FILTER);
+        } else if (criteria.regionId() != null) {
+            builder.add(IntField.newExactQuery(REGION, criteria.regionId()), BooleanClause.Occur.FILTER);
+        }
+        if (criteria.minPrice() != null || criteria.maxPrice() != null) {
+            long min = criteria.minPrice() != null ? toCents(criteria.minPrice(), RoundingMode.CEILING) : Long.MIN_VALUE;
+            long max = criteria.maxPrice() != null ? toCents(criteria.maxPrice(), RoundingMode.FLOOR) : Long.MAX_VALUE;
+            builder.add(LongField.newRangeQuery(PRICE, min, max), BooleanClause.Occur.FILTER);
+        }
+        if (criteria.condition() != null) {
+            builder.add(new TermQuery(new Term(CONDITION, criteria.condition().name())), BooleanClause.Occur.FILTER);
+        }
+        if (criteria.sellerId() != null) {
+            builder.add(LongField.newExactQuery(SELLER, criteria.sellerId()), BooleanClause.Occur.FILTER);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Все слова запроса обязательны (как {@code plainto_tsquery}), каждое ищется в заголовке с повышенным весом
+     * и в описании.
+     */
+    private Query keywordQuery(String keyword) {
+        List<String> terms = analyze(keyword);
+        if (terms.isEmpty()) {
+            return new MatchNoDocsQuery("Запрос состоит только из стоп-слов");
+        }
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        for (String term : terms) {
+            builder.add(new BooleanQuery.Builder()
+                    .add(new BoostQuery(new TermQuery(new Term(TITLE, term)), TITLE_BOOST), BooleanClause.Occur.SHOULD)
+                    .add(new TermQuery(new Term(DESCRIPTION, term)), BooleanClause.Occur.SHOULD)
+                    .build(), BooleanClause.Occur.MUST);
+        }
+        return builder.build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream tokenStream = analyzer.tokenStream(TITLE, text)) {
+            CharTermAttribute termAttribute = tokenStream.addAttribute(CharTermAttribute.class);
+            tokenStream.reset();
+            while (tokenStream.incrementToken()) {
+                terms.add(termAttribute.toString());
+            }
+            tokenStream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    /**
+     * Только сортировки, которые принимает {@link #supportsSort}; последними всегда идут дата создания и ID.
+     */
+    private Sort toSort(Pageable pageable, boolean hasKeyword) {
+        List<SortField> fields = new ArrayList<>();
+        for (org.springframework.data.domain.Sort.Order order : pageable.getSort()) {
+            switch (order.getProperty()) {
+                case RELEVANCE_SORT -> {
+                    if (hasKeyword) {
+                        fields.add(SortField.FIELD_SCORE);
+                    }
+                }
+                case "createdAt" -> fields.add(new SortedNumericSortField(CREATED_AT, SortField.Type.LONG, order.isDescending()));
+                case "price" -> fields.add(new SortedNumericSortField(PRICE, SortField.Type.LONG, order.isDescending()));
+                default -> throw new IllegalArgumentException("Сортировка по '" + order.getProperty() + "' не поддерживается индексом");
+            }
+        }
+        fields.add(new SortedNumericSortField(CREATED_AT, SortField.Type.LONG, true));
+        fields.add(new SortField(ID_ORDER, SortField.Type.LONG, true));
+        return new Sort(fields.toArray(SortField[]::new));
+    }
+
+    private Document toDocument(AdvertisementSnapshot snapshot) {
+        Document document = new Document();
+        document.add(new StringField(ID, String.valueOf(snapshot.id()), Field.Store.YES));
+        document.add(new NumericDocValuesField(ID_ORDER, snapshot.id()));
+        document.add(new TextField(TITLE, snapshot.title(), Field.Store.YES));
+        if (snapshot.description() != null) {
+            document.add(new TextField(DESCRIPTION, snapshot.description(), Field.Store.NO));
+        }
+        document.add(new LongField(PRICE, toCents(snapshot.price(), RoundingMode.HALF_UP), Field.Store.NO));
+        document.add(new StoredField(PRICE_VALUE, snapshot.price().toPlainString()));
+        document.add(new IntField(CATEGORY, snapshot.categoryId(), Field.Store.NO));
+        document.add(new IntField(CITY, snapshot.cityId(), Field.Store.YES));
+        document.add(new StoredField(CITY_NAME, snapshot.cityName()));
+        document.add(new IntField(DISTRICT, snapshot.districtId(), Field.Store.NO));
+        document.add(new IntField(REGION, snapshot.regionId(), Field.Store.NO));
+        document.add(new LongField(SELLER, snapshot.sellerId(), Field.Store.NO));
+        if (snapshot.condition() != null) {
+            document.add(new StringField(CONDITION, snapshot.condition().name(), Field.Store.NO));
+        }
+        document.add(new LongField(CREATED_AT, snapshot.createdAt().toInstant().toEpochMilli(), Field.Store.NO));
+        document.add(new StoredField(CREATED_AT_VALUE, snapshot.createdAt().toString()));
+        if (snapshot.previewImageUrl() != null) {
+            document.add(new StoredField(PREVIEW_IMAGE_URL, snapshot.previewImageUrl()));
+        }
+        return document;
+    }
+
+    private AdvertisementResponseDto toResponseDto(Document document) {
+        return new AdvertisementResponseDto(
+                Long.valueOf(document.get(ID)),
+                document.get(TITLE),
+                new BigDecimal(document.get(PRICE_VALUE)),
+                document.getField(CITY).numericValue().intValue(),
+                document.get(CITY_NAME),
+                OffsetDateTime.parse(document.get(CREATED_AT_VALUE)),
+                document.get(PREVIEW_IMAGE_URL)
+        );
+    }
+
+    private static Term idTerm(Long advertisementId) {
+        return new Term(ID, String.valueOf(advertisementId));
+    }
+
+    private static long toCents(BigDecimal price, RoundingMode roundingMode) {
+        return price.setScale(2, roundingMode).unscaledValue().longValueExact();
+    }
+}
@@ -0,0 +1,162 @@
+package com.tech.listify.search;
+
+import com.tech.listify.model.City;
+import com.tech.listify.repository.CityRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Пространственный индекс городов в памяти: 2d-дерево по (широта, долгота).
+ * <p>
+ * Запрос «в радиусе R км от точки» обходит только узлы, попадающие в описанный вокруг круга
+ * прямоугольник, и уточняет расстояние по формуле гаверсинуса. Результат — ID городов,
+ * которые затем фильтруются в БД через индексированный {@code city_id IN (...)}.
+ * Города без координат в индекс не попадают.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CityGeoIndex {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    private final CityRepository cityRepository;
+
+    private volatile KdTree tree = KdTree.build(List.of());
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<City> cities = cityRepository.findByLatitudeIsNotNullAndLongitudeIsNotNull();
+        tree = KdTree.build(cities);
+        log.info("City geo index loaded with {} cities", cities.size());
+    }
+
+    /**
+     * Города в радиусе {@code radiusKm} от точки, по возрастанию расстояния.
+     */
+    public List<CityDistance> findWithin(double latitude, double longitude, double radiusKm) {
+        double latDelta = radiusKm / KM_PER_DEGREE;
+        // Наибольшее отклонение по долготе для круга на сфере: asin(sin(r) / cos(широты)).
+        double lonSpan = Math.sin(radiusKm / EARTH_RADIUS_KM) / Math.cos(Math.toRadians(latitude));
+        double lonDelta = latitude + latDelta >= 90 || latitude - latDelta <= -90 || radiusKm >= Math.PI * EARTH_RADIUS_KM / 2 || lonSpan >= 1
+                ? 180
+                : Math.toDegrees(Math.asin(lonSpan));
+        double minLat = latitude - latDelta;
+        double maxLat = latitude + latDelta;
+
+        List<CityDistance> result = new ArrayList<>();
+        KdTree snapshot = tree;
+        if (lonDelta >= 180) {
+            snapshot.collect(minLat, maxLat, -180, 180, latitude, longitude, radiusKm, result);
+        } else {
+            double minLon = longitude - lonDelta;
+            double maxLon = longitude + lonDelta;
+            snapshot.collect(minLat, maxLat, Math.max(minLon, -180), Math.min(maxLon, 180), latitude, longitude, radiusKm, result);
+            // Прямоугольник пересекает антимеридиан: вторая часть по другую сторону.
+            if (minLon < -180) {
+                snapshot.collect(minLat, maxLat, minLon + 360, 180, latitude, longitude, radiusKm, result);
+            } else if (maxLon > 180) {
+                snapshot.collect(minLat, maxLat, -180, maxLon - 360, latitude, longitude, radiusKm, result);
+            }
+        }
+        result.sort(Comparator.comparingDouble(CityDistance::distanceKm));
+        return result;
+    }
+
+    public int size() {
+        return tree.ids.length;
+    }
+
+    static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.pow(Math.sin(dLat / 2), 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.pow(Math.sin(dLon / 2), 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    public record CityDistance(Integer cityId, double distanceKm) {
+    }
+
+    /**
+     * Неявное дерево в массивах: корень поддиапазона {@code [from, to)} — его середина,
+     * на четной глубине деление по широте, на нечетной — по долготе.
+     */
+    private static final class KdTree {
+        private final int[] ids;
+        private final double[] latitudes;
+        private final double[] longitudes;
+
+        private KdTree(int[] ids, double[] latitudes, double[] longitudes) {
+            this.ids = ids;
+            this.latitudes = latitudes;
+            this.longitudes = longitudes;
+        }
+
+        static KdTree build(List<City> cities) {
+            List<City> points = new ArrayList<>(cities);
+            arrange(points, 0, points.size(), 0);
+            int[] ids = new int[points.size()];
+            double[] latitudes = new double[points.size()];
+            double[] longitudes = new double[points.size()];
+            for (int i = 0; i < points.size(); i++) {
+                City city = points.get(i);
+                ids[i] = city.getId();
+                latitudes[i] = city.getLatitude();
+                longitudes[i] = city.getLongitude();
+            }
+            return new KdTree(ids, latitudes, longitudes);
+        }
+
+        private static void arrange(List<City> points, int from, int to, int depth) {
+            if (to - from <= 1) {
+                return;
+            }
+            Comparator<City> axis = depth % 2 == 0
+                    ? Comparator.comparingDouble(City::getLatitude)
+                    : Comparator.comparingDouble(City::getLongitude);
+            points.subList(from, to).sort(axis);
+            int mid = (from + to) >>> 1;
+            arrange(points, from, mid, depth + 1);
+            arrange(points, mid + 1, to, depth + 1);
+        }
+
+        void collect(double minLat, double maxLat, double minLon, double maxLon,
+                     double latitude, double longitude, double radiusKm, List<CityDistance> result) {
+            collect(0, ids.length, 0, minLat, maxLat, minLon, maxLon, latitude, longitude, radiusKm, result);
+        }
+
+        private void collect(int from, int to, int depth, double minLat, double maxLat, double minLon, double maxLon,
+                             double latitude, double longitude, double radiusKm, List<CityDistance> result) {
+            if (from >= to) {
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            double lat = latitudes[mid];
+            double lon = longitudes[mid];
+            if (lat >= minLat && lat <= maxLat && lon >= minLon && lon <= maxLon) {
+                double distance = distanceKm(latitude, longitude, lat, lon);
+                if (distance <= radiusKm) {
+                    result.add(new CityDistance(ids[mid], distance));
+                }
+            }
+            double value = depth % 2 == 0 ? lat : lon;
+            double min = depth % 2 == 0 ? minLat : minLon;
+            double max = depth % 2 == 0 ? maxLat : maxLon;
+            if (min <= value) {
+                collect(from, mid, depth + 1, minLat, maxLat, minLon, maxLon, latitude, longitude, radiusKm, result);
+            }
+            if (max >= value) {
+                collect(mid + 1, to, depth + 1, minLat, maxLat, minLon, maxLon, latitude, longitude, radiusKm, result);
+            }
+        }
+    }
+}
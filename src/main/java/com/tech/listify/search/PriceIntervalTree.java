@@ -0,0 +1,101 @@
+package com.tech.listify.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Неизменяемое центрированное дерево интервалов по ценам в копейках. Отвечает на запрос
+ * «все интервалы, содержащие цену» за {@code O(log n + k)}. Границы включаются;
+ * открытая граница задается {@link Long#MIN_VALUE} или {@link Long#MAX_VALUE}.
+ */
+final class PriceIntervalTree<T> {
+
+    record Interval<T>(long low, long high, T value) {
+    }
+
+    private final Node<T> root;
+    private final int size;
+
+    private PriceIntervalTree(Node<T> root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    static <T> PriceIntervalTree<T> build(Collection<Interval<T>> intervals) {
+        return new PriceIntervalTree<>(buildNode(new ArrayList<>(intervals)), intervals.size());
+    }
+
+    void stab(long point, Consumer<T> consumer) {
+        Node<T> node = root;
+        while (node != null) {
+            if (point < node.center) {
+                for (Interval<T> interval : node.byLow) {
+                    if (interval.low() > point) {
+                        break;
+                    }
+                    consumer.accept(interval.value());
+                }
+                node = node.left;
+            } else if (point > node.center) {
+                for (Interval<T> interval : node.byHighDesc) {
+                    if (interval.high() < point) {
+                        break;
+                    }
+                    consumer.accept(interval.value());
+                }
+                node = node.right;
+            } else {
+                for (Interval<T> interval : node.byLow) {
+                    consumer.accept(interval.value());
+                }
+                return;
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Центр узла — медиана концов интервалов. Медиана сама является концом какого-то интервала,
+     * поэтому в узле остается хотя бы один интервал и рекурсия конечна.
+     */
+    private static <T> Node<T> buildNode(List<Interval<T>> intervals) {
+        if (intervals.isEmpty()) {
+            return null;
+        }
+        long[] endpoints = new long[intervals.size() * 2];
+        for (int i = 0; i < intervals.size(); i++) {
+            endpoints[2 * i] = intervals.get(i).low();
+            endpoints[2 * i + 1] = intervals.get(i).high();
+        }
+        Arrays.sort(endpoints);
+        long center = endpoints[endpoints.length / 2];
+
+        List<Interval<T>> left = new ArrayList<>();
+        List<Interval<T>> right = new ArrayList<>();
+        List<Interval<T>> overlapping = new ArrayList<>();
+        for (Interval<T> interval : intervals) {
+            if (interval.high() < center) {
+                left.add(interval);
+            } else if (interval.low() > center) {
+                right.add(interval);
+            } else {
+                overlapping.add(interval);
+            }
+        }
+        List<Interval<T>> byLow = new ArrayList<>(overlapping);
+        byLow.sort(Comparator.comparingLong(Interval::low));
+        List<Interval<T>> byHighDesc = new ArrayList<>(overlapping);
+        byHighDesc.sort(Comparator.comparingLong((Interval<T> interval) -> interval.high()).reversed());
+        return new Node<>(center, List.copyOf(byLow), List.copyOf(byHighDesc), buildNode(left), buildNode(right));
+    }
+
+    private record Node<T>(long center, List<Interval<T>> byLow, List<Interval<T>> byHighDesc, Node<T> left, Node<T> right) {
+    }
+}
@@ -0,0 +1,338 @@
+package com.tech.listify.search;
+
+import com.tech.listify.event.AdvertisementSnapshot;
+import com.tech.listify.model.SavedSearch;
+import com.tech.listify.model.enums.AdvertisementCondition;
+import com.tech.listify.repository.SavedSearchRepository;
+import com.tech.listify.service.CategoryService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.ru.RussianAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Обратный индекс сохраненных поисков: по новому объявлению находит подписки, которым оно подходит,
+ * не перебирая их все.
+ * <p>
+ * Каждый поиск кладется ровно в одну корзину — по самому избирательному точному фильтру: город, район,
+ * категория, область, состояние, иначе общая корзина. Внутри корзины поиски лежат в
+ * {@link PriceIntervalTree} по диапазону цены. Объявление проверяет только корзины своих значений
+ * (для категории — всех предков) и в каждой берет интервалы, содержащие его цену; оставшиеся фильтры
+ * и ключевые слова проверяются у этих кандидатов.
+ * <p>
+ * Ключевое слово сопоставляется так же, как в Lucene-поиске: каждый термин запроса после
+ * {@link RussianAnalyzer} должен встретиться в заголовке или описании.
+ */
+@Component
+@Slf4j
+public class SavedSearchIndex {
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+    private static final String ANY_BUCKET = "any";
+
+    private final SavedSearchRepository savedSearchRepository;
+    private final CategoryService categoryService;
+    private final Analyzer analyzer = new RussianAnalyzer();
+
+    /** Источник истины, изменяется под блокировкой: корзина -> поиски в ней. */
+    private final Map<String, Map<Long, Entry>> buckets = new HashMap<>();
+    private final Map<Long, String> bucketById = new HashMap<>();
+    /** Деревья корзин для чтения без блокировки; пересобираются при изменении корзины. */
+    private final Map<String, PriceIntervalTree<Entry>> trees = new ConcurrentHashMap<>();
+    /** ID поисков, измененных на этом узле во время сверки с БД; {@code null}, когда сверки нет. */
+    private Set<Long> changedDuringLoad;
+    private final Object loadLock = new Object();
+
+    public SavedSearchIndex(SavedSearchRepository savedSearchRepository, CategoryService categoryService) {
+        this.savedSearchRepository = savedSearchRepository;
+        this.categoryService = categoryService;
+    }
+
+    /**
+     * Загружает индекс при старте, а затем периодически сверяет его с {@code saved_searches}: поиски,
+     * созданные или удаленные через другие узлы, меняют индекс только узла, обработавшего запрос.
+     * Поиски, измененные на этом узле во время сверки, не трогаются: снимок БД мог их не застать.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.saved-searches.reconcile-interval:1m}",
+            fixedDelayString = "${app.saved-searches.reconcile-interval:1m}")
+    public void load() {
+        synchronized (loadLock) {
+            synchronized (this) {
+                changedDuringLoad = new HashSet<>();
+            }
+            try {
+                Map<Long, SavedSearch> stored = loadStored();
+                int added = 0;
+                int removed = 0;
+                synchronized (this) {
+                    Set<String> changedBuckets = new HashSet<>();
+                    for (Long id : List.copyOf(bucketById.keySet())) {
+                        if (!stored.containsKey(id) && !changedDuringLoad.contains(id)) {
+                            changedBuckets.add(detach(id));
+                            removed++;
+                        }
+                    }
+                    for (SavedSearch savedSearch : stored.values()) {
+                        if (!bucketById.containsKey(savedSearch.getId()) && !changedDuringLoad.contains(savedSearch.getId())) {
+                            changedBuckets.add(put(toEntry(savedSearch)));
+                            added++;
+                        }
+                    }
+                    changedBuckets.forEach(this::rebuildTree);
+                }
+                if (added > 0 || removed > 0) {
+                    log.info("Saved search index synchronized: {} added, {} removed, {} searches in {} buckets",
+                            added, removed, size(), trees.size());
+                }
+            } catch (RuntimeException e) {
+                log.error("Failed to load saved search index", e);
+            } finally {
+                synchronized (this) {
+                    changedDuringLoad = null;
+                }
+            }
+        }
+    }
+
+    private Map<Long, SavedSearch> loadStored() {
+        Map<Long, SavedSearch> stored = new HashMap<>();
+        long afterId = 0;
+        List<SavedSearch> batch;
+        do {
+            batch = savedSearchRepository.findBatchAfterId(afterId, Limit.of(LOAD_BATCH_SIZE));
+            batch.forEach(savedSearch -> stored.put(savedSearch.getId(), savedSearch));
+            if (!batch.isEmpty()) {
+                afterId = batch.getLast().getId();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        return stored;
+    }
+
+    public synchronized void add(SavedSearch savedSearch) {
+        Entry entry = toEntry(savedSearch);
+        remove(entry.id());
+        rebuildTree(put(entry));
+    }
+
+    public synchronized void remove(Long savedSearchId) {
+        if (changedDuringLoad != null) {
+            changedDuringLoad.add(savedSearchId);
+        }
+        String bucket = detach(savedSearchId);
+        if (bucket != null) {
+            rebuildTree(bucket);
+        }
+    }
+
+    /**
+     * ID сохраненных поисков, которым подходит объявление. Собственные поиски продавца не возвращаются.
+     */
+    public List<Long> match(AdvertisementSnapshot ad) {
+        if (ad == null || !ad.isActive() || trees.isEmpty()) {
+            return List.of();
+        }
+        Set<Integer> categoryIds = categoryService.findAncestorCategoryIds(ad.categoryId());
+        List<String> probes = new ArrayList<>(categoryIds.size() + 5);
+        probes.add(cityBucket(ad.cityId()));
+        probes.add(districtBucket(ad.districtId()));
+        categoryIds.forEach(id -> probes.add(categoryBucket(id)));
+        probes.add(regionBucket(ad.regionId()));
+        if (ad.condition() != null) {
+            probes.add(conditionBucket(ad.condition()));
+        }
+        probes.add(ANY_BUCKET);
+
+        long priceCents = toCents(ad.price(), RoundingMode.HALF_UP);
+        Set<String> adTerms = null;
+        List<Long> matches = new ArrayList<>();
+        List<Entry> candidates = new ArrayList<>();
+        for (String probe : probes) {
+            PriceIntervalTree<Entry> tree = trees.get(probe);
+            if (tree != null) {
+                tree.stab(priceCents, candidates::add);
+            }
+        }
+        for (Entry candidate : candidates) {
+            if (!candidate.matchesFilters(ad, categoryIds)) {
+                continue;
+            }
+            if (!candidate.terms().isEmpty()) {
+                if (adTerms == null) {
+                    adTerms = new HashSet<>(analyze(ad.title()));
+                    if (ad.description() != null) {
+                        adTerms.addAll(analyze(ad.description()));
+                    }
+                }
+                if (!adTerms.containsAll(candidate.terms())) {
+                    continue;
+                }
+            }
+            matches.add(candidate.id());
+        }
+        return matches;
+    }
+
+    public synchronized int size() {
+        return bucketById.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        analyzer.close();
+    }
+
+    /**
+     * Удаляет поиск из корзины без пересборки дерева; возвращает корзину или {@code null}.
+     */
+    private String detach(Long savedSearchId) {
+        String bucket = bucketById.remove(savedSearchId);
+        if (bucket == null) {
+            return null;
+        }
+        Map<Long, Entry> entries = buckets.get(bucket);
+        entries.remove(savedSearchId);
+        if (entries.isEmpty()) {
+            buckets.remove(bucket);
+        }
+        return bucket;
+    }
+
+    private String put(Entry entry) {
+        String bucket = bucketOf(entry);
+        buckets.computeIfAbsent(bucket, key -> new HashMap<>()).put(entry.id(), entry);
+        bucketById.put(entry.id(), bucket);
+        return bucket;
+    }
+
+    private void rebuildTree(String bucket) {
+        Map<Long, Entry> entries = buckets.get(bucket);
+        if (entries == null) {
+            trees.remove(bucket);
+            return;
+        }
+        trees.put(bucket, PriceIntervalTree.build(entries.values().stream()
+                .map(entry -> new PriceIntervalTree.Interval<>(entry.minCents(), entry.maxCents(), entry))
+                .toList()));
+    }
+
+    private static String bucketOf(Entry entry) {
+        if (entry.cityId() != null) {
+            return cityBucket(entry.cityId());
+        }
+        if (entry.districtId() != null) {
+            return districtBucket(entry.districtId());
+        }
+        if (entry.categoryId() != null) {
+            return categoryBucket(entry.categoryId());
+        }
+        if (entry.regionId() != null) {
+            return regionBucket(entry.regionId());
+        }
+        if (entry.condition() != null) {
+            return conditionBucket(entry.condition());
+        }
+        return ANY_BUCKET;
+    }
+
+    private Entry toEntry(SavedSearch savedSearch) {
+        Set<String> terms = StringUtils.hasText(savedSearch.getKeyword())
+                ? Set.copyOf(analyze(savedSearch.getKeyword()))
+                : Set.of();
+        // Из фильтров по месту применяется только самый узкий, как в AdvertisementSpecification.fromCriteria.
+        Integer districtId = savedSearch.getCityId() == null ? savedSearch.getDistrictId() : null;
+        Integer regionId = savedSearch.getCityId() == null && districtId == null ? savedSearch.getRegionId() : null;
+        return new Entry(
+                savedSearch.getId(),
+                savedSearch.getUser().getId(),
+                savedSearch.getCategoryId(),
+                regionId,
+                districtId,
+                savedSearch.getCityId(),
+                savedSearch.getCondition(),
+                savedSearch.getMinPrice() == null ? Long.MIN_VALUE : toCents(savedSearch.getMinPrice(), RoundingMode.CEILING),
+                savedSearch.getMaxPrice() == null ? Long.MAX_VALUE : toCents(savedSearch.getMaxPrice(), RoundingMode.FLOOR),
+                terms);
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream tokenStream = analyzer.tokenStream("text", text)) {
+            CharTermAttribute termAttribute = tokenStream.addAttribute(CharTermAttribute.class);
+            tokenStream.reset();
+            while (tokenStream.incrementToken()) {
+                terms.add(termAttribute.toString());
+            }
+            tokenStream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    private static String cityBucket(Integer id) {
+        return "city:" + id;
+    }
+
+    private static String districtBucket(Integer id) {
+        return "district:" + id;
+    }
+
+    private static String categoryBucket(Integer id) {
+        return "category:" + id;
+    }
+
+    private static String regionBucket(Integer id) {
+        return "region:" + id;
+    }
+
+    private static String conditionBucket(AdvertisementCondition condition) {
+        return "condition:" + condition.name();
+    }
+
+    private static long toCents(BigDecimal price, RoundingMode roundingMode) {
+        return price.setScale(2, roundingMode).unscaledValue().longValueExact();
+    }
+
+    private record Entry(
+            long id,
+            long userId,
+            Integer categoryId,
+            Integer regionId,
+            Integer districtId,
+            Integer cityId,
+            AdvertisementCondition condition,
+            long minCents,
+            long maxCents,
+            Set<String> terms
+    ) {
+        boolean matchesFilters(AdvertisementSnapshot ad, Set<Integer> adCategoryIds) {
+            return userId != ad.sellerId()
+                    && (categoryId == null || adCategoryIds.contains(categoryId))
+                    && (cityId == null || cityId.equals(ad.cityId()))
+                    && (districtId == null || districtId.equals(ad.districtId()))
+                    && (regionId == null || regionId.equals(ad.regionId()))
+                    && (condition == null || condition == ad.condition());
+        }
+    }
+}
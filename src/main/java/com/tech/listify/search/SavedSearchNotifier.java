@@ -0,0 +1,115 @@
+package com.tech.listify.search;
+
+import com.tech.listify.event.AdvertisementChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Доставляет уведомления по сохраненным поискам.
+ * <p>
+ * После коммита созданного объявления подходящие поиски находятся в {@link SavedSearchIndex}, а пары
+ * (поиск, объявление) кладутся в ограниченную очередь — создание объявления не ждет записи уведомлений.
+ * Очередь периодически сбрасывается в БД пачками одним {@code batchUpdate}; при переполнении
+ * уведомления отбрасываются и учитываются в {@link #stats()}.
+ */
+@Component
+@Slf4j
+public class SavedSearchNotifier {
+
+    /**
+     * Объявление или поиск могли быть удалены, пока уведомление ждало в очереди, поэтому вставка
+     * проверяет их наличие; повторная доставка той же пары игнорируется.
+     */
+    private static final String INSERT_SQL = """
+            INSERT INTO saved_search_notifications (saved_search_id, advertisement_id)
+            SELECT ?, ?
+            WHERE EXISTS (SELECT 1 FROM saved_searches WHERE id = ?)
+              AND EXISTS (SELECT 1 FROM advertisements WHERE id = ?)
+            ON CONFLICT (saved_search_id, advertisement_id) DO NOTHING""";
+
+    private final SavedSearchIndex savedSearchIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<Notification> queue;
+    private final int batchSize;
+
+    private final LongAdder matched = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public SavedSearchNotifier(SavedSearchIndex savedSearchIndex,
+                               JdbcTemplate jdbcTemplate,
+                               @Value("${app.saved-searches.queue-capacity:10000}") int queueCapacity,
+                               @Value("${app.saved-searches.batch-size:500}") int batchSize) {
+        this.savedSearchIndex = savedSearchIndex;
+        this.jdbcTemplate = jdbcTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onAdvertisementChanged(AdvertisementChangedEvent event) {
+        if (event.type() != AdvertisementChangedEvent.Type.CREATED) {
+            return;
+        }
+        List<Long> savedSearchIds = savedSearchIndex.match(event.after());
+        matched.add(savedSearchIds.size());
+        for (Long savedSearchId : savedSearchIds) {
+            if (!queue.offer(new Notification(savedSearchId, event.advertisementId()))) {
+                dropped.increment();
+            }
+        }
+        if (!savedSearchIds.isEmpty()) {
+            log.debug("Advertisement ID {} matched {} saved searches", event.advertisementId(), savedSearchIds.size());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.saved-searches.flush-interval:2s}")
+    public void flush() {
+        List<Notification> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            try {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, notification) -> {
+                    ps.setLong(1, notification.savedSearchId());
+                    ps.setLong(2, notification.advertisementId());
+                    ps.setLong(3, notification.savedSearchId());
+                    ps.setLong(4, notification.advertisementId());
+                });
+                delivered.add(batch.size());
+            } catch (RuntimeException e) {
+                dropped.add(batch.size());
+                log.error("Failed to store {} saved search notifications", batch.size(), e);
+            }
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    public Map<String, Long> stats() {
+        return Map.of(
+                "indexedSearches", (long) savedSearchIndex.size(),
+                "matched", matched.sum(),
+                "delivered", delivered.sum(),
+                "dropped", dropped.sum(),
+                "queued", (long) queue.size());
+    }
+
+    private record Notification(long savedSearchId, long advertisementId) {
+    }
+}
@@ -0,0 +1,326 @@
+package com.tech.listify.search;
+
+import com.tech.listify.dto.advertisementdto.SuggestionDto;
+import com.tech.listify.event.AdvertisementChangedEvent;
+import com.tech.listify.event.AdvertisementSnapshot;
+import com.tech.listify.model.enums.AdvertisementStatus;
+import com.tech.listify.repository.AdvertisementRepository;
+import com.tech.listify.repository.TitleCount;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Индекс автодополнения заголовков активных объявлений.
+ * <p>
+ * Нормализованные заголовки хранятся отсортированными в одном массиве байт UTF-8 со смещениями,
+ * вес заголовка — количество активных объявлений с ним. Префикс задает непрерывный диапазон массива,
+ * а дерево отрезков по весам выдает top-N диапазона за O(N log n) без перебора всех совпадений.
+ * <p>
+ * Изменение веса существующего заголовка применяется к дереву сразу; новые заголовки накапливаются
+ * и попадают в индекс при периодической пересборке ({@code app.suggest.rebuild-interval}).
+ * <p>
+ * События изменений приходят только на узел, записавший объявление, а запрос весов при загрузке не
+ * согласован с событиями, пришедшими во время него. Поэтому веса периодически целиком заменяются
+ * посчитанными в БД ({@code app.suggest.resync-interval}): расхождение между узлами и ошибка
+ * загрузки живут не дольше этого интервала.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TitleSuggestIndex {
+
+    private final AdvertisementRepository advertisementRepository;
+
+    /** Источник истины: нормализованный заголовок -> количество активных объявлений. */
+    private final Map<String, Integer> counts = new ConcurrentHashMap<>();
+
+    private volatile Snapshot snapshot = Snapshot.build(Map.of());
+    private volatile boolean dirty;
+    private volatile Instant lastRebuild;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.suggest.resync-interval:5m}",
+            fixedDelayString = "${app.suggest.resync-interval:5m}")
+    public void load() {
+        try {
+            List<TitleCount> titles = advertisementRepository.countTitlesByStatus(AdvertisementStatus.ACTIVE);
+            Map<String, Integer> loaded = new HashMap<>();
+            for (TitleCount title : titles) {
+                String key = normalize(title.title());
+                if (!key.isEmpty()) {
+                    loaded.merge(key, (int) title.count(), Integer::sum);
+                }
+            }
+            replaceCounts(loaded);
+            log.info("Title suggest index loaded: {} distinct titles", snapshot.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to load title suggest index", e);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onAdvertisementChanged(AdvertisementChangedEvent event) {
+        String before = activeTitle(event.before());
+        String after = activeTitle(event.after());
+        if (before != null && before.equals(after)) {
+            return;
+        }
+        if (before != null) {
+            applyDelta(before, -1);
+        }
+        if (after != null) {
+            applyDelta(after, 1);
+        }
+    }
+
+    public List<SuggestionDto> suggest(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        return snapshot.topByPrefix(prefix.getBytes(StandardCharsets.UTF_8), limit);
+    }
+
+    public Map<String, Object> stats() {
+        Snapshot current = snapshot;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("titles", current.size());
+        stats.put("indexBytes", current.footprintBytes());
+        stats.put("pendingRebuild", dirty);
+        stats.put("lastRebuild", lastRebuild);
+        return stats;
+    }
+
+    @Scheduled(fixedDelayString = "${app.suggest.rebuild-interval:5s}")
+    public void rebuildIfDirty() {
+        if (dirty) {
+            rebuild();
+        }
+    }
+
+    private synchronized void rebuild() {
+        dirty = false;
+        snapshot = Snapshot.build(counts);
+        lastRebuild = Instant.now();
+        log.debug("Title suggest index rebuilt: {} titles, {} bytes", snapshot.size(), snapshot.footprintBytes());
+    }
+
+    private synchronized void replaceCounts(Map<String, Integer> loaded) {
+        counts.clear();
+        counts.putAll(loaded);
+        rebuild();
+    }
+
+    private synchronized void applyDelta(String title, int delta) {
+        Integer weight = counts.compute(title, (key, current) -> {
+            int updated = (current == null ? 0 : current) + delta;
+            return updated > 0 ? updated : null;
+        });
+        if (!snapshot.updateWeight(title.getBytes(StandardCharsets.UTF_8), weight == null ? 0 : weight)) {
+            dirty = true;
+        }
+    }
+
+    private static String activeTitle(AdvertisementSnapshot snapshot) {
+        if (snapshot == null || !snapshot.isActive()) {
+            return null;
+        }
+        String title = normalize(snapshot.title());
+        return title.isEmpty() ? null : title;
+    }
+
+    static String normalize(String text) {
+        if (!StringUtils.hasText(text)) {
+            return "";
+        }
+        return text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT).replace('ё', 'е');
+    }
+
+    /**
+     * Неизменяемый по составу ключей срез индекса. Веса и дерево отрезков обновляются на месте под блокировкой
+     * записи среза, а выборка top-N идет под блокировкой чтения: иначе порядок в очереди кандидатов мог бы
+     * нарушиться изменением веса посреди выборки. Границы префикса считаются по неизменяемым ключам без блокировки.
+     */
+    private static final class Snapshot {
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final byte[] data;
+        private final int[] offsets;
+        private final int[] weights;
+        /** Дерево отрезков: в узле хранится индекс заголовка с максимальным весом; листья начинаются с {@code leaves}. */
+        private final int[] tree;
+        private final int leaves;
+
+        private Snapshot(byte[] data, int[] offsets, int[] weights) {
+            this.data = data;
+            this.offsets = offsets;
+            this.weights = weights;
+            int size = 1;
+            while (size < Math.max(weights.length, 1)) {
+                size <<= 1;
+            }
+            this.leaves = size;
+            this.tree = new int[2 * size];
+            Arrays.fill(tree, -1);
+            for (int i = 0; i < weights.length; i++) {
+                tree[size + i] = i;
+            }
+            for (int node = size - 1; node > 0; node--) {
+                tree[node] = heavier(tree[2 * node], tree[2 * node + 1]);
+            }
+        }
+
+        static Snapshot build(Map<String, Integer> counts) {
+            List<Map.Entry<byte[], Integer>> entries = new ArrayList<>(counts.size());
+            counts.forEach((title, count) -> entries.add(Map.entry(title.getBytes(StandardCharsets.UTF_8), count)));
+            entries.sort((a, b) -> Arrays.compareUnsigned(a.getKey(), b.getKey()));
+
+            int totalBytes = entries.stream().mapToInt(e -> e.getKey().length).sum();
+            byte[] data = new byte[totalBytes];
+            int[] offsets = new int[entries.size() + 1];
+            int[] weights = new int[entries.size()];
+            int position = 0;
+            for (int i = 0; i < entries.size(); i++) {
+                byte[] key = entries.get(i).getKey();
+                System.arraycopy(key, 0, data, position, key.length);
+                offsets[i] = position;
+                weights[i] = entries.get(i).getValue();
+                position += key.length;
+            }
+            offsets[entries.size()] = position;
+            return new Snapshot(data, offsets, weights);
+        }
+
+        int size() {
+            return weights.length;
+        }
+
+        long footprintBytes() {
+            return data.length + 4L * (offsets.length + weights.length + tree.length);
+        }
+
+        /**
+         * @return {@code false}, если заголовка нет в срезе и нужна пересборка.
+         */
+        boolean updateWeight(byte[] key, int weight) {
+            int index = lowerBound(key, false);
+            if (index >= size() || compare(index, key, false) != 0) {
+                return weight == 0;
+            }
+            lock.writeLock().lock();
+            try {
+                weights[index] = weight;
+                for (int node = (leaves + index) >> 1; node > 0; node >>= 1) {
+                    tree[node] = heavier(tree[2 * node], tree[2 * node + 1]);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return true;
+        }
+
+        List<SuggestionDto> topByPrefix(byte[] prefix, int limit) {
+            int from = lowerBound(prefix, false);
+            int to = lowerBound(prefix, true);
+            List<SuggestionDto> result = new ArrayList<>(Math.min(limit, Math.max(to - from, 0)));
+            if (from >= to) {
+                return result;
+            }
+            lock.readLock().lock();
+            try {
+                // Кандидаты — максимумы поддиапазонов; после выдачи максимума диапазон делится на две части.
+                PriorityQueue<int[]> candidates = new PriorityQueue<>((a, b) -> Integer.compare(weights[b[0]], weights[a[0]]));
+                candidates.add(new int[]{argMax(from, to), from, to});
+                while (!candidates.isEmpty() && result.size() < limit) {
+                    int[] best = candidates.poll();
+                    int index = best[0];
+                    if (weights[index] <= 0) {
+                        break;
+                    }
+                    result.add(new SuggestionDto(title(index), weights[index]));
+                    if (best[1] < index) {
+                        candidates.add(new int[]{argMax(best[1], index), best[1], index});
+                    }
+                    if (index + 1 < best[2]) {
+                        candidates.add(new int[]{argMax(index + 1, best[2]), index + 1, best[2]});
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            return result;
+        }
+
+        private int argMax(int from, int to) {
+            int best = -1;
+            for (int left = from + leaves, right = to + leaves; left < right; left >>= 1, right >>= 1) {
+                if ((left & 1) == 1) {
+                    best = heavier(best, tree[left++]);
+                }
+                if ((right & 1) == 1) {
+                    best = heavier(best, tree[--right]);
+                }
+            }
+            return best;
+        }
+
+        private int heavier(int a, int b) {
+            if (a < 0) return b;
+            if (b < 0) return a;
+            return weights[b] > weights[a] ? b : a;
+        }
+
+        /**
+         * Первый индекс, ключ которого не меньше {@code key}. При {@code pastPrefix} — первый ключ,
+         * который больше всех ключей, начинающихся с {@code key}.
+         */
+        private int lowerBound(byte[] key, boolean pastPrefix) {
+            int low = 0;
+            int high = size();
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                int comparison = compare(middle, key, pastPrefix);
+                if (comparison < 0 || (pastPrefix && comparison == 0)) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private int compare(int index, byte[] key, boolean prefixOnly) {
+            int start = offsets[index];
+            int end = offsets[index + 1];
+            if (prefixOnly) {
+                end = Math.min(end, start + key.length);
+            }
+            return Arrays.compareUnsigned(data, start, end, key, 0, key.length);
+        }
+
+        private String title(int index) {
+            return new String(data, offsets[index], offsets[index + 1] - offsets[index], StandardCharsets.UTF_8);
+        }
+    }
+}
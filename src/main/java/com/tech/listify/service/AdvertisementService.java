@@ -1,9 +1,13 @@
 package com.tech.listify.service;
 
+import com.tech.listify.dto.CursorPageResponseDto;
+import com.tech.listify.dto.FacetedPageResponseDto;
 import com.tech.listify.dto.PageResponseDto;
+import com.tech.listify.dto.SliceResponseDto;
 import com.tech.listify.dto.advertisementdto.*;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -12,11 +16,33 @@ public interface AdvertisementService {
 
     AdvertisementDetailDto getAdvertisementById(Long id);
 
+    AdvertisementBatchDto getAdvertisementsByIds(List<Long> ids);
+
     PageResponseDto<AdvertisementResponseDto> getAllActiveAdvertisements(Pageable pageable);
 
     AdvertisementDetailDto updateAdvertisement(Long id, AdvertisementUpdateDto updateDto, List<MultipartFile> images, String userEmail);
 
     PageResponseDto<AdvertisementResponseDto> searchAdvertisements(AdvertisementSearchCriteriaDto criteria, Pageable pageable);
 
+    FacetedPageResponseDto<AdvertisementResponseDto> searchAdvertisementsWithFacets(AdvertisementSearchCriteriaDto criteria, Pageable pageable);
+
+    PageResponseDto<AdvertisementResponseDto> getAllActiveAdvertisementsApproximate(Pageable pageable);
+
+    PageResponseDto<AdvertisementResponseDto> searchAdvertisementsApproximate(AdvertisementSearchCriteriaDto criteria, Pageable pageable);
+
+    List<SuggestionDto> suggestTitles(String query, int limit);
+
+    SliceResponseDto<AdvertisementResponseDto> sliceActiveAdvertisements(Pageable pageable);
+
+    SliceResponseDto<AdvertisementResponseDto> sliceAdvertisements(AdvertisementSearchCriteriaDto criteria, Pageable pageable);
+
+    CursorPageResponseDto<AdvertisementResponseDto> scrollActiveAdvertisements(String cursor, int size);
+
+    CursorPageResponseDto<AdvertisementResponseDto> scrollAdvertisements(AdvertisementSearchCriteriaDto criteria, String cursor, int size);
+
+    StreamingResponseBody exportAdvertisements(AdvertisementSearchCriteriaDto criteria);
+
+    CursorPageResponseDto<AdvertisementResponseDto> getSellerAdvertisements(Long sellerId, String cursor, int size);
+
     void deleteAdvertisement(Long id, String userEmail);
 }
@@ -6,6 +6,7 @@ import com.tech.listify.dto.categorydto.CategoryTreeDto;
 import com.tech.listify.model.Category;
 
 import java.util.List;
+import java.util.Set;
 
 public interface CategoryService {
     CategoryDto findCategoryById(Integer id);
@@ -15,4 +16,8 @@ public interface CategoryService {
     List<CategoryDto> createCategories(List<CategoryCreateDto> createDtos);
 
     List<CategoryTreeDto> getCategoryTree();
+
+    Set<Integer> findDescendantCategoryIds(Integer categoryId);
+
+    Set<Integer> findAncestorCategoryIds(Integer categoryId);
 }
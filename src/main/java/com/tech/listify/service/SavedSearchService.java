@@ -0,0 +1,19 @@
+package com.tech.listify.service;
+
+import com.tech.listify.dto.PageResponseDto;
+import com.tech.listify.dto.savedsearchdto.SavedSearchCreateDto;
+import com.tech.listify.dto.savedsearchdto.SavedSearchDto;
+import com.tech.listify.dto.savedsearchdto.SavedSearchNotificationDto;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+public interface SavedSearchService {
+    SavedSearchDto createSavedSearch(SavedSearchCreateDto createDto, String userEmail);
+
+    List<SavedSearchDto> getMySavedSearches(String userEmail);
+
+    void deleteSavedSearch(Long id, String userEmail);
+
+    PageResponseDto<SavedSearchNotificationDto> getMyNotifications(String userEmail, Pageable pageable);
+}
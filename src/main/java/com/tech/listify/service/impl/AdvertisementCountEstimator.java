@@ -0,0 +1,66 @@
+package com.tech.listify.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tech.listify.cache.SearchCacheKeys;
+import com.tech.listify.dto.advertisementdto.AdvertisementSearchCriteriaDto;
+import com.tech.listify.repository.AdvertisementRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Приблизительные итоги для постраничной выдачи.
+ * <p>
+ * Для ленты без фильтров используется оценка планировщика PostgreSQL, для поиска — точный
+ * {@code count(*)}, закэшированный в памяти узла по каноническому виду критериев
+ * ({@link SearchCacheKeys#canonical(AdvertisementSearchCriteriaDto)}).
+ */
+@Service
+@Slf4j
+public class AdvertisementCountEstimator {
+
+    private final AdvertisementRepository advertisementRepository;
+    private final Cache<String, Long> searchCounts;
+
+    public AdvertisementCountEstimator(AdvertisementRepository advertisementRepository,
+                                       @Value("${app.search.approximate-count.ttl:5m}") Duration ttl,
+                                       @Value("${app.search.approximate-count.max-entries:10000}") long maxEntries) {
+        this.advertisementRepository = advertisementRepository;
+        this.searchCounts = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    public long estimateActiveCount() {
+        return advertisementRepository.estimateActiveCount();
+    }
+
+    public long estimateSearchCount(AdvertisementSearchCriteriaDto criteria, LongSupplier exactCount) {
+        if (!hasFilters(criteria)) {
+            return estimateActiveCount();
+        }
+        return searchCounts.get(SearchCacheKeys.canonical(criteria), key -> {
+            log.debug("Approximate count cache miss for criteria: {}", key);
+            return exactCount.getAsLong();
+        });
+    }
+
+    private boolean hasFilters(AdvertisementSearchCriteriaDto criteria) {
+        return criteria != null && (StringUtils.hasText(criteria.keyword())
+                || criteria.categoryId() != null
+                || criteria.regionId() != null
+                || criteria.districtId() != null
+                || criteria.cityId() != null
+                || criteria.minPrice() != null
+                || criteria.maxPrice() != null
+                || criteria.condition() != null
+                || criteria.sellerId() != null
+                || criteria.hasGeoFilter());
+    }
+}
@@ -0,0 +1,144 @@
+package com.tech.listify.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.tech.listify.dto.advertisementdto.AdvertisementResponseDto;
+import com.tech.listify.exception.TooManyRequestsException;
+import com.tech.listify.model.Advertisement;
+import com.tech.listify.repository.AdvertisementRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Выгрузка всех объявлений выборки в NDJSON (по объекту JSON на строку).
+ * <p>
+ * Строки читаются серверным курсором порциями по {@code app.export.fetch-size} и сразу пишутся в ответ,
+ * поэтому память не зависит от размера выборки. Запись блокируется, пока клиент не вычитает буфер
+ * сокета, и чтение из БД приостанавливается вместе с ней. Каждая выгрузка держит соединение с БД
+ * до конца передачи, поэтому их число на узле ограничено {@code app.export.max-concurrent}.
+ */
+@Service
+@Slf4j
+public class AdvertisementExporter {
+
+    private final AdvertisementRepository advertisementRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectWriter writer;
+    private final Semaphore permits;
+    private final int fetchSize;
+
+    public AdvertisementExporter(AdvertisementRepository advertisementRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper,
+                                 @Value("${app.export.max-concurrent:4}") int maxConcurrent,
+                                 @Value("${app.export.fetch-size:500}") int fetchSize) {
+        this.advertisementRepository = advertisementRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // Строки разделяются переводом строки, который пишется явно, а не пробелом между корневыми значениями.
+        this.writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator((String) null);
+        this.permits = new Semaphore(maxConcurrent);
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Резервирует место для выгрузки сразу, чтобы отказ вернулся обычным ответом об ошибке, а не
+     * оборванным потоком. {@code beforeRead} выполняется в транзакции выгрузки перед запросом.
+     * <p>
+     * Тело ответа может так и не запуститься (таймаут асинхронного запроса, отказ пула, обрыв соединения
+     * до старта), поэтому место освобождается и по завершении асинхронной обработки запроса.
+     */
+    public StreamingResponseBody export(Specification<Advertisement> specification, Sort sort,
+                                        Consumer<AdvertisementRepository> beforeRead) {
+        if (!permits.tryAcquire()) {
+            throw new TooManyRequestsException("Слишком много одновременных выгрузок. Повторите запрос позже.");
+        }
+        Runnable release = releaseOnce();
+        releaseOnAsyncCompletion(release);
+        return outputStream -> {
+            try (JsonGenerator generator = writer.createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                long rows = readOnlyTransaction.execute(status -> {
+                    beforeRead.accept(advertisementRepository);
+                    try (Stream<AdvertisementResponseDto> stream = advertisementRepository.streamResponses(specification, sort, fetchSize)) {
+                        return write(stream.iterator(), generator);
+                    }
+                });
+                log.info("Exported {} advertisements", rows);
+            } catch (UncheckedIOException e) {
+                log.debug("Advertisement export aborted: {}", e.getMessage());
+                throw e.getCause();
+            } finally {
+                release.run();
+            }
+        };
+    }
+
+    private Runnable releaseOnce() {
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        };
+    }
+
+    /**
+     * Вне обработки HTTP-запроса (например, в тестах) освобождение остаётся только за самим телом ответа.
+     */
+    private void releaseOnAsyncCompletion(Runnable release) {
+        if (RequestContextHolder.getRequestAttributes() == null) {
+            return;
+        }
+        WebAsyncUtils.getAsyncManager(RequestContextHolder.currentRequestAttributes())
+                .registerCallableInterceptor(AdvertisementExporter.class.getName(), new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+                        release.run();
+                    }
+                });
+    }
+
+    /**
+     * Буфер сбрасывается в сокет после каждой порции курсора, а не после каждой строки.
+     */
+    private long write(Iterator<AdvertisementResponseDto> rows, JsonGenerator generator) {
+        long count = 0;
+        try {
+            while (rows.hasNext()) {
+                writer.writeValue(generator, rows.next());
+                generator.writeRaw('\n');
+                if (++count % fetchSize == 0) {
+                    generator.flush();
+                }
+            }
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count;
+    }
+}
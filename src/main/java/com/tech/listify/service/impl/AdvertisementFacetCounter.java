@@ -0,0 +1,105 @@
+package com.tech.listify.service.impl;
+
+import com.tech.listify.dto.advertisementdto.FacetCountDto;
+import com.tech.listify.dto.advertisementdto.SearchFacetsDto;
+import com.tech.listify.model.Advertisement;
+import com.tech.listify.model.enums.AdvertisementCondition;
+import com.tech.listify.model.enums.PriceRange;
+import com.tech.listify.repository.AdvertisementFacetCount;
+import com.tech.listify.repository.AdvertisementRepository;
+import com.tech.listify.repository.specification.AdvertisementSpecification;
+import com.tech.listify.service.CategoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Фасеты поиска: количество результатов по категориям, городам, состоянию и ценовым диапазонам.
+ * <p>
+ * Все четыре распределения получаются из одной сгруппированной агрегации и сворачиваются в памяти.
+ * Фасеты ленты без фильтров и с фильтром только по категории кэшируются.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AdvertisementFacetCounter {
+
+    private final AdvertisementRepository advertisementRepository;
+    private final CategoryService categoryService;
+
+    @Transactional(readOnly = true)
+    public SearchFacetsDto countFacets(Specification<Advertisement> specification) {
+        List<AdvertisementFacetCount> rows = advertisementRepository.aggregateFacets(specification);
+        log.debug("Facet aggregation returned {} groups", rows.size());
+        return rollUp(rows);
+    }
+
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = "advertisement_facets", key = "#categoryId ?: 'all'")
+    public SearchFacetsDto countActiveFacets(Integer categoryId) {
+        log.debug("Computing facets for active advertisements, category ID: {}", categoryId);
+        Specification<Advertisement> specification = AdvertisementSpecification.isActive();
+        if (categoryId != null) {
+            specification = specification.and(AdvertisementSpecification.inCategories(
+                    categoryService.findDescendantCategoryIds(categoryId)));
+        }
+        return countFacets(specification);
+    }
+
+    private SearchFacetsDto rollUp(List<AdvertisementFacetCount> rows) {
+        Map<Integer, FacetAccumulator> categories = new LinkedHashMap<>();
+        Map<Integer, FacetAccumulator> cities = new LinkedHashMap<>();
+        Map<AdvertisementCondition, Long> conditions = new EnumMap<>(AdvertisementCondition.class);
+        Map<PriceRange, Long> priceRanges = new EnumMap<>(PriceRange.class);
+
+        for (AdvertisementFacetCount row : rows) {
+            categories.computeIfAbsent(row.categoryId(), id -> new FacetAccumulator(row.categoryName())).add(row.count());
+            cities.computeIfAbsent(row.cityId(), id -> new FacetAccumulator(row.cityName())).add(row.count());
+            if (row.condition() != null) {
+                conditions.merge(row.condition(), row.count(), Long::sum);
+            }
+            if (row.priceRange() != null) {
+                priceRanges.merge(PriceRange.values()[row.priceRange()], row.count(), Long::sum);
+            }
+        }
+
+        return new SearchFacetsDto(
+                byCountDesc(categories),
+                byCountDesc(cities),
+                conditions.entrySet().stream()
+                        .map(e -> new FacetCountDto(e.getKey().name(), e.getKey().getDisplayName(), e.getValue()))
+                        .toList(),
+                priceRanges.entrySet().stream()
+                        .map(e -> new FacetCountDto(e.getKey().name(), e.getKey().getDisplayName(), e.getValue()))
+                        .toList());
+    }
+
+    private List<FacetCountDto> byCountDesc(Map<Integer, FacetAccumulator> facets) {
+        return facets.entrySet().stream()
+                .map(e -> new FacetCountDto(String.valueOf(e.getKey()), e.getValue().label, e.getValue().count))
+                .sorted(Comparator.comparingLong(FacetCountDto::count).reversed())
+                .toList();
+    }
+
+    private static final class FacetAccumulator {
+        private final String label;
+        private long count;
+
+        private FacetAccumulator(String label) {
+            this.label = label;
+        }
+
+        private void add(long value) {
+            count += value;
+        }
+    }
+}
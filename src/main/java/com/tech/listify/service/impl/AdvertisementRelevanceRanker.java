@@ -0,0 +1,179 @@
+package com.tech.listify.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tech.listify.cache.LocalStateInvalidator;
+import com.tech.listify.dto.advertisementdto.AdvertisementResponseDto;
+import com.tech.listify.dto.advertisementdto.RankingWeightsDto;
+import com.tech.listify.exception.InvalidRequestParameterException;
+import com.tech.listify.repository.RelevanceCandidate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Ранжирование для {@code sort=relevance}: итоговая оценка объявления —
+ * {@code wText * rank / maxRank + wRecency * 2^(-возраст / период полураспада) + wPopularity * ln(1 + просмотры) / ln(1 + maxПросмотры)}.
+ * <p>
+ * Оценка не выражается индексом, поэтому из БД по индексу берется ограниченный набор лучших
+ * по тексту (или самых свежих) кандидатов, а переранжируется он в памяти. Текстовый ранг
+ * и популярность нормируются по этому набору.
+ * <p>
+ * Веса меняются во время работы через {@link #updateWeights}. Они хранятся в Redis и общие для всех узлов:
+ * изменение рассылается через {@link LocalStateInvalidator}, а каждые {@code app.search.ranking.reload-interval}
+ * узел перечитывает веса сам на случай потерянной рассылки. Без сохраненных весов действуют значения
+ * из конфигурации. {@link #weightsVersion()} входит в ключ кэша страниц с {@code sort=relevance},
+ * поэтому страницы, ранжированные прежними весами, после изменения не отдаются.
+ */
+@Service
+@Slf4j
+public class AdvertisementRelevanceRanker {
+
+    public static final String SORT_PROPERTY = "relevance";
+
+    private static final String WEIGHTS_KEY = "search-ranking:weights";
+    private static final String STATE_NAME = "search-ranking-weights";
+
+    private final AdvertisementViewCounter viewCounter;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final LocalStateInvalidator invalidator;
+    private final RankingWeightsDto defaults;
+    private final AtomicReference<RankingWeightsDto> weights;
+
+    public AdvertisementRelevanceRanker(AdvertisementViewCounter viewCounter,
+                                        ObjectProvider<StringRedisTemplate> redisTemplate,
+                                        ObjectMapper objectMapper,
+                                        LocalStateInvalidator invalidator,
+                                        @Value("${app.search.ranking.text-weight:0.6}") double textWeight,
+                                        @Value("${app.search.ranking.recency-weight:0.3}") double recencyWeight,
+                                        @Value("${app.search.ranking.popularity-weight:0.1}") double popularityWeight,
+                                        @Value("${app.search.ranking.recency-half-life:72h}") Duration recencyHalfLife,
+                                        @Value("${app.search.ranking.candidate-limit:500}") int candidateLimit) {
+        this.viewCounter = viewCounter;
+        this.redisTemplate = redisTemplate.getIfAvailable();
+        this.objectMapper = objectMapper;
+        this.invalidator = invalidator;
+        this.defaults = new RankingWeightsDto(textWeight, recencyWeight, popularityWeight,
+                recencyHalfLife.toMinutes() / 60.0, candidateLimit);
+        validate(defaults);
+        this.weights = new AtomicReference<>(defaults);
+        invalidator.subscribe(STATE_NAME, keys -> reload());
+    }
+
+    public RankingWeightsDto getWeights() {
+        return weights.get();
+    }
+
+    /**
+     * Сохраняет веса для всех узлов. Если Redis недоступен, ошибка пробрасывается и веса не меняются,
+     * чтобы узлы не ранжировали по разным весам.
+     */
+    public RankingWeightsDto updateWeights(RankingWeightsDto newWeights) {
+        validate(newWeights);
+        if (redisTemplate != null) {
+            try {
+                redisTemplate.opsForValue().set(WEIGHTS_KEY, objectMapper.writeValueAsString(newWeights));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Не удалось сериализовать веса ранжирования", e);
+            }
+        }
+        RankingWeightsDto previous = weights.getAndSet(newWeights);
+        log.info("Search ranking weights changed from {} to {}", previous, newWeights);
+        invalidator.invalidate(STATE_NAME, null);
+        return newWeights;
+    }
+
+    /**
+     * Перечитывает общие веса из Redis; выполняется при старте, по рассылке об изменении и периодически.
+     * При ошибке чтения узел оставляет текущие веса.
+     */
+    @Scheduled(fixedDelayString = "${app.search.ranking.reload-interval:1m}")
+    public void reload() {
+        if (redisTemplate == null) {
+            return;
+        }
+        RankingWeightsDto stored;
+        try {
+            String value = redisTemplate.opsForValue().get(WEIGHTS_KEY);
+            stored = value != null ? objectMapper.readValue(value, RankingWeightsDto.class) : defaults;
+            validate(stored);
+        } catch (DataAccessException e) {
+            log.warn("Failed to read search ranking weights from Redis, keeping current ones: {}", e.getMessage());
+            return;
+        } catch (JsonProcessingException | InvalidRequestParameterException e) {
+            log.warn("Ignoring invalid search ranking weights stored in Redis: {}", e.getMessage());
+            return;
+        }
+        RankingWeightsDto previous = weights.getAndSet(stored);
+        if (!stored.equals(previous)) {
+            log.info("Search ranking weights reloaded: {} (were {})", stored, previous);
+        }
+    }
+
+    /**
+     * Одинакова на узлах с одинаковыми весами и меняется вместе с ними.
+     */
+    public String weightsVersion() {
+        RankingWeightsDto current = weights.get();
+        return current.textWeight() + "," + current.recencyWeight() + "," + current.popularityWeight() + ","
+                + current.recencyHalfLifeHours() + "," + current.candidateLimit();
+    }
+
+    /**
+     * Кандидаты в порядке убывания итоговой оценки; при равной оценке сначала более новые.
+     */
+    public List<AdvertisementResponseDto> rank(List<RelevanceCandidate> candidates, OffsetDateTime now) {
+        RankingWeightsDto current = weights.get();
+        int size = candidates.size();
+        long[] views = new long[size];
+        double maxRank = 0;
+        long maxViews = 0;
+        for (int i = 0; i < size; i++) {
+            RelevanceCandidate candidate = candidates.get(i);
+            views[i] = candidate.viewCount() + viewCounter.pending(candidate.advertisement().id());
+            maxRank = Math.max(maxRank, candidate.textRank());
+            maxViews = Math.max(maxViews, views[i]);
+        }
+        double maxLogViews = Math.log1p(maxViews);
+        double halfLifeMillis = current.recencyHalfLifeHours() * 3_600_000;
+
+        ScoredAdvertisement[] scored = new ScoredAdvertisement[size];
+        for (int i = 0; i < size; i++) {
+            RelevanceCandidate candidate = candidates.get(i);
+            AdvertisementResponseDto advertisement = candidate.advertisement();
+            double text = maxRank > 0 ? candidate.textRank() / maxRank : 0;
+            long ageMillis = Math.max(0, Duration.between(advertisement.createdAt(), now).toMillis());
+            double recency = Math.pow(2, -ageMillis / halfLifeMillis);
+            double popularity = maxLogViews > 0 ? Math.log1p(views[i]) / maxLogViews : 0;
+            double score = current.textWeight() * text + current.recencyWeight() * recency + current.popularityWeight() * popularity;
+            scored[i] = new ScoredAdvertisement(advertisement, score);
+        }
+        return Arrays.stream(scored)
+                .sorted(Comparator.comparingDouble(ScoredAdvertisement::score).reversed()
+                        .thenComparing(scoredAd -> scoredAd.advertisement().createdAt(), Comparator.reverseOrder())
+                        .thenComparing(scoredAd -> scoredAd.advertisement().id(), Comparator.reverseOrder()))
+                .map(ScoredAdvertisement::advertisement)
+                .toList();
+    }
+
+    private static void validate(RankingWeightsDto weights) {
+        if (weights.textWeight() + weights.recencyWeight() + weights.popularityWeight() <= 0) {
+            throw new InvalidRequestParameterException("Хотя бы один вес ранжирования должен быть больше 0");
+        }
+    }
+
+    private record ScoredAdvertisement(AdvertisementResponseDto advertisement, double score) {
+    }
+}
@@ -1,15 +1,28 @@
 package com.tech.listify.service.impl;
 
+import com.tech.listify.cache.AdvertisementCacheKeyGenerator;
+import com.tech.listify.cache.AdvertisementDetailCache;
+import com.tech.listify.cache.SellerAdvertisementsCacheKeyGenerator;
+import com.tech.listify.dto.CursorPageResponseDto;
+import com.tech.listify.dto.FacetedPageResponseDto;
 import com.tech.listify.dto.PageResponseDto;
+import com.tech.listify.dto.SliceResponseDto;
 import com.tech.listify.dto.advertisementdto.*;
 import com.tech.listify.dto.categorydto.CategoryDto;
+import com.tech.listify.event.AdvertisementChangedEvent;
+import com.tech.listify.event.AdvertisementSnapshot;
 import com.tech.listify.exception.FileStorageException;
+import com.tech.listify.exception.InvalidRequestParameterException;
 import com.tech.listify.exception.ResourceNotFoundException;
 import com.tech.listify.mapper.AdvertisementMapper;
 import com.tech.listify.model.*;
 import com.tech.listify.model.enums.AdvertisementStatus;
 import com.tech.listify.repository.*;
+import com.tech.listify.repository.specification.AdvertisementCursor;
 import com.tech.listify.repository.specification.AdvertisementSpecification;
+import com.tech.listify.search.AdvertisementSearchIndex;
+import com.tech.listify.search.CityGeoIndex;
+import com.tech.listify.search.TitleSuggestIndex;
 import com.tech.listify.service.AdvertisementService;
 import com.tech.listify.service.CategoryService;
 import com.tech.listify.service.LocationService;
@@ -17,20 +30,29 @@ import com.tech.listify.service.FileStorageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.annotations.Cache;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import com.tech.listify.exception.FileStorageException.ErrorType;
 
 import java.io.IOException;
+import java.time.OffsetDateTime;
 import java.util.*;
 
 @Service
@@ -38,6 +60,14 @@ import java.util.*;
 @Slf4j
 public class AdvertisementServiceImpl implements AdvertisementService {
 
+    private static final String RELEVANCE_SORT = AdvertisementRelevanceRanker.SORT_PROPERTY;
+    private static final String DISTANCE_SORT = "distance";
+    private static final double MAX_RADIUS_KM = 500;
+    private static final int MAX_SCROLL_SIZE = 100;
+    private static final int MAX_SUGGESTIONS = 20;
+    private static final int MAX_BATCH_IDS = 50;
+    private static final Sort KEYSET_SORT = Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id"));
+
     private final AdvertisementRepository advertisementRepository;
     private final UserRepository userRepository;
     private final CategoryService categoryService;
@@ -45,13 +75,22 @@ public class AdvertisementServiceImpl implements AdvertisementService {
     private final CityRepository cityRepository;
     private final AdvertisementMapper advertisementMapper;
     private final FileStorageService fileStorageService;
+    private final AdvertisementCountEstimator countEstimator;
+    private final AdvertisementFacetCounter facetCounter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectProvider<AdvertisementSearchIndex> searchIndex;
+    private final TitleSuggestIndex titleSuggestIndex;
+    private final CityGeoIndex cityGeoIndex;
+    private final AdvertisementDetailCache detailCache;
+    private final AdvertisementExporter exporter;
+    private final AdvertisementRelevanceRanker relevanceRanker;
+    private final AdvertisementViewCounter viewCounter;
+
+    @Value("${app.search.fuzzy.similarity-threshold:0.4}")
+    private double fuzzySimilarityThreshold;
 
     @Override
     @Transactional
-    @Caching(evict = {
-            @CacheEvict(cacheNames = "active_advertisements", allEntries = true),
-            @CacheEvict(cacheNames = "advertisements_search", allEntries = true)
-    })
     public AdvertisementDetailDto createAdvertisement(AdvertisementCreateDto createDto, List<MultipartFile> images, String sellerEmail) {
         log.info("Creating new advertisement '{}' for user {}", createDto.title(), sellerEmail);
         User seller = userRepository.findByEmail(sellerEmail).orElseThrow(() -> {
@@ -66,7 +105,7 @@ public class AdvertisementServiceImpl implements AdvertisementService {
 
         newAd.setSeller(seller);
         newAd.setCategory(category);
-        newAd.setCity(city);
+        assignCity(newAd, city);
         newAd.setStatus(AdvertisementStatus.ACTIVE);
         log.debug("Advertisement entity populated with seller, category, city, status.");
 
@@ -75,37 +114,85 @@ public class AdvertisementServiceImpl implements AdvertisementService {
 
         List<AdvertisementImage> savedImageEntities = processAndSaveImages(images, savedAd);
         savedAd.setImages(savedImageEntities);
+        savedAd.setPreviewImageUrl(determinePreviewUrl(savedAd));
         log.info("Successfully created advertisement with ID: {} including {} images.", savedAd.getId(), savedImageEntities.size());
+        eventPublisher.publishEvent(AdvertisementChangedEvent.created(snapshot(savedAd)));
 
         return advertisementMapper.toAdvertisementDetailDto(savedAd);
     }
 
+    /**
+     * Карточка берется из кэша {@code advertisements}, а при промахе загружается одним запросом со всеми
+     * связями; одновременные промахи по одному ID загружают ее один раз. Каждый вызов учитывается как
+     * просмотр; счетчик берется из записанного в БД и добавляются просмотры, еще не записанные в БД.
+     */
     @Override
-    @Transactional(readOnly = true)
-    @Cacheable(value = "advertisements", key = "#id")
     public AdvertisementDetailDto getAdvertisementById(Long id) {
         log.debug("Fetching advertisement with ID: {}", id);
-        Advertisement ad = findAdvertisementByIdOrThrow(id);
-        return advertisementMapper.toAdvertisementDetailDto(ad);
+        AdvertisementDetailDto detail = detailCache.get(id, () -> advertisementRepository.findDetailsByIdIn(List.of(id)).stream()
+                .findFirst()
+                .map(advertisementMapper::toAdvertisementDetailDto)
+                .orElseThrow(() -> new ResourceNotFoundException("Объявление с ID " + id + " не найдено.")));
+        viewCounter.increment(id);
+        return withCurrentViews(detail, detailCache.getViewCounts(List.of(id)));
+    }
+
+    /**
+     * Карточки берутся из кэша {@code advertisements} одним пакетным чтением, промахи загружаются одним
+     * запросом со всеми связями и дописываются в кэш. Повторяющиеся ID возвращаются один раз.
+     * <p>
+     * Метод не транзакционный: соединение с БД занимает только {@code findDetailsByIdIn} в транзакции
+     * репозитория, а не обращения к Redis до и после него.
+     */
+    @Override
+    public AdvertisementBatchDto getAdvertisementsByIds(List<Long> ids) {
+        List<Long> distinctIds = ids == null ? List.of() : ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinctIds.isEmpty()) {
+            throw new InvalidRequestParameterException("Не указаны ID объявлений.");
+        }
+        if (distinctIds.size() > MAX_BATCH_IDS) {
+            throw new InvalidRequestParameterException("Можно запросить не более " + MAX_BATCH_IDS + " объявлений за раз.");
+        }
+        Map<Long, AdvertisementDetailDto> details = new HashMap<>(detailCache.getAll(distinctIds));
+        List<Long> misses = distinctIds.stream().filter(id -> !details.containsKey(id)).toList();
+        if (!misses.isEmpty()) {
+            Map<Long, AdvertisementDetailDto> loaded = new HashMap<>();
+            for (Advertisement ad : advertisementRepository.findDetailsByIdIn(misses)) {
+                loaded.put(ad.getId(), advertisementMapper.toAdvertisementDetailDto(ad));
+            }
+            detailCache.putAll(loaded);
+            details.putAll(loaded);
+            log.debug("Advertisements by IDs: {} cache hits, {} of {} misses loaded from database",
+                    distinctIds.size() - misses.size(), loaded.size(), misses.size());
+        }
+
+        Map<Long, Long> viewCounts = detailCache.getViewCounts(List.copyOf(details.keySet()));
+        List<AdvertisementDetailDto> found = new ArrayList<>(details.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : distinctIds) {
+            AdvertisementDetailDto detail = details.get(id);
+            if (detail != null) {
+                found.add(withCurrentViews(detail, viewCounts));
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new AdvertisementBatchDto(found, missingIds);
     }
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable("active_advertisements")
+    @Cacheable(cacheNames = "active_advertisements", keyGenerator = AdvertisementCacheKeyGenerator.NAME, sync = true)
     public PageResponseDto<AdvertisementResponseDto> getAllActiveAdvertisements(Pageable pageable) {
         log.debug("Fetching all active advertisements, page: {}, size: {}", pageable.getPageNumber(), pageable.getPageSize());
-        Page<Advertisement> activeAdsPage = advertisementRepository.findByStatus(AdvertisementStatus.ACTIVE, pageable);
+        Page<AdvertisementResponseDto> activeAdsPage = advertisementRepository.findResponsePage(AdvertisementSpecification.isActive(), pageable);
         log.debug("Found {} active advertisements on page {}", activeAdsPage.getNumberOfElements(), pageable.getPageNumber());
-        return PageResponseDto.fromPage(activeAdsPage.map(this::mapToDtoWithPreview));
+        return PageResponseDto.fromPage(activeAdsPage);
     }
 
     @Override
     @Transactional
-    @Caching(evict = {
-            @CacheEvict(cacheNames = "advertisements", key = "#id"),
-            @CacheEvict(cacheNames = "active_advertisements", allEntries = true),
-            @CacheEvict(cacheNames = "advertisements_search", allEntries = true)
-    })
+    @CacheEvict(cacheNames = "advertisements", key = "#id")
     public void deleteAdvertisement(Long id, String userEmail) {
         log.info("Attempting to delete advertisement with ID: {} by user: {}", id, userEmail);
         Advertisement advertisement = findAdvertisementByIdOrThrow(id);
@@ -114,6 +201,7 @@ public class AdvertisementServiceImpl implements AdvertisementService {
             log.warn("Access denied for user {} to delete advertisement ID {}", userEmail, id);
             throw new AccessDeniedException("Вы не можете удалять это объявление.");
         }
+        AdvertisementSnapshot before = snapshot(advertisement);
 
         List<AdvertisementImage> imagesToDelete = advertisement.getImages();
 
@@ -125,33 +213,27 @@ public class AdvertisementServiceImpl implements AdvertisementService {
             }
         }
         advertisementRepository.delete(advertisement);
+        eventPublisher.publishEvent(AdvertisementChangedEvent.deleted(before));
         log.info("Successfully deleted advertisement with ID: {}", id);
     }
 
     @Override
     @Transactional
-    @Caching(
-            evict = {
-                    @CacheEvict(cacheNames = "active_advertisements", allEntries = true),
-                    @CacheEvict(cacheNames = "advertisements_search", allEntries = true)
-            },
-            put = {
-                    @CachePut(cacheNames = "advertisements", key = "#id")
-            }
-    )
+    @CachePut(cacheNames = "advertisements", key = "#id")
     public AdvertisementDetailDto updateAdvertisement(Long id, AdvertisementUpdateDto updateDto, List<MultipartFile> newImageFiles, String userEmail) {
         log.info("Attempting to update advertisement with ID: {} by user: {}", id, userEmail);
 
         Advertisement ad = findAdvertisementByIdOrThrow(id);
 
         checkOwnership(ad, userEmail);
+        AdvertisementSnapshot before = snapshot(ad);
 
         advertisementMapper.updateAdvertisementFromDto(updateDto, ad);
         if (updateDto.categoryId() != null) {
             ad.setCategory(categoryRepository.findById(updateDto.categoryId()).orElseThrow(() -> new ResourceNotFoundException("Категория с id: " + updateDto.categoryId() + " не найдена")));
         }
         if (updateDto.cityId() != null) {
-            ad.setCity(cityRepository.findById(updateDto.cityId()).orElseThrow(() -> new ResourceNotFoundException("Город с id " + updateDto.cityId() + " не найден")));
+            assignCity(ad, cityRepository.findById(updateDto.cityId()).orElseThrow(() -> new ResourceNotFoundException("Город с id " + updateDto.cityId() + " не найден")));
         }
 
         if (updateDto.imageIdsToDelete() != null && !updateDto.imageIdsToDelete().isEmpty()) {
@@ -164,37 +246,322 @@ public class AdvertisementServiceImpl implements AdvertisementService {
         }
 
         ensurePreviewImageExists(ad);
+        ad.setPreviewImageUrl(determinePreviewUrl(ad));
 
         Advertisement savedAd = advertisementRepository.save(ad);
         log.info("Successfully updated advertisement with ID: {}", savedAd.getId());
+        eventPublisher.publishEvent(AdvertisementChangedEvent.updated(before, snapshot(savedAd)));
 
         return advertisementMapper.toAdvertisementDetailDto(savedAd);
     }
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable("advertisements_search")
+    @Cacheable(cacheNames = "advertisements_search", keyGenerator = AdvertisementCacheKeyGenerator.NAME, sync = true)
     public PageResponseDto<AdvertisementResponseDto> searchAdvertisements(AdvertisementSearchCriteriaDto criteria, Pageable pageable) {
         log.debug("Searching advertisements with criteria: {} and pageable: {}", criteria, pageable);
-        Specification<Advertisement> specification = AdvertisementSpecification.fromCriteria(criteria);
-        Page<Advertisement> advertisementPage = advertisementRepository.findAll(specification, pageable);
+        return search(criteria, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public FacetedPageResponseDto<AdvertisementResponseDto> searchAdvertisementsWithFacets(AdvertisementSearchCriteriaDto criteria, Pageable pageable) {
+        log.debug("Searching advertisements with facets, criteria: {} and pageable: {}", criteria, pageable);
+        PageResponseDto<AdvertisementResponseDto> page = search(criteria, pageable);
+        SearchFacetsDto facets;
+        if (hasOnlyCategoryFilter(criteria)) {
+            facets = facetCounter.countActiveFacets(criteria != null ? criteria.categoryId() : null);
+        } else {
+            applyFuzzyThreshold(criteria);
+            facets = facetCounter.countFacets(buildSpecification(criteria));
+        }
+        return FacetedPageResponseDto.of(page, facets);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponseDto<AdvertisementResponseDto> getAllActiveAdvertisementsApproximate(Pageable pageable) {
+        log.debug("Fetching active advertisements with approximate total, page: {}, size: {}", pageable.getPageNumber(), pageable.getPageSize());
+        Slice<AdvertisementResponseDto> slice = advertisementRepository.findResponseSlice(AdvertisementSpecification.isActive(), pageable);
+        return toApproximatePage(slice, countEstimator.estimateActiveCount());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponseDto<AdvertisementResponseDto> searchAdvertisementsApproximate(AdvertisementSearchCriteriaDto criteria, Pageable pageable) {
+        log.debug("Searching advertisements with approximate total, criteria: {} and pageable: {}", criteria, pageable);
+        SearchQuery searchQuery = prepareSearch(criteria, pageable);
+        Slice<AdvertisementResponseDto> slice = advertisementRepository.findResponseSlice(searchQuery.specification(), searchQuery.pageable());
+        long estimate = countEstimator.estimateSearchCount(criteria, () -> advertisementRepository.count(searchQuery.specification()));
+        return toApproximatePage(slice, estimate);
+    }
+
+    @Override
+    public List<SuggestionDto> suggestTitles(String query, int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new InvalidRequestParameterException("Количество подсказок должно быть от 1 до " + MAX_SUGGESTIONS);
+        }
+        return titleSuggestIndex.suggest(query, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SliceResponseDto<AdvertisementResponseDto> sliceActiveAdvertisements(Pageable pageable) {
+        log.debug("Fetching active advertisements slice, page: {}, size: {}", pageable.getPageNumber(), pageable.getPageSize());
+        return SliceResponseDto.fromSlice(advertisementRepository.findResponseSlice(AdvertisementSpecification.isActive(), pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SliceResponseDto<AdvertisementResponseDto> sliceAdvertisements(AdvertisementSearchCriteriaDto criteria, Pageable pageable) {
+        log.debug("Searching advertisements slice with criteria: {} and pageable: {}", criteria, pageable);
+        SearchQuery searchQuery = prepareSearch(criteria, pageable);
+        return SliceResponseDto.fromSlice(advertisementRepository.findResponseSlice(searchQuery.specification(), searchQuery.pageable()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponseDto<AdvertisementResponseDto> scrollActiveAdvertisements(String cursor, int size) {
+        log.debug("Scrolling active advertisements after cursor: {}, size: {}", cursor, size);
+        return scroll(AdvertisementSpecification.isActive(), cursor, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponseDto<AdvertisementResponseDto> scrollAdvertisements(AdvertisementSearchCriteriaDto criteria, String cursor, int size) {
+        log.debug("Scrolling advertisements with criteria: {} after cursor: {}, size: {}", criteria, cursor, size);
+        applyFuzzyThreshold(criteria);
+        return scroll(buildSpecification(criteria), cursor, size);
+    }
+
+    /**
+     * Активные объявления продавца, сначала новые. Запрос фильтрует по внешнему ключу без соединения
+     * с пользователями и читается индексом {@code (seller_id, status, created_at DESC, id DESC)};
+     * страницы кэшируются под тегом продавца.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = "seller_advertisements", keyGenerator = SellerAdvertisementsCacheKeyGenerator.NAME, sync = true)
+    public CursorPageResponseDto<AdvertisementResponseDto> getSellerAdvertisements(Long sellerId, String cursor, int size) {
+        log.debug("Fetching advertisements of seller {} after cursor: {}, size: {}", sellerId, cursor, size);
+        if (!userRepository.existsById(sellerId)) {
+            throw new ResourceNotFoundException("Пользователь с ID " + sellerId + " не найден.");
+        }
+        return scroll(AdvertisementSpecification.isActive().and(AdvertisementSpecification.bySeller(sellerId)), cursor, size);
+    }
+
+    /**
+     * Критерии разбираются до начала ответа, чтобы ошибки в них вернулись обычным ответом 400.
+     * Выгрузка идет в порядке {@code (created_at DESC, id DESC)}, как в курсорной пагинации.
+     */
+    @Override
+    public StreamingResponseBody exportAdvertisements(AdvertisementSearchCriteriaDto criteria) {
+        log.info("Exporting advertisements with criteria: {}", criteria);
+        Specification<Advertisement> specification = buildSpecification(criteria);
+        boolean fuzzy = criteria != null && StringUtils.hasText(criteria.keyword()) && criteria.isFuzzy();
+        return exporter.export(specification, KEYSET_SORT, repository -> {
+            if (fuzzy) {
+                repository.setWordSimilarityThreshold(String.valueOf(fuzzySimilarityThreshold));
+            }
+        });
+    }
+
+    /**
+     * Keyset-пагинация по {@code (created_at DESC, id DESC)}: запрашивается на одну строку больше
+     * размера страницы, чтобы определить наличие следующей, без OFFSET и без count-запроса.
+     */
+    private CursorPageResponseDto<AdvertisementResponseDto> scroll(Specification<Advertisement> specification, String cursor, int size) {
+        if (size < 1 || size > MAX_SCROLL_SIZE) {
+            throw new InvalidRequestParameterException("Размер страницы должен быть от 1 до " + MAX_SCROLL_SIZE);
+        }
+        if (StringUtils.hasText(cursor)) {
+            specification = specification.and(AdvertisementSpecification.after(AdvertisementCursor.decode(cursor)));
+        }
+        List<AdvertisementResponseDto> rows = advertisementRepository.findResponses(specification, KEYSET_SORT, size + 1);
+
+        boolean hasNext = rows.size() > size;
+        List<AdvertisementResponseDto> pageRows = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            AdvertisementResponseDto last = pageRows.getLast();
+            nextCursor = new AdvertisementCursor(last.createdAt(), last.id()).encode();
+        }
+        return new CursorPageResponseDto<>(new ArrayList<>(pageRows), size, nextCursor, hasNext);
+    }
+
+    private PageResponseDto<AdvertisementResponseDto> search(AdvertisementSearchCriteriaDto criteria, Pageable pageable) {
+        boolean fuzzy = criteria != null && StringUtils.hasText(criteria.keyword()) && criteria.isFuzzy();
+        if (isRelevanceSort(pageable) && !fuzzy) {
+            return searchByRelevance(criteria, pageable);
+        }
+        AdvertisementSearchIndex index = searchIndex.getIfAvailable();
+        if (index != null && index.isReady() && index.supportsSort(pageable.getSort())
+                && (criteria == null || (!criteria.isFuzzy() && !criteria.hasGeoFilter()))) {
+            log.debug("Searching advertisements in the Lucene index");
+            return index.search(criteria, categoryIds(criteria), pageable);
+        }
+        SearchQuery searchQuery = prepareSearch(criteria, pageable);
+        Page<AdvertisementResponseDto> advertisementPage = advertisementRepository.findResponsePage(searchQuery.specification(), searchQuery.pageable());
         log.debug("Found {} advertisements matching criteria.", advertisementPage.getTotalElements());
-        return PageResponseDto.fromPage(advertisementPage.map(this::mapToDtoWithPreview));
+        return PageResponseDto.fromPage(advertisementPage);
+    }
+
+    /**
+     * {@code sort=relevance}: лучшие по тексту (или самые свежие) кандидаты из БД переранжируются
+     * с учетом новизны и популярности, страница вырезается из переранжированного набора.
+     * Выдача ограничена этим набором, поэтому и итог равен его размеру.
+     */
+    private PageResponseDto<AdvertisementResponseDto> searchByRelevance(AdvertisementSearchCriteriaDto criteria, Pageable pageable) {
+        String keyword = criteria != null ? criteria.keyword() : null;
+        List<RelevanceCandidate> candidates = advertisementRepository.findRelevanceCandidates(
+                buildSpecification(criteria), keyword, relevanceRanker.getWeights().candidateLimit());
+        List<AdvertisementResponseDto> ranked = relevanceRanker.rank(candidates, OffsetDateTime.now());
+
+        Pageable pageRequest = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        int from = (int) Math.min(pageRequest.getOffset(), ranked.size());
+        int to = Math.min(from + pageRequest.getPageSize(), ranked.size());
+        log.debug("Ranked {} relevance candidates, returning {} of them", ranked.size(), to - from);
+        return PageResponseDto.fromPage(new PageImpl<>(List.copyOf(ranked.subList(from, to)), pageRequest, ranked.size()));
+    }
+
+    /**
+     * Собирает спецификацию поиска и итоговую пагинацию. Нечеткий поиск, {@code sort=relevance}
+     * и {@code sort=distance} сортируют результаты внутри спецификации, поэтому сортировка
+     * из {@link Pageable} снимается.
+     */
+    private SearchQuery prepareSearch(AdvertisementSearchCriteriaDto criteria, Pageable pageable) {
+        Specification<Advertisement> specification = buildSpecification(criteria);
+        String keyword = criteria != null ? criteria.keyword() : null;
+        if (applyFuzzyThreshold(criteria)) {
+            specification = specification.and(AdvertisementSpecification.orderByTitleSimilarity(keyword));
+            pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        } else if (isRelevanceSort(pageable)) {
+            if (StringUtils.hasText(keyword)) {
+                specification = specification.and(AdvertisementSpecification.orderByTextRank(keyword));
+                pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+            } else {
+                pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(Sort.Direction.DESC, "createdAt"));
+            }
+        } else if (isDistanceSort(pageable)) {
+            if (criteria != null && criteria.hasGeoFilter()) {
+                List<Integer> cityIdsByDistance = citiesWithinRadius(criteria).stream()
+                        .map(CityGeoIndex.CityDistance::cityId)
+                        .toList();
+                specification = specification.and(AdvertisementSpecification.orderByCityDistance(cityIdsByDistance));
+                pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+            } else {
+                pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(Sort.Direction.DESC, "createdAt"));
+            }
+        }
+        return new SearchQuery(specification, pageable);
+    }
+
+    /**
+     * Для нечеткого поиска устанавливает настроенный порог pg_trgm до конца транзакции; без него
+     * действует порог по умолчанию (0.6), и выдача разных эндпоинтов по одному запросу различается.
+     *
+     * @return {@code true}, если поиск нечеткий.
+     */
+    private boolean applyFuzzyThreshold(AdvertisementSearchCriteriaDto criteria) {
+        if (criteria == null || !StringUtils.hasText(criteria.keyword()) || !criteria.isFuzzy()) {
+            return false;
+        }
+        advertisementRepository.setWordSimilarityThreshold(String.valueOf(fuzzySimilarityThreshold));
+        return true;
     }
 
-    private AdvertisementResponseDto mapToDtoWithPreview(Advertisement ad) {
-        AdvertisementResponseDto dto = advertisementMapper.toAdvertisementResponseDto(ad);
-        String previewUrl = determinePreviewUrl(ad);
+    /**
+     * Устанавливает город объявления и синхронизирует денормализованные {@code districtId} и {@code regionId}.
+     */
+    private void assignCity(Advertisement ad, City city) {
+        District district = city.getDistrict();
+        ad.setCity(city);
+        ad.setDistrictId(district.getId());
+        ad.setRegionId(district.getRegion().getId());
+    }
 
-        return new AdvertisementResponseDto(
-                dto.id(),
-                dto.title(),
-                dto.price(),
-                dto.cityId(),
-                dto.cityName(),
-                dto.createdAt(),
-                previewUrl
-        );
+    /**
+     * Спецификация по критериям поиска; фильтр по категории включает все ее подкатегории,
+     * поиск в радиусе превращается в фильтр по городам из {@link CityGeoIndex}.
+     */
+    private Specification<Advertisement> buildSpecification(AdvertisementSearchCriteriaDto criteria) {
+        Specification<Advertisement> specification = criteria == null || criteria.categoryId() == null
+                ? AdvertisementSpecification.fromCriteria(criteria)
+                : AdvertisementSpecification.fromCriteria(criteria, categoryIds(criteria));
+        if (criteria != null && criteria.hasGeoFilter()) {
+            List<Integer> cityIds = citiesWithinRadius(criteria).stream()
+                    .map(CityGeoIndex.CityDistance::cityId)
+                    .toList();
+            specification = specification.and(AdvertisementSpecification.inCities(cityIds));
+        }
+        return specification;
+    }
+
+    private List<CityGeoIndex.CityDistance> citiesWithinRadius(AdvertisementSearchCriteriaDto criteria) {
+        if (criteria.latitude() == null || criteria.longitude() == null || criteria.radiusKm() == null) {
+            throw new InvalidRequestParameterException("Для поиска в радиусе нужно указать latitude, longitude и radiusKm");
+        }
+        if (Math.abs(criteria.latitude()) > 90 || Math.abs(criteria.longitude()) > 180) {
+            throw new InvalidRequestParameterException("Некорректные координаты точки поиска");
+        }
+        if (criteria.radiusKm() <= 0 || criteria.radiusKm() > MAX_RADIUS_KM) {
+            throw new InvalidRequestParameterException("Радиус поиска должен быть больше 0 и не больше " + (int) MAX_RADIUS_KM + " км");
+        }
+        return cityGeoIndex.findWithin(criteria.latitude(), criteria.longitude(), criteria.radiusKm());
+    }
+
+    /**
+     * Критерии без фильтров, кроме категории: фасеты для них общие для всех пользователей и кэшируются.
+     */
+    private boolean hasOnlyCategoryFilter(AdvertisementSearchCriteriaDto criteria) {
+        return criteria == null || (!StringUtils.hasText(criteria.keyword())
+                && criteria.regionId() == null
+                && criteria.districtId() == null
+                && criteria.cityId() == null
+                && criteria.minPrice() == null
+                && criteria.maxPrice() == null
+                && criteria.condition() == null
+                && criteria.sellerId() == null
+                && !criteria.hasGeoFilter());
+    }
+
+    private Set<Integer> categoryIds(AdvertisementSearchCriteriaDto criteria) {
+        if (criteria == null || criteria.categoryId() == null) {
+            return Set.of();
+        }
+        return categoryService.findDescendantCategoryIds(criteria.categoryId());
+    }
+
+    private AdvertisementSnapshot snapshot(Advertisement ad) {
+        return AdvertisementSnapshot.of(ad);
+    }
+
+    /**
+     * Страница с приблизительным итогом. Если следующей страницы нет, итог известен точно.
+     */
+    private PageResponseDto<AdvertisementResponseDto> toApproximatePage(Slice<AdvertisementResponseDto> slice, long estimatedTotal) {
+        long seen = slice.getPageable().getOffset() + slice.getNumberOfElements();
+        long total = slice.hasNext() ? Math.max(estimatedTotal, seen + 1) : seen;
+        return PageResponseDto.fromPage(new PageImpl<>(slice.getContent(), slice.getPageable(), total));
+    }
+
+    private record SearchQuery(Specification<Advertisement> specification, Pageable pageable) {
+    }
+
+    /**
+     * Сортировка {@code sort=relevance} не является свойством сущности: ранжирование выполняется
+     * спецификацией, а без ключевого слова запрос откатывается к сортировке по дате.
+     */
+    private boolean isRelevanceSort(Pageable pageable) {
+        return pageable.getSort().getOrderFor(RELEVANCE_SORT) != null;
+    }
+
+    /**
+     * Сортировка {@code sort=distance} имеет смысл только для поиска в радиусе; без точки
+     * поиска запрос откатывается к сортировке по дате.
+     */
+    private boolean isDistanceSort(Pageable pageable) {
+        return pageable.getSort().getOrderFor(DISTANCE_SORT) != null;
     }
 
     private String determinePreviewUrl(Advertisement ad) {
@@ -280,6 +647,16 @@ public class AdvertisementServiceImpl implements AdvertisementService {
         return savedImages;
     }
 
+    /**
+     * Счетчик в кэшированной карточке может отставать от записанного в БД после ее загрузки, поэтому
+     * берется наибольший из двух и к нему добавляются просмотры этого узла, еще не записанные в БД.
+     */
+    private AdvertisementDetailDto withCurrentViews(AdvertisementDetailDto detail, Map<Long, Long> viewCounts) {
+        long cached = detail.viewCount() != null ? detail.viewCount() : 0;
+        long stored = Math.max(cached, viewCounts.getOrDefault(detail.id(), 0L));
+        return detail.withViewCount(stored + viewCounter.pending(detail.id()));
+    }
+
     private Advertisement findAdvertisementByIdOrThrow(Long id) {
         return advertisementRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Объявление с ID " + id + " не найдено."));
@@ -0,0 +1,163 @@
+package com.tech.listify.service.impl;
+
+import com.tech.listify.cache.AdvertisementDetailCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счетчики просмотров объявлений в памяти узла.
+ * <p>
+ * Просмотр увеличивает {@link LongAdder} объявления и не пишет в БД. Накопленные приращения
+ * периодически сбрасываются в {@code advertisements.view_count} одним {@code UPDATE ... FROM (VALUES ...)}
+ * на пачку, а новые значения счетчиков сохраняются рядом с карточками ({@link AdvertisementDetailCache#putViewCounts}):
+ * карточки остаются в кэше, а счетчик при чтении берется наибольший из карточки и сохраненного.
+ * Если запись не удалась, приращения возвращаются в счетчики до следующего сброса. При остановке
+ * приложения счетчики сбрасываются в фазе завершения, после остановки веб-сервера.
+ */
+@Service
+@Slf4j
+public class AdvertisementViewCounter implements SmartLifecycle {
+
+    /**
+     * Ниже фаз плавной остановки и остановки веб-сервера ({@code DEFAULT_PHASE - 1024} и {@code - 2048}),
+     * поэтому последний сброс выполняется, когда новых просмотров уже не будет.
+     */
+    private static final int SHUTDOWN_PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AdvertisementDetailCache detailCache;
+    private final int batchSize;
+    private final Map<Long, ViewCounter> counters = new ConcurrentHashMap<>();
+    private volatile boolean running;
+
+    public AdvertisementViewCounter(JdbcTemplate jdbcTemplate,
+                                    AdvertisementDetailCache detailCache,
+                                    @Value("${app.views.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.detailCache = detailCache;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Если сброс одновременно удалил счетчик как пустой, просмотр повторяется на новом счетчике.
+     */
+    public void increment(Long advertisementId) {
+        ViewCounter counter;
+        do {
+            counter = counters.computeIfAbsent(advertisementId, id -> new ViewCounter());
+            counter.increment();
+        } while (counter.retired);
+    }
+
+    /**
+     * Просмотры, которые еще не записаны в БД.
+     */
+    public long pending(Long advertisementId) {
+        ViewCounter counter = counters.get(advertisementId);
+        return counter != null ? counter.sum() : 0;
+    }
+
+    /**
+     * {@link LongAdder#sumThenReset()} обнуляет ячейки атомарно, поэтому просмотры во время сброса
+     * остаются в счетчике до следующего раза. Счетчики без просмотров за интервал удаляются; удаленный
+     * счетчик помечается {@link ViewCounter#retired}, чтобы просмотр, попавший в него после проверки,
+     * был повторен в {@link #increment(Long)}, а не потерян.
+     */
+    @Scheduled(fixedDelayString = "${app.views.flush-interval:30s}")
+    public synchronized void flush() {
+        List<long[]> deltas = new ArrayList<>();
+        counters.forEach((id, counter) -> {
+            long delta = counter.sumThenReset();
+            if (delta > 0) {
+                deltas.add(new long[]{id, delta});
+            } else {
+                counters.computeIfPresent(id, (key, current) -> {
+                    if (current.sum() != 0) {
+                        return current;
+                    }
+                    current.retired = true;
+                    return null;
+                });
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+        // Один порядок блокировки строк на всех узлах, чтобы одновременные сбросы не взаимоблокировались.
+        deltas.sort(Comparator.comparingLong(delta -> delta[0]));
+        Map<Long, Long> viewCounts = new HashMap<>(deltas.size());
+        for (int from = 0; from < deltas.size(); from += batchSize) {
+            List<long[]> batch = deltas.subList(from, Math.min(from + batchSize, deltas.size()));
+            try {
+                jdbcTemplate.query(updateSql(batch.size()),
+                        (RowCallbackHandler) rs -> viewCounts.put(rs.getLong("id"), rs.getLong("view_count")),
+                        batchArguments(batch));
+            } catch (RuntimeException e) {
+                batch.forEach(delta -> counters.computeIfAbsent(delta[0], id -> new ViewCounter()).add(delta[1]));
+                log.error("Failed to flush view counts of {} advertisements, keeping them for the next flush", batch.size(), e);
+            }
+        }
+        if (!viewCounts.isEmpty()) {
+            detailCache.putViewCounts(viewCounts);
+        }
+        log.debug("Flushed view counts of {} advertisements", viewCounts.size());
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        flush();
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return SHUTDOWN_PHASE;
+    }
+
+    private static String updateSql(int rows) {
+        return "UPDATE advertisements AS a SET view_count = a.view_count + v.delta FROM (VALUES "
+                + String.join(", ", Collections.nCopies(rows, "(?, ?)"))
+                + ") AS v(id, delta) WHERE a.id = v.id RETURNING a.id, a.view_count";
+    }
+
+    private static Object[] batchArguments(List<long[]> batch) {
+        Object[] arguments = new Object[batch.size() * 2];
+        for (int i = 0; i < batch.size(); i++) {
+            arguments[2 * i] = batch.get(i)[0];
+            arguments[2 * i + 1] = batch.get(i)[1];
+        }
+        return arguments;
+    }
+
+    /**
+     * Счетчик объявления; {@code retired} выставляется, когда сброс удалил его из карты, и больше не снимается.
+     */
+    private static final class ViewCounter extends LongAdder {
+
+        private volatile boolean retired;
+    }
+}
@@ -1,5 +1,6 @@
 package com.tech.listify.service.impl;
 
+import com.tech.listify.cache.LocalStateInvalidator;
 import com.tech.listify.dto.categorydto.CategoryCreateDto;
 import com.tech.listify.dto.categorydto.CategoryDto;
 import com.tech.listify.dto.categorydto.CategoryTreeDto;
@@ -9,33 +10,57 @@ import com.tech.listify.mapper.CategoryMapper;
 import com.tech.listify.model.Category;
 import com.tech.listify.repository.CategoryRepository;
 import com.tech.listify.service.CategoryService;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class CategoryServiceImpl implements CategoryService {
 
+    private static final String CLOSURE_STATE_NAME = "category-closure";
+
     private final CategoryRepository categoryRepository;
     private final CategoryMapper categoryMapper;
     private final CategoryService self;
+    private final LoadingCache<Integer, Set<Integer>> descendantIds;
+    private final LoadingCache<Integer, Set<Integer>> ancestorIds;
+    private final LocalStateInvalidator invalidator;
 
     public CategoryServiceImpl(CategoryRepository categoryRepository,
                                CategoryMapper categoryMapper,
-                               @Lazy CategoryService self) {
+                               @Lazy CategoryService self,
+                               LocalStateInvalidator invalidator,
+                               @Value("${app.categories.descendants-cache-ttl:1h}") Duration descendantsCacheTtl) {
         this.categoryRepository = categoryRepository;
         this.categoryMapper = categoryMapper;
         this.self = self;
+        this.descendantIds = Caffeine.newBuilder()
+                .expireAfterWrite(descendantsCacheTtl)
+                .build(this::loadDescendantIds);
+        this.ancestorIds = Caffeine.newBuilder()
+                .expireAfterWrite(descendantsCacheTtl)
+                .build(this::loadAncestorIds);
+        this.invalidator = invalidator;
+        invalidator.subscribe(CLOSURE_STATE_NAME, ignored -> clearClosureCaches());
     }
 
     @Override
@@ -55,7 +80,10 @@ public class CategoryServiceImpl implements CategoryService {
 
     @Override
     @Transactional
-    @CacheEvict(cacheNames = "categories", allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "categories", allEntries = true),
+            @CacheEvict(cacheNames = "categories_tree", allEntries = true)
+    })
     public List<CategoryDto> createCategories(List<CategoryCreateDto> createDtos) {
         log.info("Attempting to create {} new categories.", createDtos.size());
 
@@ -80,12 +108,37 @@ public class CategoryServiceImpl implements CategoryService {
             categoriesToSave.add(newCategory);
         }
 
-        List<Category> savedCategories = categoryRepository.saveAll(categoriesToSave);
+        List<Category> savedCategories = categoryRepository.saveAllAndFlush(categoriesToSave);
+        for (Category category : savedCategories) {
+            categoryRepository.insertSelfClosure(category.getId());
+            if (category.getParentCategory() != null) {
+                categoryRepository.insertAncestorClosure(category.getId(), category.getParentCategory().getId());
+            }
+        }
+        invalidateClosureCachesAfterCommit();
 
         log.info("Successfully created {} categories.", savedCategories.size());
         return categoryMapper.toDtoList(savedCategories);
     }
 
+    /**
+     * Возвращает ID категории и всех ее потомков из таблицы {@code category_closure}.
+     * Результат кэшируется в памяти узла: дерево категорий меняется редко, а поиск обращается к нему постоянно.
+     * После создания категорий кэш сбрасывается на всех узлах через {@link LocalStateInvalidator}.
+     */
+    @Override
+    public Set<Integer> findDescendantCategoryIds(Integer categoryId) {
+        return descendantIds.get(categoryId);
+    }
+
+    /**
+     * Возвращает ID категории и всех ее предков. Кэшируется так же, как потомки.
+     */
+    @Override
+    public Set<Integer> findAncestorCategoryIds(Integer categoryId) {
+        return ancestorIds.get(categoryId);
+    }
+
     @Override
     @Cacheable("categories_tree")
     public List<CategoryTreeDto> getCategoryTree() {
@@ -101,6 +154,43 @@ public class CategoryServiceImpl implements CategoryService {
                 .toList();
     }
 
+    private Set<Integer> loadDescendantIds(Integer categoryId) {
+        log.debug("Loading descendant category IDs for category ID: {}", categoryId);
+        Set<Integer> ids = new HashSet<>(categoryRepository.findDescendantIds(categoryId));
+        ids.add(categoryId);
+        return Set.copyOf(ids);
+    }
+
+    private Set<Integer> loadAncestorIds(Integer categoryId) {
+        log.debug("Loading ancestor category IDs for category ID: {}", categoryId);
+        Set<Integer> ids = new HashSet<>(categoryRepository.findAncestorIds(categoryId));
+        ids.add(categoryId);
+        return Set.copyOf(ids);
+    }
+
+    private void invalidateClosureCachesAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidateClosureCaches();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidateClosureCaches();
+            }
+        });
+    }
+
+    private void invalidateClosureCaches() {
+        clearClosureCaches();
+        invalidator.invalidate(CLOSURE_STATE_NAME, null);
+    }
+
+    private void clearClosureCaches() {
+        descendantIds.invalidateAll();
+        ancestorIds.invalidateAll();
+    }
+
     private CategoryTreeDto buildTree(Category category, Map<Integer, List<Category>> map) {
         List<CategoryTreeDto> children = map.getOrDefault(category.getId(), Collections.emptyList())
                 .stream()
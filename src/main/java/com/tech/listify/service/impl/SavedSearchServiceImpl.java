@@ -0,0 +1,138 @@
+package com.tech.listify.service.impl;
+
+import com.tech.listify.dto.PageResponseDto;
+import com.tech.listify.dto.advertisementdto.AdvertisementSearchCriteriaDto;
+import com.tech.listify.dto.savedsearchdto.SavedSearchCreateDto;
+import com.tech.listify.dto.savedsearchdto.SavedSearchDto;
+import com.tech.listify.dto.savedsearchdto.SavedSearchNotificationDto;
+import com.tech.listify.exception.InvalidRequestParameterException;
+import com.tech.listify.exception.ResourceNotFoundException;
+import com.tech.listify.mapper.SavedSearchMapper;
+import com.tech.listify.model.SavedSearch;
+import com.tech.listify.model.User;
+import com.tech.listify.repository.SavedSearchNotificationRepository;
+import com.tech.listify.repository.SavedSearchRepository;
+import com.tech.listify.repository.UserRepository;
+import com.tech.listify.search.SavedSearchIndex;
+import com.tech.listify.service.SavedSearchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SavedSearchServiceImpl implements SavedSearchService {
+
+    private final SavedSearchRepository savedSearchRepository;
+    private final SavedSearchNotificationRepository notificationRepository;
+    private final UserRepository userRepository;
+    private final SavedSearchMapper savedSearchMapper;
+    private final SavedSearchIndex savedSearchIndex;
+
+    @Value("${app.saved-searches.max-per-user:20}")
+    private int maxSavedSearchesPerUser;
+
+    @Override
+    @Transactional
+    public SavedSearchDto createSavedSearch(SavedSearchCreateDto createDto, String userEmail) {
+        log.info("Creating saved search '{}' for user {}", createDto.name(), userEmail);
+        validateCriteria(createDto.criteria());
+        User user = findUser(userEmail);
+        if (savedSearchRepository.countByUserId(user.getId()) >= maxSavedSearchesPerUser) {
+            throw new InvalidRequestParameterException("Нельзя сохранить больше " + maxSavedSearchesPerUser + " поисков.");
+        }
+        SavedSearch savedSearch = savedSearchMapper.toSavedSearch(createDto);
+        savedSearch.setUser(user);
+        SavedSearch saved = savedSearchRepository.save(savedSearch);
+        afterCommit(() -> savedSearchIndex.add(saved));
+        log.info("Saved search ID {} created for user {}", saved.getId(), userEmail);
+        return savedSearchMapper.toSavedSearchDto(saved);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SavedSearchDto> getMySavedSearches(String userEmail) {
+        User user = findUser(userEmail);
+        return savedSearchMapper.toSavedSearchDtoList(savedSearchRepository.findByUserIdOrderByCreatedAtDesc(user.getId()));
+    }
+
+    @Override
+    @Transactional
+    public void deleteSavedSearch(Long id, String userEmail) {
+        log.info("Attempting to delete saved search ID {} by user {}", id, userEmail);
+        SavedSearch savedSearch = savedSearchRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Сохраненный поиск с ID " + id + " не найден."));
+        if (!savedSearch.getUser().getEmail().equals(userEmail)) {
+            log.warn("Access denied for user {} to delete saved search ID {}", userEmail, id);
+            throw new AccessDeniedException("Вы не можете удалить этот сохраненный поиск.");
+        }
+        savedSearchRepository.delete(savedSearch);
+        afterCommit(() -> savedSearchIndex.remove(id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponseDto<SavedSearchNotificationDto> getMyNotifications(String userEmail, Pageable pageable) {
+        User user = findUser(userEmail);
+        // Порядок задан в запросе (новые первыми), сортировка из запроса клиента не применяется.
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        return PageResponseDto.fromPage(notificationRepository.findByUserId(user.getId(), unsorted));
+    }
+
+    /**
+     * Сохраненный поиск сопоставляется с объявлениями в памяти {@link SavedSearchIndex}, где нет
+     * нечеткого поиска и поиска по радиусу. Поиск без фильтров совпал бы с каждым объявлением.
+     */
+    private void validateCriteria(AdvertisementSearchCriteriaDto criteria) {
+        if (criteria.isFuzzy() || criteria.hasGeoFilter() || criteria.sellerId() != null) {
+            throw new InvalidRequestParameterException(
+                    "Сохраненный поиск не поддерживает нечеткий поиск, поиск по радиусу и фильтр по продавцу.");
+        }
+        boolean hasFilter = StringUtils.hasText(criteria.keyword())
+                || criteria.categoryId() != null
+                || criteria.regionId() != null
+                || criteria.districtId() != null
+                || criteria.cityId() != null
+                || criteria.minPrice() != null
+                || criteria.maxPrice() != null
+                || criteria.condition() != null;
+        if (!hasFilter) {
+            throw new InvalidRequestParameterException("Сохраненный поиск должен содержать хотя бы один фильтр.");
+        }
+        if (criteria.minPrice() != null && criteria.maxPrice() != null && criteria.minPrice().compareTo(criteria.maxPrice()) > 0) {
+            throw new InvalidRequestParameterException("Минимальная цена не может быть больше максимальной.");
+        }
+    }
+
+    private User findUser(String userEmail) {
+        return userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("Пользователь с email '" + userEmail + "' не найден."));
+    }
+
+    /**
+     * Индекс в памяти меняется только после коммита, чтобы откаченная транзакция его не затронула.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,7 @@
+-- Объявления продавца: WHERE seller_id = ? AND status = ? AND (created_at, id) < (?, ?) ORDER BY created_at DESC, id DESC.
+-- Колонки списка в INCLUDE позволяют читать страницу и считать объявления продавца только по индексу.
+CREATE INDEX idx_advertisements_seller_status_created_at_id ON advertisements (seller_id, status, created_at DESC, id DESC)
+    INCLUDE (title, price, city_id, preview_image_url);
+
+-- Покрывается новым индексом по префиксу seller_id.
+DROP INDEX idx_advertisements_seller_id;
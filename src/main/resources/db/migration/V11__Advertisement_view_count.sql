@@ -0,0 +1,2 @@
+-- Счетчик просмотров объявления. Пишется только пакетным сбросом счетчиков из памяти узлов.
+ALTER TABLE advertisements ADD COLUMN view_count BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,2 @@
+-- Догрузка изменений в поисковый индекс Lucene на каждом узле: WHERE updated_at > ? ORDER BY updated_at, id.
+CREATE INDEX idx_advertisements_updated_at_id ON advertisements (updated_at, id);
@@ -0,0 +1,9 @@
+-- Полнотекстовый поиск по объявлениям: заголовок имеет больший вес, чем описание
+ALTER TABLE advertisements
+    ADD COLUMN search_vector tsvector
+        GENERATED ALWAYS AS (
+            setweight(to_tsvector('russian', coalesce(title, '')), 'A') ||
+            setweight(to_tsvector('russian', coalesce(description, '')), 'B')
+        ) STORED;
+
+CREATE INDEX idx_advertisements_search_vector ON advertisements USING GIN (search_vector);
@@ -0,0 +1,4 @@
+-- Нечеткий поиск по заголовку с учетом опечаток (операторы similarity из pg_trgm)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_advertisements_title_trgm ON advertisements USING GIN (lower(title) gin_trgm_ops);
@@ -0,0 +1,2 @@
+-- Keyset-пагинация ленты: WHERE status = ? AND (created_at, id) < (?, ?) ORDER BY created_at DESC, id DESC
+CREATE INDEX idx_advertisements_status_created_at_id ON advertisements (status, created_at DESC, id DESC);
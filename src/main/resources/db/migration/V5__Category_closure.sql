@@ -0,0 +1,22 @@
+-- Транзитивное замыкание дерева категорий: для каждой категории — все ее предки (включая ее саму, depth = 0).
+-- Поиск по категории выбирает потомков одним запросом по первичному ключу вместо рекурсивного обхода.
+CREATE TABLE category_closure (
+                                  ancestor_id   INTEGER NOT NULL REFERENCES categories(id) ON DELETE CASCADE,
+                                  descendant_id INTEGER NOT NULL REFERENCES categories(id) ON DELETE CASCADE,
+                                  depth         INTEGER NOT NULL,
+                                  PRIMARY KEY (ancestor_id, descendant_id)
+);
+CREATE INDEX idx_category_closure_descendant_id ON category_closure(descendant_id);
+
+INSERT INTO category_closure (ancestor_id, descendant_id, depth)
+WITH RECURSIVE tree (ancestor_id, descendant_id, depth) AS (
+    SELECT id, id, 0 FROM categories
+    UNION ALL
+    SELECT t.ancestor_id, c.id, t.depth + 1
+    FROM tree t
+             JOIN categories c ON c.parent_category_id = t.descendant_id
+)
+SELECT ancestor_id, descendant_id, depth FROM tree;
+
+-- Фильтр category_id IN (...) вместе с сортировкой ленты по дате
+CREATE INDEX idx_advertisements_category_status_created_at ON advertisements (category_id, status, created_at DESC);
@@ -0,0 +1,21 @@
+-- Район и область объявления хранятся рядом с city_id, чтобы фильтры по местоположению
+-- не соединяли advertisements -> cities -> districts -> regions на каждом поиске.
+ALTER TABLE advertisements
+    ADD COLUMN district_id INTEGER REFERENCES districts(id),
+    ADD COLUMN region_id   INTEGER REFERENCES regions(id);
+
+UPDATE advertisements a
+SET district_id = d.id,
+    region_id   = d.region_id
+FROM cities c
+         JOIN districts d ON d.id = c.district_id
+WHERE c.id = a.city_id;
+
+ALTER TABLE advertisements
+    ALTER COLUMN district_id SET NOT NULL,
+    ALTER COLUMN region_id SET NOT NULL;
+
+-- Лента с фильтром по местоположению: WHERE <location>_id = ? AND status = ? ORDER BY created_at DESC
+CREATE INDEX idx_advertisements_city_status_created_at ON advertisements (city_id, status, created_at DESC);
+CREATE INDEX idx_advertisements_district_status_created_at ON advertisements (district_id, status, created_at DESC);
+CREATE INDEX idx_advertisements_region_status_created_at ON advertisements (region_id, status, created_at DESC);
@@ -0,0 +1,9 @@
+-- URL превью хранится в объявлении, чтобы списки не загружали изображения каждого объявления отдельным запросом.
+ALTER TABLE advertisements ADD COLUMN preview_image_url VARCHAR(512);
+
+UPDATE advertisements a
+SET preview_image_url = (SELECT i.image_url
+                         FROM advertisement_images i
+                         WHERE i.advertisement_id = a.id
+                         ORDER BY i.is_preview DESC, i.id
+                         LIMIT 1);
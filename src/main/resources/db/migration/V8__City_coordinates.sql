@@ -0,0 +1,32 @@
+-- Координаты центров городов для поиска объявлений в радиусе.
+ALTER TABLE cities ADD COLUMN latitude DOUBLE PRECISION;
+ALTER TABLE cities ADD COLUMN longitude DOUBLE PRECISION;
+
+UPDATE cities c
+SET latitude = v.latitude, longitude = v.longitude
+FROM (VALUES ('Брест', 52.0976, 23.7341),
+             ('Барановичи', 53.1327, 26.0139),
+             ('Пинск', 52.1229, 26.0951),
+             ('Кобрин', 52.2138, 24.3564),
+             ('Берёза', 52.5318, 24.9786),
+             ('Витебск', 55.1904, 30.2049),
+             ('Орша', 54.5081, 30.4172),
+             ('Новополоцк', 55.5318, 28.5987),
+             ('Полоцк', 55.4879, 28.7856),
+             ('Гомель', 52.4412, 30.9878),
+             ('Мозырь', 52.0495, 29.2456),
+             ('Жлобин', 52.8926, 30.0240),
+             ('Речица', 52.3617, 30.3916),
+             ('Гродно', 53.6694, 23.8131),
+             ('Лида', 53.8885, 25.2846),
+             ('Слоним', 53.0869, 25.3163),
+             ('Волковыск', 53.1561, 24.4513),
+             ('Заславль', 54.0083, 27.2836),
+             ('Борисов', 54.2279, 28.5050),
+             ('Солигорск', 52.7876, 27.5415),
+             ('Молодечно', 54.3104, 26.8389),
+             ('Могилёв', 53.9007, 30.3314),
+             ('Бобруйск', 53.1384, 29.2214),
+             ('Осиповичи', 53.3011, 28.6386),
+             ('Минск', 53.9045, 27.5615)) AS v(name, latitude, longitude)
+WHERE c.name = v.name;
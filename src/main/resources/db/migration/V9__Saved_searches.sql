@@ -0,0 +1,26 @@
+-- Сохраненные поиски пользователей и уведомления о новых подходящих объявлениях.
+CREATE TABLE saved_searches (
+                                id BIGSERIAL PRIMARY KEY,
+                                user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+                                name VARCHAR(100) NOT NULL,
+                                keyword VARCHAR(255),
+                                category_id INTEGER REFERENCES categories(id) ON DELETE CASCADE,
+                                region_id INTEGER REFERENCES regions(id) ON DELETE CASCADE,
+                                district_id INTEGER REFERENCES districts(id) ON DELETE CASCADE,
+                                city_id INTEGER REFERENCES cities(id) ON DELETE CASCADE,
+                                min_price NUMERIC(12, 2),
+                                max_price NUMERIC(12, 2),
+                                condition VARCHAR(50),
+                                created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+CREATE INDEX idx_saved_searches_user_id ON saved_searches(user_id);
+
+CREATE TABLE saved_search_notifications (
+                                            id BIGSERIAL PRIMARY KEY,
+                                            saved_search_id BIGINT NOT NULL REFERENCES saved_searches(id) ON DELETE CASCADE,
+                                            advertisement_id BIGINT NOT NULL REFERENCES advertisements(id) ON DELETE CASCADE,
+                                            created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+                                            UNIQUE (saved_search_id, advertisement_id)
+);
+CREATE INDEX idx_saved_search_notifications_search_created_at ON saved_search_notifications(saved_search_id, created_at DESC);
+CREATE INDEX idx_saved_search_notifications_advertisement_id ON saved_search_notifications(advertisement_id);
@@ -0,0 +1,152 @@
+package com.tech.listify.benchmark;
+
+import com.tech.listify.cache.CacheValueCodec;
+import com.tech.listify.config.CacheConfig;
+import com.tech.listify.dto.PageResponseDto;
+import com.tech.listify.dto.advertisementdto.AdvertisementDetailDto;
+import com.tech.listify.dto.advertisementdto.AdvertisementImageDto;
+import com.tech.listify.dto.advertisementdto.AdvertisementResponseDto;
+import com.tech.listify.model.enums.AdvertisementCondition;
+import com.tech.listify.model.enums.AdvertisementStatus;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Сравнение прежнего JSON с именами классов ({@link CacheConfig#cacheConfiguration()}) и кодека Smile
+ * ({@link CacheValueCodec}) на страницах выдачи и карточках объявлений: размер значения и скорость
+ * записи/чтения. Запускается отдельно: {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CacheSerializerBenchmarkTest {
+
+    private static final OffsetDateTime CREATED_AT = OffsetDateTime.of(2025, 5, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    @Param({"json", "smile"})
+    public String format;
+
+    private RedisSerializer<Object> pageSerializer;
+    private RedisSerializer<Object> detailSerializer;
+    private PageResponseDto<AdvertisementResponseDto> page;
+    private AdvertisementDetailDto detail;
+    private byte[] pageBytes;
+    private byte[] detailBytes;
+
+    @Setup
+    public void setUp() {
+        pageSerializer = serializer(format, "active_advertisements");
+        detailSerializer = serializer(format, "advertisements");
+        page = page();
+        detail = detail();
+        pageBytes = pageSerializer.serialize(page);
+        detailBytes = detailSerializer.serialize(detail);
+    }
+
+    @Benchmark
+    public byte[] writePage() {
+        return pageSerializer.serialize(page);
+    }
+
+    @Benchmark
+    public Object readPage() {
+        return pageSerializer.deserialize(pageBytes);
+    }
+
+    @Benchmark
+    public byte[] writeDetail() {
+        return detailSerializer.serialize(detail);
+    }
+
+    @Benchmark
+    public Object readDetail() {
+        return detailSerializer.deserialize(detailBytes);
+    }
+
+    @Test
+    void smileShouldBeSmallerThanTypedJson() throws RunnerException {
+        int jsonPage = serializer("json", "active_advertisements").serialize(page()).length;
+        int smilePage = serializer("smile", "active_advertisements").serialize(page()).length;
+        int jsonDetail = serializer("json", "advertisements").serialize(detail()).length;
+        int smileDetail = serializer("smile", "advertisements").serialize(detail()).length;
+        System.out.printf("Page of 20: JSON %d B, Smile %d B; detail: JSON %d B, Smile %d B%n",
+                jsonPage, smilePage, jsonDetail, smileDetail);
+
+        new Runner(new OptionsBuilder()
+                .include(CacheSerializerBenchmarkTest.class.getName())
+                .forks(0)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .build())
+                .run();
+
+        assertTrue(smilePage * 2 < jsonPage, "Ожидалось, что Smile как минимум вдвое компактнее JSON");
+    }
+
+    private static RedisSerializer<Object> serializer(String format, String cacheName) {
+        if ("smile".equals(format)) {
+            return CacheConfig.cacheValueCodecs().get(cacheName);
+        }
+        var pair = new CacheConfig().cacheConfiguration().getValueSerializationPair();
+        return new RedisSerializer<>() {
+            @Override
+            public byte[] serialize(Object value) {
+                ByteBuffer buffer = pair.write(value);
+                byte[] bytes = new byte[buffer.remaining()];
+                buffer.get(bytes);
+                return bytes;
+            }
+
+            @Override
+            public Object deserialize(byte[] bytes) {
+                return pair.read(ByteBuffer.wrap(bytes));
+            }
+        };
+    }
+
+    private static PageResponseDto<AdvertisementResponseDto> page() {
+        List<AdvertisementResponseDto> content = new ArrayList<>(IntStream.range(0, 20)
+                .mapToObj(i -> new AdvertisementResponseDto((long) i, "Продам ноутбук Lenovo ThinkPad " + i,
+                        new BigDecimal("1250.00").add(BigDecimal.valueOf(i)), 1 + i % 25, "Минск",
+                        CREATED_AT.minusMinutes(i), "/static/images/ads/" + i + "/preview.jpg"))
+                .toList());
+        return new PageResponseDto<>(content, 0, 20, 4_321, 217, false);
+    }
+
+    private static AdvertisementDetailDto detail() {
+        List<AdvertisementImageDto> images = new ArrayList<>(IntStream.range(0, 5)
+                .mapToObj(i -> new AdvertisementImageDto((long) i, "/static/images/ads/1/" + i + ".jpg", i == 0))
+                .toList());
+        return new AdvertisementDetailDto(1L, "Продам ноутбук Lenovo ThinkPad",
+                "Отличное состояние, торг уместен. ".repeat(10), new BigDecimal("1250.00"), CREATED_AT, CREATED_AT,
+                AdvertisementStatus.ACTIVE, AdvertisementCondition.USED_GOOD, 3, "Ноутбуки", 1, "Минск",
+                7L, "Иван Петров", 42L, images);
+    }
+}
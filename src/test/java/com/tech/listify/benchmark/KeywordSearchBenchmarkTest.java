@@ -0,0 +1,128 @@
+package com.tech.listify.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Сравнение прежнего поиска {@code LIKE '%kw%'} с полнотекстовым поиском по {@code search_vector}.
+ * Запускается отдельно: {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+class KeywordSearchBenchmarkTest {
+
+    private static final int ADVERTISEMENTS = 200_000;
+    private static final int ITERATIONS = 20;
+    private static final String KEYWORD = "ноутбук";
+
+    private static final String LIKE_QUERY = """
+            SELECT id FROM advertisements
+            WHERE status = 'ACTIVE'
+              AND (lower(title) LIKE ? OR lower(description) LIKE ?)
+            ORDER BY created_at DESC LIMIT 20""";
+
+    private static final String FULL_TEXT_QUERY = """
+            SELECT id FROM advertisements
+            WHERE status = 'ACTIVE'
+              AND search_vector @@ plainto_tsquery('russian', ?)
+            ORDER BY created_at DESC LIMIT 20""";
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private static DriverManagerDataSource dataSource;
+
+    @BeforeAll
+    static void seed() throws SQLException {
+        dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO users (email, password_hash, full_name) VALUES ('bench@listify.by', 'x', 'Bench')");
+            statement.execute("""
+                    INSERT INTO advertisements (title, description, price, status, seller_id, category_id, city_id, district_id, region_id, created_at)
+                    SELECT CASE WHEN g % 100 = 0 THEN 'Продам ноутбук ' || g
+                                ELSE (ARRAY['Велосипед горный', 'Диван угловой', 'Куплю телефон', 'Шины зимние'])[1 + g % 4] || ' ' || g
+                           END,
+                           repeat('Отличное состояние, торг уместен. ', 10),
+                           (g % 5000) + 10,
+                           CASE WHEN g % 10 = 0 THEN 'SOLD' ELSE 'ACTIVE' END,
+                           (SELECT id FROM users LIMIT 1),
+                           1 + g % 9,
+                           c.id,
+                           d.id,
+                           d.region_id,
+                           now() - (g || ' minutes')::interval
+                    FROM generate_series(1, """ + ADVERTISEMENTS + """
+                    ) AS g
+                    JOIN cities c ON c.id = 1 + g % 25
+                    JOIN districts d ON d.id = c.district_id""");
+            statement.execute("ANALYZE advertisements");
+        }
+    }
+
+    @Test
+    void fullTextSearchShouldUseGinIndex() throws SQLException {
+        String likePattern = "%" + KEYWORD + "%";
+        long likeNanos = measure(LIKE_QUERY, likePattern, likePattern);
+        long fullTextNanos = measure(FULL_TEXT_QUERY, KEYWORD);
+
+        System.out.printf("LIKE: %.2f ms/query, full-text: %.2f ms/query (%d rows, %d iterations)%n",
+                likeNanos / 1e6 / ITERATIONS, fullTextNanos / 1e6 / ITERATIONS, ADVERTISEMENTS, ITERATIONS);
+
+        String plan = explain(FULL_TEXT_QUERY, KEYWORD);
+        assertTrue(plan.contains("idx_advertisements_search_vector"), "Ожидался поиск по GIN-индексу, план: " + plan);
+    }
+
+    private long measure(String sql, String... params) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                statement.setString(i + 1, params[i]);
+            }
+            execute(statement);
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                execute(statement);
+            }
+            return System.nanoTime() - start;
+        }
+    }
+
+    private void execute(PreparedStatement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                resultSet.getLong(1);
+            }
+        }
+    }
+
+    private String explain(String sql, String... params) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < params.length; i++) {
+                statement.setString(i + 1, params[i]);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.tech.listify.cache;
+
+import com.tech.listify.dto.advertisementdto.AdvertisementSearchCriteriaDto;
+import com.tech.listify.event.AdvertisementSnapshot;
+import com.tech.listify.model.enums.AdvertisementCondition;
+import com.tech.listify.model.enums.AdvertisementStatus;
+import com.tech.listify.service.CategoryService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdvertisementCacheTagsTest {
+
+    @Mock
+    private CategoryService categoryService;
+
+    @InjectMocks
+    private AdvertisementCacheTags cacheTags;
+
+    @Test
+    void tagFor_shouldPickMostSelectiveFilter() {
+        assertEquals(AdvertisementCacheTags.ALL, cacheTags.tagFor(null));
+        assertEquals("ads:city:7", cacheTags.tagFor(criteria(2, 1, 7, null, null)));
+        assertEquals("ads:category:2", cacheTags.tagFor(criteria(2, 1, null, null, null)));
+        assertEquals("ads:price:FROM_100_TO_500", cacheTags.tagFor(criteria(null, null, null, new BigDecimal("100.00"), new BigDecimal("499.99"))));
+        assertEquals(AdvertisementCacheTags.ALL, cacheTags.tagFor(criteria(null, null, null, new BigDecimal("100"), new BigDecimal("500"))));
+    }
+
+    @Test
+    void tagsOf_shouldCoverEveryMatchingQuery() {
+        when(categoryService.findAncestorCategoryIds(5)).thenReturn(Set.of(5, 2));
+        Set<String> tags = cacheTags.tagsOf(snapshot(AdvertisementStatus.ACTIVE));
+
+        assertTrue(tags.contains(cacheTags.tagFor(criteria(2, null, null, null, null))));
+        assertTrue(tags.contains(cacheTags.tagFor(criteria(null, 1, null, null, null))));
+        assertTrue(tags.contains(cacheTags.tagFor(criteria(2, 1, 7, null, null))));
+        assertTrue(tags.contains(cacheTags.tagFor(criteria(null, null, null, new BigDecimal("100"), new BigDecimal("200")))));
+        assertFalse(tags.contains(cacheTags.tagFor(criteria(3, null, null, null, null))));
+        assertFalse(tags.contains(cacheTags.tagFor(criteria(null, null, 8, null, null))));
+    }
+
+    @Test
+    void tagsOf_shouldBeEmpty_whenAdvertisementIsNotListed() {
+        assertTrue(cacheTags.tagsOf(snapshot(AdvertisementStatus.SOLD)).isEmpty());
+        verifyNoInteractions(categoryService);
+    }
+
+    private AdvertisementSearchCriteriaDto criteria(Integer categoryId, Integer regionId, Integer cityId,
+                                                   BigDecimal minPrice, BigDecimal maxPrice) {
+        return new AdvertisementSearchCriteriaDto(null, null, categoryId, regionId, null, cityId, minPrice, maxPrice, null, null, null, null, null);
+    }
+
+    private AdvertisementSnapshot snapshot(AdvertisementStatus status) {
+        return new AdvertisementSnapshot(10L, "Велосипед", null, new BigDecimal("150"), status, AdvertisementCondition.USED_GOOD,
+                5, 7, "Минск", 3, 1, 42L, OffsetDateTime.now(), null);
+    }
+}
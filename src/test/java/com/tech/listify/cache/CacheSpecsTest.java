@@ -0,0 +1,27 @@
+package com.tech.listify.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheSpecsTest {
+
+    private static final CacheSpec DEFAULTS = new CacheSpec(Duration.ofMinutes(10), Duration.ofSeconds(60), 10_000L, false, false, false, null);
+
+    @Test
+    void get_shouldMergeConfiguredValuesWithDefaults() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.cache.caches.[advertisements_search].ttl", "1m")
+                .withProperty("app.cache.caches.[advertisements_search].compress", "true")
+                .withProperty("app.cache.caches.regions.max-entries", "10");
+
+        CacheSpecs specs = CacheSpecs.bind(environment, DEFAULTS);
+
+        assertEquals(new CacheSpec(Duration.ofMinutes(1), Duration.ofMinutes(1), 10_000L, false, true, false, null), specs.get("advertisements_search"));
+        assertEquals(new CacheSpec(Duration.ofMinutes(10), Duration.ofSeconds(60), 10L, false, false, false, null), specs.get("regions"));
+        assertEquals(DEFAULTS, specs.get("cities"));
+    }
+}
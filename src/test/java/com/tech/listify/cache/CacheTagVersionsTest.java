@@ -0,0 +1,89 @@
+package com.tech.listify.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheTagVersionsTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+    @Mock
+    private ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
+    private LocalStateInvalidator invalidator;
+    private CacheTagVersions tagVersions;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplateProvider.getIfAvailable()).thenReturn(redisTemplate);
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        invalidator = new LocalStateInvalidator(redisTemplateProvider, objectMapper);
+        tagVersions = new CacheTagVersions(redisTemplateProvider, invalidator, Duration.ofMinutes(1), 100);
+    }
+
+    @Test
+    void version_shouldReadRedisOnce_andServeFromMemory() {
+        when(valueOperations.get("cache-tag:ads:all")).thenReturn("4");
+
+        assertEquals(4L, tagVersions.version("ads:all"));
+        assertEquals(4L, tagVersions.version("ads:all"));
+
+        verify(valueOperations, times(1)).get("cache-tag:ads:all");
+    }
+
+    @Test
+    void invalidate_shouldKeepIncrementedVersion_andBroadcastTags() throws Exception {
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(List.of(5L));
+
+        tagVersions.invalidate(List.of("ads:city:1"));
+
+        assertEquals(5L, tagVersions.version("ads:city:1"));
+        verify(valueOperations, never()).get(anyString());
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(TwoLevelCacheManager.CHANNEL), message.capture());
+        TwoLevelCacheManager.InvalidationMessage invalidation =
+                objectMapper.readValue(message.getValue(), TwoLevelCacheManager.InvalidationMessage.class);
+        assertEquals("local:cache-tag-versions", invalidation.cache());
+        assertEquals(List.of("ads:city:1"), invalidation.keys());
+    }
+
+    @Test
+    void onMessage_fromOtherNode_shouldDropCachedVersion() throws Exception {
+        when(valueOperations.get("cache-tag:ads:all")).thenReturn("1", "2");
+        assertEquals(1L, tagVersions.version("ads:all"));
+
+        invalidator.onMessage(message(new TwoLevelCacheManager.InvalidationMessage(
+                "other-node", "local:cache-tag-versions", List.of("ads:all"))), null);
+
+        assertEquals(2L, tagVersions.version("ads:all"));
+        verify(valueOperations, times(2)).get("cache-tag:ads:all");
+    }
+
+    private DefaultMessage message(TwoLevelCacheManager.InvalidationMessage invalidation) throws Exception {
+        return new DefaultMessage(TwoLevelCacheManager.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                objectMapper.writeValueAsBytes(invalidation));
+    }
+}
@@ -0,0 +1,56 @@
+package com.tech.listify.cache;
+
+import com.tech.listify.dto.PageResponseDto;
+import com.tech.listify.dto.advertisementdto.AdvertisementResponseDto;
+import com.tech.listify.dto.categorydto.CategoryDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheValueCodecTest {
+
+    @Test
+    void shouldRoundTripGenericPage() {
+        CacheValueCodec codec = CacheValueCodec.smile(CacheValueCodec.parametric(PageResponseDto.class, AdvertisementResponseDto.class));
+        PageResponseDto<AdvertisementResponseDto> page = new PageResponseDto<>(List.of(new AdvertisementResponseDto(
+                1L, "Велосипед", new BigDecimal("150.00"), 2, "Минск",
+                OffsetDateTime.of(2025, 5, 1, 12, 0, 0, 0, ZoneOffset.UTC), "/static/1.jpg")), 0, 20, 1, 1, true);
+
+        byte[] bytes = codec.serialize(page);
+
+        assertEquals(CacheValueCodec.FORMAT_VERSION, bytes[0]);
+        assertEquals(page, codec.deserialize(bytes));
+    }
+
+    @Test
+    void shouldKeepTypeOfEachRegisteredValue() {
+        CacheValueCodec codec = CacheValueCodec.smile(CacheValueCodec.type(CategoryDto.class), CacheValueCodec.listOf(CategoryDto.class));
+        CategoryDto category = new CategoryDto(1, "Электроника");
+
+        assertEquals(category, codec.deserialize(codec.serialize(category)));
+        assertEquals(List.of(category), codec.deserialize(codec.serialize(List.of(category))));
+    }
+
+    @Test
+    void shouldTreatOtherFormatVersionAsMiss() {
+        CacheValueCodec codec = CacheValueCodec.smile(CacheValueCodec.type(CategoryDto.class));
+        byte[] bytes = codec.serialize(new CategoryDto(1, "Электроника"));
+        bytes[0] = CacheValueCodec.FORMAT_VERSION + 1;
+
+        assertNull(codec.deserialize(bytes));
+        assertNull(codec.deserialize("{\"@class\":\"x\"}".getBytes()));
+    }
+
+    @Test
+    void shouldRejectUnregisteredType() {
+        CacheValueCodec codec = CacheValueCodec.smile(CacheValueCodec.type(CategoryDto.class));
+
+        assertThrows(SerializationException.class, () -> codec.serialize("Электроника"));
+    }
+}
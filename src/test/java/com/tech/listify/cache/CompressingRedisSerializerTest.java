@@ -0,0 +1,33 @@
+package com.tech.listify.cache;
+
+import com.tech.listify.dto.categorydto.CategoryDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressingRedisSerializerTest {
+
+    private final CacheValueCodec codec = CacheValueCodec.smile(CacheValueCodec.listOf(CategoryDto.class));
+    private final CompressingRedisSerializer serializer = new CompressingRedisSerializer(codec);
+
+    @Test
+    void shouldCompressLargeValues_andReadBothForms() {
+        List<CategoryDto> categories = IntStream.range(0, 200).mapToObj(i -> new CategoryDto(i, "Категория " + i)).toList();
+
+        byte[] compressed = serializer.serialize(categories);
+
+        assertTrue(compressed.length < codec.serialize(categories).length);
+        assertEquals(categories, serializer.deserialize(compressed));
+        assertEquals(categories, serializer.deserialize(codec.serialize(categories)));
+    }
+
+    @Test
+    void shouldKeepSmallValuesUncompressed() {
+        List<CategoryDto> categories = List.of(new CategoryDto(1, "Электроника"));
+
+        assertArrayEquals(codec.serialize(categories), serializer.serialize(categories));
+    }
+}
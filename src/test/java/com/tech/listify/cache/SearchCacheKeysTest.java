@@ -0,0 +1,42 @@
+package com.tech.listify.cache;
+
+import com.tech.listify.dto.advertisementdto.AdvertisementSearchCriteriaDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchCacheKeysTest {
+
+    @Test
+    void canonical_shouldIgnoreKeywordCaseSpacesAndPriceScale() {
+        AdvertisementSearchCriteriaDto first = new AdvertisementSearchCriteriaDto(
+                "  Горный   ВЕЛОСИПЕД ", null, 3, null, null, null, new BigDecimal("100"), null, null, null, null, null, null);
+        AdvertisementSearchCriteriaDto second = new AdvertisementSearchCriteriaDto(
+                "горный велосипед", false, 3, null, null, null, new BigDecimal("100.00"), null, null, null, null, null, null);
+
+        assertEquals(SearchCacheKeys.canonical(first), SearchCacheKeys.canonical(second));
+    }
+
+    @Test
+    void canonical_shouldKeepOnlyNarrowestLocation() {
+        AdvertisementSearchCriteriaDto withRegion = new AdvertisementSearchCriteriaDto(
+                null, true, null, 1, 2, 7, null, null, null, null, null, null, null);
+        AdvertisementSearchCriteriaDto cityOnly = new AdvertisementSearchCriteriaDto(
+                null, null, null, null, null, 7, null, null, null, null, null, null, null);
+
+        assertEquals(SearchCacheKeys.canonical(withRegion), SearchCacheKeys.canonical(cityOnly));
+    }
+
+    @Test
+    void hash_shouldBeCompactAndDistinguishSort() {
+        String byDate = SearchCacheKeys.canonical(PageRequest.of(0, 20, Sort.by("createdAt")));
+        String byPrice = SearchCacheKeys.canonical(PageRequest.of(0, 20, Sort.by("price")));
+
+        assertEquals(22, SearchCacheKeys.hash(byDate).length());
+        assertNotEquals(SearchCacheKeys.hash(byDate), SearchCacheKeys.hash(byPrice));
+    }
+}
@@ -0,0 +1,227 @@
+package com.tech.listify.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TwoLevelCacheTest {
+
+    private static final CacheSpec DEFAULTS = new CacheSpec(Duration.ofMinutes(10), Duration.ofMinutes(1), 100L, false, false, false, null);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private RedisCacheManager redisCacheManager;
+    @Mock
+    private RedisCache redisCache;
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private CacheLoadLease lease;
+
+    private TwoLevelCacheManager cacheManager;
+    private TwoLevelCache cache;
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        when(redisCacheManager.getCache("categories")).thenReturn(redisCache);
+        lenient().when(redisCache.getName()).thenReturn("categories");
+        cacheManager = new TwoLevelCacheManager(redisCacheManager, redisTemplate, objectMapper,
+                new CacheSpecs(Map.of(), DEFAULTS), lease, Executors.newSingleThreadExecutor());
+        cache = (TwoLevelCache) cacheManager.getCache("categories");
+    }
+
+    @Test
+    void get_shouldServeFromLocal_afterRemoteHit() {
+        when(redisCache.get(1L)).thenReturn(new SimpleValueWrapper("Электроника"));
+
+        assertEquals("Электроника", cache.get(1L).get());
+        assertEquals("Электроника", cache.get(1L).get());
+
+        verify(redisCache, times(1)).get(1L);
+        assertEquals(1L, cache.stats().get("localHits"));
+        assertEquals(1L, cache.stats().get("remoteHits"));
+    }
+
+    @Test
+    void evict_shouldEvictBothLevels_andBroadcastKey() throws Exception {
+        when(redisCache.get(1L)).thenReturn(new SimpleValueWrapper("Электроника"), (SimpleValueWrapper) null);
+        cache.get(1L);
+
+        cache.evict(1L);
+
+        assertNull(cache.get(1L));
+        verify(redisCache).evict(1L);
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(TwoLevelCacheManager.CHANNEL), message.capture());
+        TwoLevelCacheManager.InvalidationMessage invalidation =
+                objectMapper.readValue(message.getValue(), TwoLevelCacheManager.InvalidationMessage.class);
+        assertEquals("categories", invalidation.cache());
+        assertEquals(List.of("1"), invalidation.keys());
+    }
+
+    @Test
+    void onMessage_shouldInvalidateLocal_onlyForOtherNodes() throws Exception {
+        when(redisCache.get(1L)).thenReturn(new SimpleValueWrapper("Электроника"));
+        cache.get(1L);
+        ArgumentCaptor<String> own = ArgumentCaptor.forClass(String.class);
+        cache.evictLocal(List.of(2L));
+        verify(redisTemplate).convertAndSend(eq(TwoLevelCacheManager.CHANNEL), own.capture());
+
+        cacheManager.onMessage(message(own.getValue().replace("\"2\"", "\"1\"")), null);
+        cache.get(1L);
+        verify(redisCache, times(1)).get(1L);
+
+        cacheManager.onMessage(message(objectMapper.writeValueAsString(Map.of(
+                "origin", "other-node", "cache", "categories", "keys", List.of("1")))), null);
+        cache.get(1L);
+        verify(redisCache, times(2)).get(1L);
+    }
+
+    @Test
+    void getWithLoader_shouldLoadOnce_forConcurrentMisses() throws Exception {
+        when(lease.tryAcquire("categories", "1")).thenReturn(true);
+        when(redisCache.getCacheConfiguration()).thenReturn(RedisCacheConfiguration.defaultCacheConfig());
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        Callable<String> loader = () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            release.await();
+            return "Электроника";
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = executor.submit(() -> cache.get(1L, loader));
+            loading.await();
+            Future<String> second = executor.submit(() -> cache.get(1L, loader));
+            Thread.sleep(100);
+            release.countDown();
+
+            assertEquals("Электроника", first.get(5, TimeUnit.SECONDS));
+            assertEquals("Электроника", second.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+        verify(redisCache).put(1L, "Электроника");
+        verify(lease).release("categories", "1");
+    }
+
+    @Test
+    void getWithLoader_shouldWaitForOtherNode_whenLeaseIsTaken() {
+        when(lease.tryAcquire("categories", "1")).thenReturn(false);
+        when(lease.getWaitTimeout()).thenReturn(Duration.ofSeconds(1));
+        when(redisCache.get(1L)).thenReturn(null, new SimpleValueWrapper("Электроника"));
+
+        assertEquals("Электроника", cache.get(1L, () -> fail("Значение должен вычислить узел с арендой")));
+        verify(redisCache, never()).put(any(), any());
+    }
+
+    @Test
+    void getWithLoader_shouldServeStaleValue_andRefreshInBackground() throws Exception {
+        ExecutorService refreshExecutor = Executors.newSingleThreadExecutor();
+        TwoLevelCacheManager staleWhileRevalidate = new TwoLevelCacheManager(redisCacheManager, redisTemplate, objectMapper,
+                new CacheSpecs(Map.of("categories", new CacheSpec(Duration.ofMinutes(1), null, null, null, null, null, Duration.ofSeconds(10))), DEFAULTS),
+                lease, refreshExecutor);
+        Cache staleCache = staleWhileRevalidate.getCache("categories");
+        when(redisCache.getCacheConfiguration()).thenReturn(RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofMinutes(1)));
+        when(redisCache.get(1L)).thenReturn(new SimpleValueWrapper("Старое"));
+        when(lease.remainingTtlMillis(any())).thenReturn(30_000L);
+        when(lease.tryAcquire("categories", "1")).thenReturn(true);
+
+        assertEquals("Старое", staleCache.get(1L, () -> "Новое"));
+
+        refreshExecutor.shutdown();
+        assertTrue(refreshExecutor.awaitTermination(5, TimeUnit.SECONDS));
+        verify(redisCache).put(1L, "Новое");
+        assertEquals("Новое", staleCache.get(1L, () -> fail("Значение уже обновлено в фоне")));
+    }
+
+    @Test
+    void backgroundRefresh_shouldReloadOnce_acrossNodes() throws Exception {
+        AtomicReference<Object> stored = new AtomicReference<>("Старое");
+        AtomicLong remainingTtl = new AtomicLong(30_000);
+        when(redisCache.get(1L)).thenAnswer(invocation -> new SimpleValueWrapper(stored.get()));
+        doAnswer(invocation -> {
+            stored.set(invocation.getArgument(1));
+            remainingTtl.set(60_000);
+            return null;
+        }).when(redisCache).put(eq(1L), any());
+        when(redisCache.getCacheConfiguration()).thenReturn(RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofMinutes(1)));
+        when(lease.remainingTtlMillis(any())).thenAnswer(invocation -> remainingTtl.get());
+        when(lease.tryAcquire("categories", "1")).thenReturn(true);
+        CacheSpecs specs = new CacheSpecs(Map.of("categories",
+                new CacheSpec(Duration.ofMinutes(1), null, null, null, null, null, Duration.ofSeconds(10))), DEFAULTS);
+        ExecutorService firstExecutor = Executors.newSingleThreadExecutor();
+        ExecutorService secondExecutor = Executors.newSingleThreadExecutor();
+        TwoLevelCacheManager firstNode = new TwoLevelCacheManager(redisCacheManager, redisTemplate, objectMapper, specs, lease, firstExecutor);
+        TwoLevelCacheManager secondNode = new TwoLevelCacheManager(redisCacheManager, redisTemplate, objectMapper, specs, lease, secondExecutor);
+        AtomicInteger loads = new AtomicInteger();
+        Callable<String> loader = () -> "Новое " + loads.incrementAndGet();
+        CountDownLatch secondNodeGate = new CountDownLatch(1);
+        secondExecutor.execute(() -> {
+            try {
+                secondNodeGate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        assertEquals("Старое", secondNode.getCache("categories").get(1L, loader));
+        assertEquals("Старое", firstNode.getCache("categories").get(1L, loader));
+        firstExecutor.shutdown();
+        assertTrue(firstExecutor.awaitTermination(5, TimeUnit.SECONDS));
+        secondNodeGate.countDown();
+        secondExecutor.shutdown();
+        assertTrue(secondExecutor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(1, loads.get());
+        assertEquals("Новое 1", secondNode.getCache("categories").get(1L, () -> fail("Значение уже обновил другой узел")));
+        verify(redisTemplate).convertAndSend(eq(TwoLevelCacheManager.CHANNEL), anyString());
+        firstNode.destroy();
+        secondNode.destroy();
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(TwoLevelCacheManager.CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
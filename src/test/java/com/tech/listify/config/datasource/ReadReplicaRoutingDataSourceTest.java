@@ -0,0 +1,120 @@
+package com.tech.listify.config.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Маршрутизация между двумя независимыми контейнерами PostgreSQL: у каждой БД своя метка в таблице
+ * {@code node}, по ней видно, куда ушел запрос.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ReadReplicaRoutingDataSourceTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> PRIMARY = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Container
+    private static final PostgreSQLContainer<?> REPLICA = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private static DriverManagerDataSource primaryDataSource;
+    private static DriverManagerDataSource replicaDataSource;
+
+    private ReadReplicaRoutingDataSource routingDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate writeTransaction;
+
+    @BeforeAll
+    static void labelDatabases() {
+        primaryDataSource = new DriverManagerDataSource(PRIMARY.getJdbcUrl(), PRIMARY.getUsername(), PRIMARY.getPassword());
+        replicaDataSource = new DriverManagerDataSource(REPLICA.getJdbcUrl(), REPLICA.getUsername(), REPLICA.getPassword());
+        for (Map.Entry<String, DriverManagerDataSource> database : Map.of("primary", primaryDataSource, "replica", replicaDataSource).entrySet()) {
+            JdbcTemplate template = new JdbcTemplate(database.getValue());
+            template.execute("CREATE TABLE node (name TEXT)");
+            template.update("INSERT INTO node VALUES (?)", database.getKey());
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        routingDataSource = new ReadReplicaRoutingDataSource(primaryDataSource, Map.of("replica-1", replicaDataSource), Duration.ofSeconds(30));
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransaction_shouldGoToReplica_onlyAfterLagCheck() {
+        assertEquals("primary", readNodeName());
+
+        new ReplicaLagMonitor(routingDataSource, Duration.ofSeconds(5)).check();
+
+        assertEquals("replica", readNodeName());
+        assertEquals("primary", writeTransaction.execute(status -> nodeName()));
+    }
+
+    @Test
+    void readOnlyTransaction_shouldFallBackToPrimary_whenReplicaConnectionFails() {
+        ReadReplicaRoutingDataSource unreachable = new ReadReplicaRoutingDataSource(primaryDataSource,
+                Map.of("replica-1", new DriverManagerDataSource("jdbc:postgresql://localhost:1/none", "none", "none")),
+                Duration.ofSeconds(30));
+        unreachable.setAvailable("replica-1", true);
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(unreachable);
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transaction.setReadOnly(true);
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+
+        assertEquals("primary", transaction.execute(status -> template.queryForObject("SELECT name FROM node", String.class)));
+        assertTrue(unreachable.getAvailableReplicas().isEmpty());
+    }
+
+    @Test
+    void writingUser_shouldReadFromPrimary_withinStickyWindow() {
+        routingDataSource.setAvailable("replica-1", true);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("seller@listify.by", null, List.of()));
+
+        assertEquals("replica", readNodeName());
+        writeTransaction.executeWithoutResult(status -> jdbcTemplate.update("UPDATE node SET name = name"));
+
+        assertEquals("primary", readNodeName());
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("buyer@listify.by", null, List.of()));
+        assertEquals("replica", readNodeName());
+    }
+
+    private String readNodeName() {
+        return readOnlyTransaction.execute(status -> nodeName());
+    }
+
+    private String nodeName() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+}
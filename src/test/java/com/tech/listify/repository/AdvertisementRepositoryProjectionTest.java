@@ -0,0 +1,122 @@
+package com.tech.listify.repository;
+
+import com.tech.listify.dto.advertisementdto.AdvertisementResponseDto;
+import com.tech.listify.model.Advertisement;
+import com.tech.listify.model.Category;
+import com.tech.listify.model.City;
+import com.tech.listify.model.District;
+import com.tech.listify.model.Region;
+import com.tech.listify.model.User;
+import com.tech.listify.repository.specification.AdvertisementSpecification;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class AdvertisementRepositoryProjectionTest {
+
+    private static final int ADVERTISEMENTS = 25;
+    private static final PageRequest FIRST_PAGE = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt"));
+
+    @Autowired
+    private AdvertisementRepository advertisementRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Region region = new Region();
+        region.setName("Минская");
+        entityManager.persist(region);
+
+        District district = new District();
+        district.setName("Минский");
+        district.setRegion(region);
+        entityManager.persist(district);
+
+        City city = new City();
+        city.setName("Минск");
+        city.setDistrict(district);
+        entityManager.persist(city);
+
+        User seller = new User();
+        seller.setEmail("seller@listify.by");
+        seller.setPasswordHash("hash");
+        seller.setFullName("Продавец");
+        entityManager.persist(seller);
+
+        Category category = new Category();
+        category.setName("Электроника");
+        entityManager.persist(category);
+
+        for (int i = 0; i < ADVERTISEMENTS; i++) {
+            Advertisement ad = new Advertisement();
+            ad.setTitle("Объявление " + i);
+            ad.setPrice(BigDecimal.valueOf(100 + i));
+            ad.setSeller(seller);
+            ad.setCategory(category);
+            ad.setCity(city);
+            ad.setDistrictId(district.getId());
+            ad.setRegionId(region.getId());
+            ad.setPreviewImageUrl("/uploads/ad-" + i + ".jpg");
+            entityManager.persist(ad);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void pageShouldBeLoadedWithSelectAndCountOnly() {
+        Page<AdvertisementResponseDto> page = advertisementRepository.findResponsePage(AdvertisementSpecification.isActive(), FIRST_PAGE);
+
+        assertEquals(10, page.getNumberOfElements());
+        assertEquals(ADVERTISEMENTS, page.getTotalElements());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertMapped(page.getContent());
+    }
+
+    @Test
+    void sliceShouldBeLoadedWithSingleSelect() {
+        Slice<AdvertisementResponseDto> slice = advertisementRepository.findResponseSlice(AdvertisementSpecification.isActive(), FIRST_PAGE);
+
+        assertEquals(10, slice.getNumberOfElements());
+        assertTrue(slice.hasNext());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertMapped(slice.getContent());
+    }
+
+    private void assertMapped(List<AdvertisementResponseDto> content) {
+        content.forEach(dto -> {
+            assertEquals("Минск", dto.cityName());
+            assertTrue(dto.previewImageUrl().startsWith("/uploads/ad-"));
+        });
+    }
+}
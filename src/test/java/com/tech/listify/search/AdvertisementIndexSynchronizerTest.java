@@ -0,0 +1,150 @@
+package com.tech.listify.search;
+
+import com.tech.listify.event.AdvertisementSnapshot;
+import com.tech.listify.model.Advertisement;
+import com.tech.listify.model.Category;
+import com.tech.listify.model.City;
+import com.tech.listify.model.User;
+import com.tech.listify.model.enums.AdvertisementStatus;
+import com.tech.listify.repository.AdvertisementRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdvertisementIndexSynchronizerTest {
+
+    private static final Instant CAUGHT_UP_TO = Instant.parse("2025-07-10T12:00:00Z");
+    private static final Duration OVERLAP = Duration.ofMinutes(2);
+
+    @Mock
+    private AdvertisementSearchIndex searchIndex;
+    @Mock
+    private AdvertisementRepository advertisementRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AdvertisementIndexSynchronizer synchronizer;
+
+    @BeforeEach
+    void setUp() {
+        synchronizer = new AdvertisementIndexSynchronizer(searchIndex, advertisementRepository, transactionManager, OVERLAP);
+    }
+
+    @Test
+    void catchUp_shouldContinueAfterLastIdOfFullBatch_whenUpdatedAtIsTied() throws IOException {
+        OffsetDateTime from = OffsetDateTime.ofInstant(CAUGHT_UP_TO.minus(OVERLAP), ZoneOffset.UTC);
+        OffsetDateTime tied = from.plusSeconds(30);
+        // Последние объявления первой пачки и первое объявление второй изменены в одну и ту же секунду.
+        List<Advertisement> firstBatch = new ArrayList<>();
+        for (long id = 1; id <= 498; id++) {
+            firstBatch.add(advertisement(id, from.plusNanos(id)));
+        }
+        firstBatch.add(advertisement(499L, tied));
+        firstBatch.add(advertisement(500L, tied));
+        List<Advertisement> secondBatch = List.of(advertisement(501L, tied));
+
+        when(searchIndex.isReady()).thenReturn(true);
+        when(searchIndex.getCaughtUpTo()).thenReturn(CAUGHT_UP_TO);
+        when(advertisementRepository.findBatchWithCityUpdatedAfter(from, 0L, Limit.of(500))).thenReturn(firstBatch);
+        when(advertisementRepository.findBatchWithCityUpdatedAfter(tied, 500L, Limit.of(500))).thenReturn(secondBatch);
+        Instant before = Instant.now();
+
+        synchronizer.catchUp();
+
+        ArgumentCaptor<AdvertisementSnapshot> indexed = ArgumentCaptor.forClass(AdvertisementSnapshot.class);
+        verify(searchIndex, times(501)).index(indexed.capture());
+        assertEquals(LongStream.rangeClosed(1, 501).boxed().toList(),
+                indexed.getAllValues().stream().map(AdvertisementSnapshot::id).toList());
+        verify(advertisementRepository, times(2)).findBatchWithCityUpdatedAfter(any(), anyLong(), any());
+
+        ArgumentCaptor<Instant> caughtUpTo = ArgumentCaptor.forClass(Instant.class);
+        verify(searchIndex).setCaughtUpTo(caughtUpTo.capture());
+        assertFalse(caughtUpTo.getValue().isBefore(before));
+    }
+
+    @Test
+    void catchUp_shouldLoadEverything_whenLastCatchUpIsUnknown() {
+        when(searchIndex.isReady()).thenReturn(true);
+        when(searchIndex.getCaughtUpTo()).thenReturn(null);
+        when(advertisementRepository.findBatchWithCityUpdatedAfter(any(), anyLong(), any())).thenReturn(List.of());
+
+        synchronizer.catchUp();
+
+        verify(advertisementRepository).findBatchWithCityUpdatedAfter(
+                OffsetDateTime.ofInstant(Instant.EPOCH, ZoneOffset.UTC), 0L, Limit.of(500));
+    }
+
+    @Test
+    void catchUp_shouldKeepPreviousCheckpoint_whenIndexingFails() throws IOException {
+        when(searchIndex.isReady()).thenReturn(true);
+        when(searchIndex.getCaughtUpTo()).thenReturn(CAUGHT_UP_TO);
+        when(advertisementRepository.findBatchWithCityUpdatedAfter(any(), anyLong(), any()))
+                .thenReturn(List.of(advertisement(1L, OffsetDateTime.ofInstant(CAUGHT_UP_TO, ZoneOffset.UTC))));
+        doThrow(new IOException("disk full")).when(searchIndex).index(any());
+
+        synchronizer.catchUp();
+
+        verify(searchIndex, never()).setCaughtUpTo(any());
+    }
+
+    @Test
+    void removeDeleted_shouldDeleteIdsMissingAmongActive_acrossBatches() throws IOException {
+        long[] indexedIds = LongStream.rangeClosed(1, 1500).toArray();
+        when(searchIndex.isReady()).thenReturn(true);
+        when(searchIndex.ids()).thenReturn(indexedIds);
+        when(advertisementRepository.findIdsByIdInAndStatus(anyCollection(), eq(AdvertisementStatus.ACTIVE)))
+                .thenAnswer(invocation -> {
+                    Collection<Long> ids = invocation.getArgument(0);
+                    return ids.stream().filter(id -> id != 7L && id != 1200L).toList();
+                });
+
+        synchronizer.removeDeleted();
+
+        verify(advertisementRepository, times(2)).findIdsByIdInAndStatus(anyCollection(), eq(AdvertisementStatus.ACTIVE));
+        verify(searchIndex).delete(7L);
+        verify(searchIndex).delete(1200L);
+        verify(searchIndex, times(2)).delete(anyLong());
+    }
+
+    private static Advertisement advertisement(long id, OffsetDateTime updatedAt) {
+        Category category = new Category();
+        category.setId(1);
+        City city = new City();
+        city.setId(1);
+        city.setName("Минск");
+        User seller = new User();
+        seller.setId(1L);
+
+        Advertisement ad = new Advertisement();
+        ad.setId(id);
+        ad.setTitle("Объявление " + id);
+        ad.setPrice(BigDecimal.TEN);
+        ad.setStatus(AdvertisementStatus.ACTIVE);
+        ad.setCategory(category);
+        ad.setCity(city);
+        ad.setSeller(seller);
+        ad.setUpdatedAt(updatedAt);
+        return ad;
+    }
+}
@@ -0,0 +1,222 @@
+package com.tech.listify.search;
+
+import com.tech.listify.dto.PageResponseDto;
+import com.tech.listify.dto.advertisementdto.AdvertisementResponseDto;
+import com.tech.listify.dto.advertisementdto.AdvertisementSearchCriteriaDto;
+import com.tech.listify.event.AdvertisementSnapshot;
+import com.tech.listify.model.Advertisement;
+import com.tech.listify.model.Category;
+import com.tech.listify.model.City;
+import com.tech.listify.model.District;
+import com.tech.listify.model.Region;
+import com.tech.listify.model.User;
+import com.tech.listify.model.enums.AdvertisementCondition;
+import com.tech.listify.model.enums.AdvertisementStatus;
+import com.tech.listify.repository.AdvertisementRepository;
+import com.tech.listify.repository.specification.AdvertisementSpecification;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Выдача индекса сравнивается с выдачей БД по тем же критериям: при {@code app.search.backend=lucene}
+ * фильтры и сортировки не должны менять результат.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class AdvertisementSearchIndexTest {
+
+    private static final int ADVERTISEMENTS = 40;
+    private static final OffsetDateTime BASE_TIME = OffsetDateTime.of(2025, 7, 1, 10, 0, 0, 0, ZoneOffset.UTC);
+    private static final List<Sort> SORTS = List.of(
+            Sort.by(Sort.Direction.DESC, "createdAt"),
+            Sort.by(Sort.Direction.ASC, "createdAt"),
+            Sort.by(Sort.Direction.ASC, "price"),
+            Sort.by(Sort.Direction.DESC, "price"));
+
+    @Autowired
+    private AdvertisementRepository advertisementRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @TempDir
+    private Path indexPath;
+
+    private AdvertisementSearchIndex searchIndex;
+    private final List<City> cities = new ArrayList<>();
+    private final List<User> sellers = new ArrayList<>();
+    private final List<Category> categories = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Region firstRegion = region("Минская");
+        Region secondRegion = region("Брестская");
+        District firstDistrict = district("Минский", firstRegion);
+        District secondDistrict = district("Брестский", secondRegion);
+        cities.add(city("Минск", firstDistrict));
+        cities.add(city("Заславль", firstDistrict));
+        cities.add(city("Брест", secondDistrict));
+        sellers.add(seller("first@listify.by"));
+        sellers.add(seller("second@listify.by"));
+        categories.add(category("Электроника"));
+        categories.add(category("Одежда"));
+
+        AdvertisementCondition[] conditions = AdvertisementCondition.values();
+        for (int i = 0; i < ADVERTISEMENTS; i++) {
+            City city = cities.get(i % cities.size());
+            Advertisement ad = new Advertisement();
+            ad.setTitle("Объявление " + i);
+            ad.setDescription("Описание " + i);
+            ad.setPrice(new BigDecimal("100.00").add(new BigDecimal("7.25").multiply(BigDecimal.valueOf(i))));
+            ad.setSeller(sellers.get(i % sellers.size()));
+            ad.setCategory(categories.get((i / 2) % categories.size()));
+            ad.setCity(city);
+            ad.setDistrictId(city.getDistrict().getId());
+            ad.setRegionId(city.getDistrict().getRegion().getId());
+            ad.setCondition(i % 5 == 0 ? null : conditions[i % conditions.length]);
+            ad.setStatus(i % 7 == 3 ? AdvertisementStatus.INACTIVE : AdvertisementStatus.ACTIVE);
+            entityManager.persist(ad);
+            entityManager.flush();
+            // Даты создания различаются и не совпадают с порядком ID.
+            entityManager.getEntityManager()
+                    .createNativeQuery("UPDATE advertisements SET created_at = :createdAt WHERE id = :id")
+                    .setParameter("createdAt", BASE_TIME.plusMinutes((i * 37L) % ADVERTISEMENTS))
+                    .setParameter("id", ad.getId())
+                    .executeUpdate();
+        }
+        entityManager.clear();
+
+        searchIndex = new AdvertisementSearchIndex(indexPath);
+        searchIndex.rebuild(afterId -> advertisementRepository
+                .findBatchWithCityByStatusAfterId(AdvertisementStatus.ACTIVE, afterId, Limit.of(7)).stream()
+                .map(AdvertisementSnapshot::of)
+                .toList());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        searchIndex.close();
+    }
+
+    @Test
+    void search_shouldMatchDatabase_forFiltersAndSorts() {
+        List<AdvertisementSearchCriteriaDto> criteriaList = List.of(
+                criteria(null, null, null, null, null, null, null, null),
+                criteria(categories.get(1).getId(), null, null, null, null, null, null, null),
+                criteria(null, cities.get(2).getDistrict().getRegion().getId(), null, null, null, null, null, null),
+                criteria(null, null, cities.get(0).getDistrict().getId(), null, null, null, null, null),
+                criteria(null, null, null, cities.get(1).getId(), null, null, null, null),
+                criteria(null, null, null, null, new BigDecimal("150.50"), new BigDecimal("250.25"), null, null),
+                criteria(null, null, null, null, null, null, AdvertisementCondition.USED_PERFECT, null),
+                criteria(null, null, null, null, null, null, null, sellers.get(1).getId()),
+                criteria(categories.get(0).getId(), null, null, cities.get(0).getId(), new BigDecimal("120"), null, null, sellers.get(0).getId()));
+
+        for (AdvertisementSearchCriteriaDto criteria : criteriaList) {
+            for (Sort sort : SORTS) {
+                PageRequest pageable = PageRequest.of(0, 100, sort);
+                List<Long> expected = advertisementRepository
+                        .findResponsePage(AdvertisementSpecification.fromCriteria(criteria), pageable)
+                        .map(AdvertisementResponseDto::id)
+                        .getContent();
+                PageResponseDto<AdvertisementResponseDto> actual = searchIndex.search(criteria, categoryIds(criteria), pageable);
+
+                assertEquals(expected, actual.content().stream().map(AdvertisementResponseDto::id).toList(), criteria + " " + sort);
+                assertEquals(expected.size(), actual.totalElements(), criteria + " " + sort);
+            }
+        }
+    }
+
+    @Test
+    void search_shouldReturnSamePagesAsDatabase() {
+        PageRequest secondPage = PageRequest.of(1, 5, Sort.by(Sort.Direction.ASC, "price"));
+
+        List<Long> expected = advertisementRepository
+                .findResponsePage(AdvertisementSpecification.isActive(), secondPage)
+                .map(AdvertisementResponseDto::id)
+                .getContent();
+
+        assertEquals(expected, searchIndex.search(null, Set.of(), secondPage).content().stream()
+                .map(AdvertisementResponseDto::id).toList());
+    }
+
+    @Test
+    void search_shouldReturnEmptyPage_whenOffsetIsBeyondIndex() {
+        PageResponseDto<AdvertisementResponseDto> page = searchIndex.search(null, Set.of(),
+                PageRequest.of(Integer.MAX_VALUE / 10, 100, Sort.by(Sort.Direction.DESC, "createdAt")));
+
+        assertTrue(page.content().isEmpty());
+        assertEquals(searchIndex.numDocs(), page.totalElements());
+    }
+
+    @Test
+    void supportsSort_shouldRejectPropertiesMissingFromIndex() {
+        assertTrue(searchIndex.supportsSort(Sort.by("createdAt", "price")));
+        assertTrue(searchIndex.supportsSort(Sort.unsorted()));
+        assertFalse(searchIndex.supportsSort(Sort.by("price").and(Sort.by("title"))));
+    }
+
+    private AdvertisementSearchCriteriaDto criteria(Integer categoryId, Integer regionId, Integer districtId, Integer cityId,
+                                                    BigDecimal minPrice, BigDecimal maxPrice,
+                                                    AdvertisementCondition condition, Long sellerId) {
+        return new AdvertisementSearchCriteriaDto(null, null, categoryId, regionId, districtId, cityId,
+                minPrice, maxPrice, condition, sellerId, null, null, null);
+    }
+
+    private static Set<Integer> categoryIds(AdvertisementSearchCriteriaDto criteria) {
+        return criteria.categoryId() != null ? Set.of(criteria.categoryId()) : Set.of();
+    }
+
+    private Region region(String name) {
+        Region region = new Region();
+        region.setName(name);
+        return entityManager.persist(region);
+    }
+
+    private District district(String name, Region region) {
+        District district = new District();
+        district.setName(name);
+        district.setRegion(region);
+        return entityManager.persist(district);
+    }
+
+    private City city(String name, District district) {
+        City city = new City();
+        city.setName(name);
+        city.setDistrict(district);
+        return entityManager.persist(city);
+    }
+
+    private User seller(String email) {
+        User seller = new User();
+        seller.setEmail(email);
+        seller.setPasswordHash("hash");
+        seller.setFullName("Продавец");
+        return entityManager.persist(seller);
+    }
+
+    private Category category(String name) {
+        Category category = new Category();
+        category.setName(name);
+        return entityManager.persist(category);
+    }
+}
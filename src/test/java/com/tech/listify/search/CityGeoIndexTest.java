@@ -0,0 +1,59 @@
+package com.tech.listify.search;
+
+import com.tech.listify.model.City;
+import com.tech.listify.repository.CityRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CityGeoIndexTest {
+
+    @Mock
+    private CityRepository cityRepository;
+
+    @InjectMocks
+    private CityGeoIndex cityGeoIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(cityRepository.findByLatitudeIsNotNullAndLongitudeIsNotNull()).thenReturn(List.of(
+                city(1, 52.0976, 23.7341),   // Брест
+                city(14, 53.6694, 23.8131),  // Гродно
+                city(18, 54.0083, 27.2836),  // Заславль
+                city(19, 54.2279, 28.5050),  // Борисов
+                city(21, 54.3104, 26.8389),  // Молодечно
+                city(25, 53.9045, 27.5615)));// Минск
+        cityGeoIndex.load();
+    }
+
+    @Test
+    void findWithin_shouldReturnCitiesInRadiusOrderedByDistance() {
+        List<CityGeoIndex.CityDistance> result = cityGeoIndex.findWithin(53.9045, 27.5615, 80);
+
+        assertEquals(List.of(25, 18, 21, 19), result.stream().map(CityGeoIndex.CityDistance::cityId).toList());
+        assertEquals(0.0, result.getFirst().distanceKm(), 1e-6);
+        assertEquals(72, result.getLast().distanceKm(), 3);
+    }
+
+    @Test
+    void findWithin_shouldReturnEmpty_whenNoCityIsClose() {
+        assertTrue(cityGeoIndex.findWithin(55.7558, 37.6173, 100).isEmpty());
+    }
+
+    private City city(int id, double latitude, double longitude) {
+        City city = new City();
+        city.setId(id);
+        city.setLatitude(latitude);
+        city.setLongitude(longitude);
+        return city;
+    }
+}
@@ -0,0 +1,121 @@
+package com.tech.listify.search;
+
+import com.tech.listify.event.AdvertisementSnapshot;
+import com.tech.listify.model.SavedSearch;
+import com.tech.listify.model.User;
+import com.tech.listify.model.enums.AdvertisementCondition;
+import com.tech.listify.model.enums.AdvertisementStatus;
+import com.tech.listify.repository.SavedSearchRepository;
+import com.tech.listify.service.CategoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SavedSearchIndexTest {
+
+    private static final long SELLER_ID = 100L;
+
+    @Mock
+    private SavedSearchRepository savedSearchRepository;
+
+    @Mock
+    private CategoryService categoryService;
+
+    @InjectMocks
+    private SavedSearchIndex savedSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(savedSearchRepository.findBatchAfterId(eq(0L), any())).thenReturn(List.of(
+                savedSearch(1, 1, null, 2, null, null, "100", "500", null),     // категория-предок, цена в диапазоне
+                savedSearch(2, 1, null, 5, null, null, "600", null, null),      // цена ниже минимальной
+                savedSearch(3, 2, null, null, 7, null, null, "200", null),      // город объявления, цена до 200
+                savedSearch(4, 2, null, null, 8, null, null, null, null),       // другой город
+                savedSearch(5, 3, "велосипеды", null, null, null, null, null, null),
+                savedSearch(6, 3, "самокат", null, null, null, null, null, null),
+                savedSearch(7, SELLER_ID, null, 5, null, null, null, null, null), // поиск самого продавца
+                savedSearch(8, 4, null, null, null, null, null, null, AdvertisementCondition.USED_GOOD)));
+        savedSearchIndex.load();
+        lenient().when(categoryService.findAncestorCategoryIds(5)).thenReturn(Set.of(5, 2));
+    }
+
+    @Test
+    void match_shouldReturnSearchesMatchingAllFilters() {
+        List<Long> matches = savedSearchIndex.match(ad("199.99", AdvertisementCondition.NEW));
+
+        assertEquals(Set.of(1L, 3L, 5L), Set.copyOf(matches));
+        assertEquals(3, matches.size());
+    }
+
+    @Test
+    void match_shouldRespectPriceBoundsAndCondition() {
+        assertEquals(Set.of(1L, 5L, 8L), Set.copyOf(savedSearchIndex.match(ad("200.01", AdvertisementCondition.USED_GOOD))));
+        assertEquals(Set.of(2L, 5L), Set.copyOf(savedSearchIndex.match(ad("600", AdvertisementCondition.NEW))));
+    }
+
+    @Test
+    void match_shouldIgnoreInactiveAdvertisements() {
+        AdvertisementSnapshot ad = new AdvertisementSnapshot(10L, "Велосипед", null, new BigDecimal("150"),
+                AdvertisementStatus.INACTIVE, null, 5, 7, "Минск", 3, 1, SELLER_ID, OffsetDateTime.now(), null);
+
+        assertTrue(savedSearchIndex.match(ad).isEmpty());
+    }
+
+    @Test
+    void removeAndAdd_shouldUpdateIndex() {
+        savedSearchIndex.remove(1L);
+        savedSearchIndex.add(savedSearch(9, 5, null, null, null, 1, "150", "150", null));
+
+        assertEquals(Set.of(3L, 5L, 9L), Set.copyOf(savedSearchIndex.match(ad("150.00", AdvertisementCondition.NEW))));
+        assertEquals(8, savedSearchIndex.size());
+    }
+
+    @Test
+    void load_shouldApplySearchesChangedThroughOtherNodes() {
+        when(savedSearchRepository.findBatchAfterId(eq(0L), any())).thenReturn(List.of(
+                savedSearch(3, 2, null, null, 7, null, null, "200", null),
+                savedSearch(5, 3, "велосипеды", null, null, null, null, null, null),
+                savedSearch(9, 5, null, null, null, 1, "150", "150", null)));
+
+        savedSearchIndex.load();
+
+        assertEquals(Set.of(3L, 5L, 9L), Set.copyOf(savedSearchIndex.match(ad("150.00", AdvertisementCondition.NEW))));
+        assertEquals(3, savedSearchIndex.size());
+    }
+
+    private AdvertisementSnapshot ad(String price, AdvertisementCondition condition) {
+        return new AdvertisementSnapshot(10L, "Горный велосипед", "Почти новый, 21 скорость", new BigDecimal(price),
+                AdvertisementStatus.ACTIVE, condition, 5, 7, "Минск", 3, 1, SELLER_ID, OffsetDateTime.now(), null);
+    }
+
+    private SavedSearch savedSearch(long id, long userId, String keyword, Integer categoryId, Integer cityId, Integer regionId,
+                                    String minPrice, String maxPrice, AdvertisementCondition condition) {
+        User user = new User();
+        user.setId(userId);
+        SavedSearch savedSearch = new SavedSearch();
+        savedSearch.setId(id);
+        savedSearch.setUser(user);
+        savedSearch.setName("Поиск " + id);
+        savedSearch.setKeyword(keyword);
+        savedSearch.setCategoryId(categoryId);
+        savedSearch.setCityId(cityId);
+        savedSearch.setRegionId(regionId);
+        savedSearch.setMinPrice(minPrice == null ? null : new BigDecimal(minPrice));
+        savedSearch.setMaxPrice(maxPrice == null ? null : new BigDecimal(maxPrice));
+        savedSearch.setCondition(condition);
+        return savedSearch;
+    }
+}
@@ -0,0 +1,113 @@
+package com.tech.listify.search;
+
+import com.tech.listify.dto.advertisementdto.SuggestionDto;
+import com.tech.listify.event.AdvertisementChangedEvent;
+import com.tech.listify.event.AdvertisementSnapshot;
+import com.tech.listify.model.enums.AdvertisementCondition;
+import com.tech.listify.model.enums.AdvertisementStatus;
+import com.tech.listify.repository.AdvertisementRepository;
+import com.tech.listify.repository.TitleCount;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TitleSuggestIndexTest {
+
+    @Mock
+    private AdvertisementRepository advertisementRepository;
+
+    @InjectMocks
+    private TitleSuggestIndex titleSuggestIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(advertisementRepository.countTitlesByStatus(AdvertisementStatus.ACTIVE)).thenReturn(List.of(
+                new TitleCount("Ноутбук Lenovo", 5),
+                new TitleCount("ноутбук  asus", 3),
+                new TitleCount("Ноутбук", 1),
+                new TitleCount("ноутбуки", 2),
+                new TitleCount("НОЖ", 1),
+                new TitleCount("нож", 3),           // сливается с "НОЖ" после нормализации
+                new TitleCount("ножницы", 7),
+                new TitleCount("Ёлка", 2),
+                new TitleCount("мяч", 1)));
+        titleSuggestIndex.load();
+    }
+
+    @Test
+    void suggest_shouldReturnTitlesWithPrefix_inWeightOrder() {
+        assertEquals(List.of(
+                        new SuggestionDto("ноутбук lenovo", 5),
+                        new SuggestionDto("ноутбук asus", 3),
+                        new SuggestionDto("ноутбуки", 2),
+                        new SuggestionDto("ноутбук", 1)),
+                titleSuggestIndex.suggest("Ноутбук", 10));
+    }
+
+    @Test
+    void suggest_shouldStopAtPrefixBounds() {
+        assertEquals(List.of(new SuggestionDto("ножницы", 7), new SuggestionDto("нож", 4)),
+                titleSuggestIndex.suggest("нож", 10));
+        assertEquals(List.of(new SuggestionDto("ножницы", 7)), titleSuggestIndex.suggest("ножн", 10));
+        assertEquals(List.of(new SuggestionDto("елка", 2)), titleSuggestIndex.suggest("ёл", 10));
+        assertEquals(List.of(), titleSuggestIndex.suggest("ноя", 10));
+        assertEquals(List.of(), titleSuggestIndex.suggest("а", 10));
+        assertEquals(List.of(), titleSuggestIndex.suggest("я", 10));
+        assertEquals(List.of(), titleSuggestIndex.suggest("ножницы большие", 10));
+    }
+
+    @Test
+    void suggest_shouldReturnTopN() {
+        assertEquals(List.of(new SuggestionDto("ножницы", 7), new SuggestionDto("ноутбук lenovo", 5)),
+                titleSuggestIndex.suggest("но", 2));
+    }
+
+    @Test
+    void onAdvertisementChanged_shouldUpdateWeightOfIndexedTitle_withoutRebuild() {
+        for (long id = 1; id <= 4; id++) {
+            titleSuggestIndex.onAdvertisementChanged(AdvertisementChangedEvent.created(ad(id, "Нож", AdvertisementStatus.ACTIVE)));
+        }
+
+        assertEquals(List.of(new SuggestionDto("нож", 8), new SuggestionDto("ножницы", 7)),
+                titleSuggestIndex.suggest("нож", 10));
+        assertEquals(false, titleSuggestIndex.stats().get("pendingRebuild"));
+    }
+
+    @Test
+    void onAdvertisementChanged_shouldDropTitle_whenLastAdvertisementLeaves() {
+        titleSuggestIndex.onAdvertisementChanged(AdvertisementChangedEvent.updated(
+                ad(1L, "мяч", AdvertisementStatus.ACTIVE), ad(1L, "мяч", AdvertisementStatus.INACTIVE)));
+
+        assertEquals(List.of(), titleSuggestIndex.suggest("мяч", 10));
+    }
+
+    @Test
+    void onAdvertisementChanged_shouldIndexNewTitle_onlyAfterRebuild() {
+        titleSuggestIndex.onAdvertisementChanged(AdvertisementChangedEvent.created(ad(1L, "Ноутбук HP", AdvertisementStatus.ACTIVE)));
+
+        assertFalse(titleSuggestIndex.suggest("ноутбук h", 10).contains(new SuggestionDto("ноутбук hp", 1)));
+        assertEquals(true, titleSuggestIndex.stats().get("pendingRebuild"));
+
+        titleSuggestIndex.rebuildIfDirty();
+
+        assertEquals(List.of(new SuggestionDto("ноутбук hp", 1)), titleSuggestIndex.suggest("ноутбук h", 10));
+        assertEquals(false, titleSuggestIndex.stats().get("pendingRebuild"));
+        assertEquals(9, titleSuggestIndex.stats().get("titles"));
+    }
+
+    private AdvertisementSnapshot ad(Long id, String title, AdvertisementStatus status) {
+        return new AdvertisementSnapshot(id, title, "Описание", new BigDecimal("10.00"), status,
+                AdvertisementCondition.NEW, 1, 1, "Минск", 1, 1, 100L, OffsetDateTime.now(), null);
+    }
+}
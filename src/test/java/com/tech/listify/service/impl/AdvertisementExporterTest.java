@@ -0,0 +1,115 @@
+package com.tech.listify.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.tech.listify.dto.advertisementdto.AdvertisementResponseDto;
+import com.tech.listify.exception.TooManyRequestsException;
+import com.tech.listify.repository.AdvertisementRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdvertisementExporterTest {
+
+    @Mock
+    private AdvertisementRepository advertisementRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AdvertisementExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        exporter = new AdvertisementExporter(advertisementRepository, transactionManager, objectMapper, 1, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void export_shouldWriteOneJsonObjectPerLine() throws Exception {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(advertisementRepository.streamResponses(any(), any(), eq(2))).thenReturn(Stream.of(row(1L), row(2L), row(3L)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.export(Specification.where(null), Sort.unsorted(), repository -> {}).writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":1,"));
+        assertTrue(lines[2].startsWith("{\"id\":3,"));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void export_shouldRejectExportsOverLimit_untilPreviousOneFinishes() throws Exception {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(advertisementRepository.streamResponses(any(), any(), anyInt())).thenReturn(Stream.empty());
+
+        StreamingResponseBody first = exporter.export(Specification.where(null), Sort.unsorted(), repository -> {});
+        assertThrows(TooManyRequestsException.class,
+                () -> exporter.export(Specification.where(null), Sort.unsorted(), repository -> {}));
+
+        first.writeTo(new ByteArrayOutputStream());
+        assertNotNull(exporter.export(Specification.where(null), Sort.unsorted(), repository -> {}));
+    }
+
+    @Test
+    void export_shouldReleasePermit_whenAsyncRequestCompletesWithoutRunningBody() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+        asyncManager.setAsyncWebRequest(new StandardServletAsyncWebRequest(request, response));
+        // Пул не запускает задачу: тело ответа так и не выполнится.
+        asyncManager.setTaskExecutor(mock(AsyncTaskExecutor.class));
+
+        StreamingResponseBody body = exporter.export(Specification.where(null), Sort.unsorted(), repository -> {});
+        asyncManager.startCallableProcessing(() -> body);
+        request.getAsyncContext().complete();
+
+        RequestContextHolder.resetRequestAttributes();
+        assertNotNull(exporter.export(Specification.where(null), Sort.unsorted(), repository -> {}));
+        verifyNoInteractions(advertisementRepository);
+    }
+
+    private AdvertisementResponseDto row(Long id) {
+        return new AdvertisementResponseDto(id, "Объявление " + id, new BigDecimal("10.00"), 25, "Минск",
+                OffsetDateTime.of(2025, 7, 1, 10, 0, 0, 0, ZoneOffset.UTC), null);
+    }
+}
@@ -0,0 +1,151 @@
+package com.tech.listify.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tech.listify.cache.LocalStateInvalidator;
+import com.tech.listify.cache.TwoLevelCacheManager;
+import com.tech.listify.dto.advertisementdto.AdvertisementResponseDto;
+import com.tech.listify.dto.advertisementdto.RankingWeightsDto;
+import com.tech.listify.exception.InvalidRequestParameterException;
+import com.tech.listify.repository.RelevanceCandidate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdvertisementRelevanceRankerTest {
+
+    private static final OffsetDateTime NOW = OffsetDateTime.of(2025, 7, 10, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private AdvertisementViewCounter viewCounter;
+    @Mock
+    private ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private AdvertisementRelevanceRanker ranker;
+
+    @BeforeEach
+    void setUp() {
+        ranker = newRanker();
+    }
+
+    @Test
+    void rank_shouldPreferFreshAdvertisement_whenTextRankIsClose() {
+        List<RelevanceCandidate> candidates = List.of(
+                candidate(1L, 0L, 0.50, NOW.minusDays(30)),
+                candidate(2L, 0L, 0.45, NOW.minusHours(2)));
+
+        List<AdvertisementResponseDto> ranked = ranker.rank(candidates, NOW);
+
+        assertEquals(List.of(2L, 1L), ranked.stream().map(AdvertisementResponseDto::id).toList());
+    }
+
+    @Test
+    void rank_shouldUsePopularity_whenItIsTheOnlyWeight() {
+        ranker.updateWeights(new RankingWeightsDto(0.0, 0.0, 1.0, 72.0, 500));
+        when(viewCounter.pending(1L)).thenReturn(3L);
+        when(viewCounter.pending(3L)).thenReturn(40L);
+        List<RelevanceCandidate> candidates = List.of(
+                candidate(1L, 0L, 0.9, NOW),
+                candidate(2L, 120L, 0.1, NOW.minusDays(10)),
+                candidate(3L, 0L, 0.5, NOW.minusDays(1)));
+
+        List<AdvertisementResponseDto> ranked = ranker.rank(candidates, NOW);
+
+        assertEquals(List.of(2L, 3L, 1L), ranked.stream().map(AdvertisementResponseDto::id).toList());
+    }
+
+    @Test
+    void rank_shouldOrderNewerFirst_whenScoresAreEqual() {
+        ranker.updateWeights(new RankingWeightsDto(1.0, 0.0, 0.0, 72.0, 500));
+        List<RelevanceCandidate> candidates = List.of(
+                candidate(1L, 0L, 0.0, NOW.minusDays(2)),
+                candidate(2L, 0L, 0.0, NOW.minusDays(1)));
+
+        List<AdvertisementResponseDto> ranked = ranker.rank(candidates, NOW);
+
+        assertEquals(List.of(2L, 1L), ranked.stream().map(AdvertisementResponseDto::id).toList());
+    }
+
+    @Test
+    void updateWeights_shouldRejectAllZeroWeights() {
+        RankingWeightsDto before = ranker.getWeights();
+
+        assertThrows(InvalidRequestParameterException.class,
+                () -> ranker.updateWeights(new RankingWeightsDto(0.0, 0.0, 0.0, 72.0, 500)));
+        assertEquals(before, ranker.getWeights());
+    }
+
+    @Test
+    void updateWeights_shouldStoreWeightsInRedis_andBroadcastChange() throws Exception {
+        ranker = newRankerWithRedis();
+        RankingWeightsDto weights = new RankingWeightsDto(1.0, 0.5, 0.0, 24.0, 100);
+
+        ranker.updateWeights(weights);
+
+        verify(valueOperations).set("search-ranking:weights", objectMapper.writeValueAsString(weights));
+        verify(redisTemplate).convertAndSend(eq(TwoLevelCacheManager.CHANNEL), contains("local:search-ranking-weights"));
+        assertEquals(weights, ranker.getWeights());
+    }
+
+    @Test
+    void reload_shouldApplyWeightsStoredByAnotherNode_andChangeVersion() throws Exception {
+        ranker = newRankerWithRedis();
+        String before = ranker.weightsVersion();
+        RankingWeightsDto stored = new RankingWeightsDto(0.2, 0.2, 0.6, 48.0, 300);
+        when(valueOperations.get("search-ranking:weights")).thenReturn(objectMapper.writeValueAsString(stored));
+
+        ranker.reload();
+
+        assertEquals(stored, ranker.getWeights());
+        assertNotEquals(before, ranker.weightsVersion());
+    }
+
+    @Test
+    void reload_shouldReturnToConfiguredWeights_whenNothingIsStored() {
+        ranker = newRankerWithRedis();
+        RankingWeightsDto defaults = ranker.getWeights();
+        ranker.updateWeights(new RankingWeightsDto(1.0, 0.0, 0.0, 72.0, 500));
+        when(valueOperations.get("search-ranking:weights")).thenReturn(null);
+
+        ranker.reload();
+
+        assertEquals(defaults, ranker.getWeights());
+    }
+
+    private AdvertisementRelevanceRanker newRanker() {
+        return new AdvertisementRelevanceRanker(viewCounter, redisTemplateProvider, objectMapper,
+                new LocalStateInvalidator(redisTemplateProvider, objectMapper), 0.6, 0.3, 0.1, Duration.ofHours(72), 500);
+    }
+
+    private AdvertisementRelevanceRanker newRankerWithRedis() {
+        when(redisTemplateProvider.getIfAvailable()).thenReturn(redisTemplate);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        return newRanker();
+    }
+
+    private RelevanceCandidate candidate(Long id, long viewCount, double textRank, OffsetDateTime createdAt) {
+        return new RelevanceCandidate(new AdvertisementResponseDto(id, "Объявление " + id, new BigDecimal("10.00"),
+                25, "Минск", createdAt, null), viewCount, textRank);
+    }
+}
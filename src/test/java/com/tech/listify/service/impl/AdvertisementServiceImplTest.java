@@ -0,0 +1,178 @@
+package com.tech.listify.service.impl;
+
+import com.tech.listify.cache.AdvertisementDetailCache;
+import com.tech.listify.dto.CursorPageResponseDto;
+import com.tech.listify.dto.advertisementdto.AdvertisementBatchDto;
+import com.tech.listify.dto.advertisementdto.AdvertisementDetailDto;
+import com.tech.listify.dto.advertisementdto.AdvertisementResponseDto;
+import com.tech.listify.dto.advertisementdto.AdvertisementSearchCriteriaDto;
+import com.tech.listify.exception.InvalidRequestParameterException;
+import com.tech.listify.exception.ResourceNotFoundException;
+import com.tech.listify.mapper.AdvertisementMapper;
+import com.tech.listify.model.Advertisement;
+import com.tech.listify.repository.AdvertisementRepository;
+import com.tech.listify.repository.UserRepository;
+import com.tech.listify.repository.specification.AdvertisementCursor;
+import com.tech.listify.search.AdvertisementSearchIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdvertisementServiceImplTest {
+
+    @Mock
+    private AdvertisementRepository advertisementRepository;
+    @Mock
+    private AdvertisementMapper advertisementMapper;
+    @Mock
+    private AdvertisementDetailCache detailCache;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private AdvertisementViewCounter viewCounter;
+    @Mock
+    private ObjectProvider<AdvertisementSearchIndex> searchIndexProvider;
+    @Mock
+    private AdvertisementSearchIndex searchIndex;
+
+    @InjectMocks
+    private AdvertisementServiceImpl advertisementService;
+
+    @Test
+    void getAdvertisementsByIds_shouldCombineCacheAndDatabaseInRequestOrder() {
+        Advertisement loaded = new Advertisement();
+        loaded.setId(1L);
+        when(detailCache.getAll(List.of(3L, 1L, 2L))).thenReturn(Map.of(3L, detail(3L)));
+        when(advertisementRepository.findDetailsByIdIn(List.of(1L, 2L))).thenReturn(List.of(loaded));
+        when(advertisementMapper.toAdvertisementDetailDto(loaded)).thenReturn(detail(1L));
+
+        AdvertisementBatchDto result = advertisementService.getAdvertisementsByIds(List.of(3L, 1L, 3L, 2L));
+
+        assertEquals(List.of(3L, 1L), result.advertisements().stream().map(AdvertisementDetailDto::id).toList());
+        assertEquals(List.of(2L), result.missingIds());
+        verify(detailCache).putAll(Map.of(1L, detail(1L)));
+    }
+
+    @Test
+    void getAdvertisementsByIds_shouldNotQueryDatabase_whenAllCached() {
+        when(detailCache.getAll(List.of(1L, 2L))).thenReturn(Map.of(1L, detail(1L), 2L, detail(2L)));
+
+        AdvertisementBatchDto result = advertisementService.getAdvertisementsByIds(List.of(1L, 2L));
+
+        assertEquals(2, result.advertisements().size());
+        assertTrue(result.missingIds().isEmpty());
+        verifyNoInteractions(advertisementRepository);
+    }
+
+    @Test
+    void getAdvertisementsByIds_shouldRejectTooManyIds() {
+        List<Long> ids = LongStream.rangeClosed(1, 51).boxed().toList();
+
+        assertThrows(InvalidRequestParameterException.class, () -> advertisementService.getAdvertisementsByIds(ids));
+        verify(detailCache, never()).getAll(anyList());
+    }
+
+    @Test
+    void getAdvertisementById_shouldCountView_andAddPendingViews() {
+        when(detailCache.get(eq(1L), any())).thenReturn(detail(1L));
+        when(viewCounter.pending(1L)).thenReturn(3L);
+
+        AdvertisementDetailDto result = advertisementService.getAdvertisementById(1L);
+
+        assertEquals(13L, result.viewCount());
+        verify(viewCounter).increment(1L);
+        verifyNoInteractions(advertisementRepository);
+    }
+
+    @Test
+    void getAdvertisementById_shouldPreferFlushedViewCount_overCachedCard() {
+        when(detailCache.get(eq(1L), any())).thenReturn(detail(1L));
+        when(detailCache.getViewCounts(List.of(1L))).thenReturn(Map.of(1L, 25L));
+        when(viewCounter.pending(1L)).thenReturn(3L);
+
+        assertEquals(28L, advertisementService.getAdvertisementById(1L).viewCount());
+    }
+
+    @Test
+    void getAdvertisementById_shouldNotCountView_whenAdvertisementNotFound() {
+        when(detailCache.get(eq(1L), any())).thenAnswer(invocation -> invocation.<Callable<?>>getArgument(1).call());
+        when(advertisementRepository.findDetailsByIdIn(List.of(1L))).thenReturn(List.of());
+
+        assertThrows(ResourceNotFoundException.class, () -> advertisementService.getAdvertisementById(1L));
+        verify(viewCounter, never()).increment(anyLong());
+    }
+
+    @Test
+    void scrollAdvertisements_shouldApplyFuzzyThreshold() {
+        ReflectionTestUtils.setField(advertisementService, "fuzzySimilarityThreshold", 0.4);
+        when(advertisementRepository.findResponses(any(), any(), eq(21))).thenReturn(List.of());
+
+        advertisementService.scrollAdvertisements(new AdvertisementSearchCriteriaDto(
+                "ноутбк", true, null, null, null, null, null, null, null, null, null, null, null), null, 20);
+
+        verify(advertisementRepository).setWordSimilarityThreshold("0.4");
+    }
+
+    @Test
+    void getSellerAdvertisements_shouldReturnCursor_whenMoreRowsExist() {
+        when(userRepository.existsById(7L)).thenReturn(true);
+        when(advertisementRepository.findResponses(any(), any(), eq(3))).thenReturn(List.of(row(3L), row(2L), row(1L)));
+
+        CursorPageResponseDto<AdvertisementResponseDto> page = advertisementService.getSellerAdvertisements(7L, null, 2);
+
+        assertEquals(List.of(3L, 2L), page.content().stream().map(AdvertisementResponseDto::id).toList());
+        assertTrue(page.hasNext());
+        assertEquals(new AdvertisementCursor(row(2L).createdAt(), 2L).encode(), page.nextCursor());
+    }
+
+    @Test
+    void getSellerAdvertisements_shouldThrow_whenSellerNotFound() {
+        when(userRepository.existsById(7L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> advertisementService.getSellerAdvertisements(7L, null, 20));
+        verifyNoInteractions(advertisementRepository);
+    }
+
+    @Test
+    void searchAdvertisements_shouldUseDatabase_whenIndexCannotSortByProperty() {
+        Pageable pageable = PageRequest.of(0, 20, Sort.by(Sort.Direction.ASC, "title"));
+        when(searchIndexProvider.getIfAvailable()).thenReturn(searchIndex);
+        when(searchIndex.isReady()).thenReturn(true);
+        when(searchIndex.supportsSort(pageable.getSort())).thenReturn(false);
+        when(advertisementRepository.findResponsePage(any(), eq(pageable))).thenReturn(new PageImpl<>(List.of(row(1L)), pageable, 1));
+
+        assertEquals(List.of(row(1L)), advertisementService.searchAdvertisements(null, pageable).content());
+        verify(searchIndex, never()).search(any(), any(), any());
+    }
+
+    private AdvertisementResponseDto row(Long id) {
+        return new AdvertisementResponseDto(id, "Объявление " + id, new BigDecimal("10.00"), 25, "Минск",
+                OffsetDateTime.of(2025, 7, 1, 10, 0, 0, 0, ZoneOffset.UTC).plusMinutes(id), null);
+    }
+
+    private AdvertisementDetailDto detail(Long id) {
+        return new AdvertisementDetailDto(id, "Объявление " + id, null, null, null, null, null, null,
+                null, null, null, null, null, null, 10L, List.of());
+    }
+}
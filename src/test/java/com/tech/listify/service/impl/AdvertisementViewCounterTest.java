@@ -0,0 +1,132 @@
+package com.tech.listify.service.impl;
+
+import com.tech.listify.cache.AdvertisementDetailCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdvertisementViewCounterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private AdvertisementDetailCache detailCache;
+
+    private AdvertisementViewCounter viewCounter;
+
+    @BeforeEach
+    void setUp() {
+        viewCounter = new AdvertisementViewCounter(jdbcTemplate, detailCache, 2);
+    }
+
+    @Test
+    void flush_shouldWriteDeltasInBatchesOrderedById_andStoreNewCounts() {
+        returnViewCounts(100);
+        viewCounter.increment(3L);
+        viewCounter.increment(1L);
+        viewCounter.increment(1L);
+        viewCounter.increment(2L);
+
+        viewCounter.flush();
+
+        verify(jdbcTemplate).query(contains("(VALUES (?, ?), (?, ?))"), any(RowCallbackHandler.class), eq(new Object[]{1L, 2L, 2L, 1L}));
+        verify(jdbcTemplate).query(contains("(VALUES (?, ?))"), any(RowCallbackHandler.class), eq(new Object[]{3L, 1L}));
+        verify(detailCache).putViewCounts(Map.of(1L, 102L, 2L, 101L, 3L, 101L));
+        assertEquals(0, viewCounter.pending(1L));
+    }
+
+    @Test
+    void flush_shouldKeepDeltas_whenUpdateFails() {
+        viewCounter.increment(1L);
+        doThrow(new DataAccessResourceFailureException("down"))
+                .when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+
+        viewCounter.flush();
+
+        assertEquals(1, viewCounter.pending(1L));
+        verifyNoInteractions(detailCache);
+    }
+
+    @Test
+    void stop_shouldFlushPendingViews() {
+        viewCounter.increment(5L);
+
+        viewCounter.stop();
+
+        verify(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq(new Object[]{5L, 1L}));
+        assertFalse(viewCounter.isRunning());
+    }
+
+    @Test
+    void increment_shouldNotLoseViews_whileFlushRemovesIdleCounters() throws Exception {
+        AtomicLong flushed = new AtomicLong();
+        doAnswer(invocation -> {
+            flushed.addAndGet((Long) ((Object[]) invocation.getRawArguments()[2])[1]);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+        int threads = 4;
+        int viewsPerThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> viewers = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                viewers.add(executor.submit(() -> {
+                    for (int view = 0; view < viewsPerThread; view++) {
+                        viewCounter.increment(1L);
+                        if (view % 100 == 0) {
+                            Thread.yield();
+                        }
+                    }
+                }));
+            }
+            while (viewers.stream().anyMatch(viewer -> !viewer.isDone())) {
+                viewCounter.flush();
+            }
+            for (Future<?> viewer : viewers) {
+                viewer.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        viewCounter.flush();
+
+        assertEquals((long) threads * viewsPerThread, flushed.get());
+    }
+
+    /**
+     * {@code RETURNING} отдает для каждой строки пачки {@code base + delta}.
+     */
+    private void returnViewCounts(long base) {
+        doAnswer(invocation -> {
+            Object[] arguments = (Object[]) invocation.getRawArguments()[2];
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (int i = 0; i < arguments.length; i += 2) {
+                ResultSet row = mock(ResultSet.class);
+                when(row.getLong("id")).thenReturn((Long) arguments[i]);
+                when(row.getLong("view_count")).thenReturn(base + (Long) arguments[i + 1]);
+                handler.processRow(row);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+    }
+}